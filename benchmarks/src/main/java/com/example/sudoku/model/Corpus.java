@@ -0,0 +1,58 @@
+package com.example.sudoku.model;
+
+import com.example.sudoku.model.solver.BacktrackingSolver;
+
+import java.util.Random;
+
+/**
+ * Fixed corpora of boards built from a fixed seed, so every benchmark run sees
+ * exactly the same inputs.
+ */
+final class Corpus {
+    /** Seed used to build every corpus. */
+    static final long SEMILLA = 20241018L;
+    /** Number of boards in each corpus. */
+    static final int TAMANO = 64;
+
+    private Corpus() {
+    }
+
+    /**
+     * Builds solved boards.
+     *
+     * @return the solved boards.
+     */
+    static byte[][] resueltos() {
+        Random random = new Random(SEMILLA);
+        BacktrackingSolver solver = new BacktrackingSolver();
+        byte[][] tableros = new byte[TAMANO][];
+        for (int i = 0; i < TAMANO; i++) {
+            tableros[i] = new byte[PuzzleCodec.CELDAS];
+            solver.resolver(tableros[i], random);
+        }
+        return tableros;
+    }
+
+    /**
+     * Builds boards with a given number of empty cells, removed at random from
+     * solved boards. The boards may have more than one solution.
+     *
+     * @param huecos the number of empty cells of each board
+     * @return the boards.
+     */
+    static byte[][] conHuecos(int huecos) {
+        Random random = new Random(SEMILLA + huecos);
+        byte[][] tableros = resueltos();
+        for (byte[] tablero : tableros) {
+            int vaciadas = 0;
+            while (vaciadas < huecos) {
+                int celda = random.nextInt(PuzzleCodec.CELDAS);
+                if (tablero[celda] != 0) {
+                    tablero[celda] = 0;
+                    vaciadas++;
+                }
+            }
+        }
+        return tableros;
+    }
+}
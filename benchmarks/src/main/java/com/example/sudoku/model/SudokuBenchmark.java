@@ -0,0 +1,281 @@
+package com.example.sudoku.model;
+
+import com.example.sudoku.model.solver.BacktrackingSolver;
+import com.example.sudoku.model.solver.DancingLinksSolver;
+import com.example.sudoku.model.solver.SudokuSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the generator, the solvers and the validators of the Sudoku engine.
+ * Every board is loaded in the trial setup and the benchmarks step through them
+ * themselves, so no setup runs between calls and the measured methods allocate
+ * nothing of their own. Each state only declares the parameters its benchmarks use.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SudokuBenchmark {
+    /** Empty cells of the boards used by the validators, which do not depend on them. */
+    private static final int HUECOS_VALIDACION = 20;
+
+    /**
+     * Creates the solver named by a parameter.
+     *
+     * @param solver "dlx" or "backtracking"
+     * @return the solver.
+     */
+    private static SudokuSolver crearSolver(String solver) {
+        return "dlx".equals(solver) ? new DancingLinksSolver() : new BacktrackingSolver();
+    }
+
+    /**
+     * Loads every board of a corpus into its own Sudoku.
+     *
+     * @param solver the solver of the Sudokus
+     * @param resueltos the solutions of the corpus
+     * @param puzzles the boards of the corpus
+     * @return one Sudoku per board.
+     */
+    private static Sudoku[] cargarCorpus(SudokuSolver solver, byte[][] resueltos, byte[][] puzzles) {
+        Sudoku[] sudokus = new Sudoku[Corpus.TAMANO];
+        for (int i = 0; i < Corpus.TAMANO; i++) {
+            sudokus[i] = new Sudoku(solver, new SplittableRandom(Corpus.SEMILLA));
+            sudokus[i].cargarPuzzle(new Puzzle(puzzles[i], resueltos[i]));
+        }
+        return sudokus;
+    }
+
+    /**
+     * Advances a position of the corpus, wrapping around at its end.
+     *
+     * @param actual the current position
+     * @return the next position.
+     */
+    private static int avanzar(int actual) {
+        int siguiente = actual + 1;
+        return siguiente == Corpus.TAMANO ? 0 : siguiente;
+    }
+
+    /**
+     * Boards for the validators, which depend neither on the solver nor on the
+     * number of empty cells.
+     */
+    @State(Scope.Thread)
+    public static class Validacion {
+        private Sudoku[] sudokus;
+        private int siguiente;
+
+        /**
+         * Loads the corpus.
+         */
+        @Setup(Level.Trial)
+        public void preparar() {
+            sudokus = cargarCorpus(new BacktrackingSolver(), Corpus.resueltos(), Corpus.conHuecos(HUECOS_VALIDACION));
+        }
+
+        /**
+         * Gets the next board of the corpus.
+         *
+         * @return the Sudoku holding it.
+         */
+        Sudoku siguiente() {
+            siguiente = avanzar(siguiente);
+            return sudokus[siguiente];
+        }
+    }
+
+    /**
+     * A solver for the benchmarks that start from solved or empty boards.
+     */
+    @State(Scope.Thread)
+    public static class Generacion {
+        @Param({"backtracking", "dlx"})
+        public String solver;
+
+        private SudokuSolver sudokuSolver;
+        private Sudoku sudoku;
+        private Puzzle[] resueltos;
+        private byte[] trabajo;
+        private SplittableRandom aleatorio;
+        private int siguiente;
+
+        /**
+         * Builds the solver, a Sudoku seeded with a fixed seed and the solved boards.
+         */
+        @Setup(Level.Trial)
+        public void preparar() {
+            sudokuSolver = crearSolver(solver);
+            sudoku = new Sudoku(sudokuSolver, new SplittableRandom(Corpus.SEMILLA));
+            aleatorio = new SplittableRandom(Corpus.SEMILLA);
+            trabajo = new byte[PuzzleCodec.CELDAS];
+            byte[][] tableros = Corpus.resueltos();
+            resueltos = new Puzzle[Corpus.TAMANO];
+            for (int i = 0; i < Corpus.TAMANO; i++) {
+                resueltos[i] = new Puzzle(tableros[i], tableros[i]);
+            }
+        }
+
+        /**
+         * Gets the next solved board of the corpus.
+         *
+         * @return the board as a puzzle with no empty cell.
+         */
+        Puzzle siguienteResuelto() {
+            siguiente = avanzar(siguiente);
+            return resueltos[siguiente];
+        }
+    }
+
+    /**
+     * A solver and a corpus of boards with a given number of empty cells.
+     */
+    @State(Scope.Thread)
+    public static class Resolucion {
+        @Param({"backtracking", "dlx"})
+        public String solver;
+
+        @Param({"12", "20", "28"})
+        public int huecos;
+
+        private SudokuSolver sudokuSolver;
+        private byte[][] puzzles;
+        private Sudoku[] sudokus;
+        private byte[] trabajo;
+        private int siguiente;
+
+        /**
+         * Builds the solver and loads the corpus.
+         */
+        @Setup(Level.Trial)
+        public void preparar() {
+            sudokuSolver = crearSolver(solver);
+            puzzles = Corpus.conHuecos(huecos);
+            sudokus = cargarCorpus(sudokuSolver, Corpus.resueltos(), puzzles);
+            trabajo = new byte[PuzzleCodec.CELDAS];
+        }
+
+        /**
+         * Advances to the next board of the corpus.
+         *
+         * @return its position.
+         */
+        int siguiente() {
+            siguiente = avanzar(siguiente);
+            return siguiente;
+        }
+    }
+
+    /**
+     * Solves an empty board with random digit order, as the generator does. The
+     * random source is created once so the allocation profiler only sees the solver.
+     *
+     * @param estado the solver
+     * @return the filled board.
+     */
+    @Benchmark
+    public byte[] generarSudokuCompleto(Generacion estado) {
+        byte[] trabajo = estado.trabajo;
+        Arrays.fill(trabajo, (byte) 0);
+        estado.sudokuSolver.resolver(trabajo, estado.aleatorio);
+        return trabajo;
+    }
+
+    /**
+     * Solves a board of the corpus.
+     *
+     * @param estado the solver and the corpus
+     * @return the solved board.
+     */
+    @Benchmark
+    public byte[] resolverSudoku(Resolucion estado) {
+        byte[] trabajo = estado.trabajo;
+        System.arraycopy(estado.puzzles[estado.siguiente()], 0, trabajo, 0, trabajo.length);
+        estado.sudokuSolver.resolver(trabajo, null);
+        return trabajo;
+    }
+
+    /**
+     * Counts the solutions of a board of the corpus up to two, as the uniqueness check does.
+     *
+     * @param estado the solver and the corpus
+     * @return the number of solutions.
+     */
+    @Benchmark
+    public int contarSoluciones(Resolucion estado) {
+        return estado.sudokus[estado.siguiente()].contarSoluciones(2);
+    }
+
+    /**
+     * Checks every digit in every cell of a board of the corpus.
+     *
+     * @param estado the boards
+     * @param blackhole sink for the results
+     */
+    @Benchmark
+    public void esNumeroValido(Validacion estado, Blackhole blackhole) {
+        Sudoku sudoku = estado.siguiente();
+        for (int row = 0; row < 6; row++) {
+            for (int col = 0; col < 6; col++) {
+                for (int num = 1; num <= 6; num++) {
+                    blackhole.consume(sudoku.esNumeroValido(row, col, num));
+                }
+            }
+        }
+    }
+
+    /**
+     * Validates a board of the corpus.
+     *
+     * @param estado the boards
+     * @return true if the board is complete.
+     */
+    @Benchmark
+    public boolean isSudokuComplete(Validacion estado) {
+        return estado.siguiente().isSudokuComplete();
+    }
+
+    /**
+     * Removes clues from a solved board while the solution stays unique. The
+     * board is reloaded from a puzzle built in the setup, so only the copy into
+     * the Sudoku and the removal are measured.
+     *
+     * @param estado the solver and the solved boards
+     * @return the first cell of the resulting puzzle.
+     */
+    @Benchmark
+    public int eliminarNumeros(Generacion estado) {
+        Sudoku sudoku = estado.sudoku;
+        sudoku.cargarPuzzle(estado.siguienteResuelto());
+        sudoku.eliminarNumeros();
+        return sudoku.getCell(0, 0);
+    }
+
+    /**
+     * Generates a whole puzzle: complete grid plus clue removal.
+     *
+     * @param estado the solver
+     * @return the generated puzzle.
+     */
+    @Benchmark
+    public Puzzle iniciarNuevoJuego(Generacion estado) {
+        return estado.sudoku.generarPuzzle();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.sudoku;
 
 import javafx.application.Application;
 import javafx.stage.Stage;
+import com.example.sudoku.model.PuzzlePool;
 import com.example.sudoku.view.SudokuFirstStage;
 
 /**
@@ -24,6 +25,7 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage primaryStage) throws Exception {
+        PuzzlePool.precalentar(); // Empieza a generar tableros del tamaño y nivel por defecto en segundo plano
         // Abre la ventana de inicio
         new SudokuFirstStage(); // Cambia a SudokuFirstStage
     }
@@ -0,0 +1,323 @@
+package com.example.sudoku.cli;
+
+import com.example.sudoku.model.Calificacion;
+import com.example.sudoku.model.DifficultyGrader;
+import com.example.sudoku.model.EngineMetrics;
+import com.example.sudoku.model.MinimalPuzzleReducer;
+import com.example.sudoku.model.NivelDificultad;
+import com.example.sudoku.model.Puzzle;
+import com.example.sudoku.model.PuzzleCatalog;
+import com.example.sudoku.model.PuzzleCodec;
+import com.example.sudoku.model.Sudoku;
+import com.example.sudoku.model.solver.BacktrackingSolver;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless entry point that generates and grades puzzles in bulk on every core
+ * and streams them to standard output or a file as they finish.
+ * <p>
+ * Usage: {@code BatchGenerator [--cantidad N] [--hilos N] [--semilla S]
+ * [--dificultad FACIL|MEDIO|DIFICIL|EXPERTO] [--minimos ORDENES] [--formato texto|binario] [--salida archivo]}.
+ * With {@code --minimos} every puzzle is reduced to a minimal one, keeping the
+ * sparsest of the given number of removal orders. The text format writes one
+ * line per puzzle with the clues and the solution as 36 digits each, followed
+ * by the difficulty score and band; the binary format writes a
+ * {@link PuzzleCatalog} with the score as difficulty and requires {@code --salida}.
+ * Throughput and the engine metrics are reported on standard error.
+ */
+public class BatchGenerator {
+    private static final int CAPACIDAD_COLA = 1024;
+
+    /**
+     * Parses the arguments and runs the generation.
+     *
+     * @param args the command line arguments.
+     * @throws Exception if the output cannot be written.
+     */
+    public static void main(String[] args) throws Exception {
+        long cantidad = 1000;
+        int hilos = Runtime.getRuntime().availableProcessors();
+        long semilla = System.nanoTime();
+        boolean binario = false;
+        Path salida = null;
+        NivelDificultad nivel = null;
+        int minimos = 0;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--cantidad" -> cantidad = Long.parseLong(args[++i]);
+                case "--hilos" -> hilos = Integer.parseInt(args[++i]);
+                case "--semilla" -> semilla = Long.parseLong(args[++i]);
+                case "--formato" -> binario = "binario".equals(args[++i]);
+                case "--salida" -> salida = Path.of(args[++i]);
+                case "--dificultad" -> nivel = NivelDificultad.valueOf(args[++i]);
+                case "--minimos" -> minimos = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("Argumento desconocido: " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+        if (minimos > 0 && nivel != null) {
+            System.err.println("--minimos no se combina con --dificultad");
+            System.exit(2);
+        }
+        if (binario && salida == null) {
+            System.err.println("El formato binario requiere --salida");
+            System.exit(2);
+        }
+
+        new BatchGenerator().generar(cantidad, hilos, semilla, nivel, minimos, binario, salida);
+    }
+
+    /**
+     * Generates puzzles on a pool of worker threads, each with its own random
+     * source derived from the seed, and writes them from the calling thread.
+     *
+     * @param cantidad the number of puzzles to generate
+     * @param hilos the number of worker threads
+     * @param semilla the seed from which the worker random sources are derived
+     * @param nivel the difficulty band of the puzzles, or null for any difficulty
+     * @param minimos the removal orders tried per minimal puzzle, or 0 for the usual generation
+     * @param binario true to write a binary catalog, false for text
+     * @param salida the output file, or null for standard output
+     * @throws IOException if the output cannot be written.
+     * @throws InterruptedException if the thread is interrupted while waiting for puzzles.
+     * @throws IllegalStateException if a worker fails; the other workers are stopped.
+     */
+    public void generar(long cantidad, int hilos, long semilla, NivelDificultad nivel, int minimos, boolean binario,
+                       Path salida)
+            throws IOException, InterruptedException {
+        BlockingQueue<Generado> terminados = new ArrayBlockingQueue<>(CAPACIDAD_COLA);
+        AtomicLong pendientes = new AtomicLong(cantidad);
+        AtomicInteger numero = new AtomicInteger();
+        ExecutorService trabajadores = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "sudoku-batch-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+
+        MinimalPuzzleReducer reductor = new MinimalPuzzleReducer();
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        for (int i = 0; i < hilos; i++) {
+            SplittableRandom random = raiz.split(); // Un generador por trabajador
+            trabajadores.execute(() -> {
+                Sudoku sudoku = new Sudoku(new BacktrackingSolver(), random);
+                DifficultyGrader grader = new DifficultyGrader();
+                try {
+                    while (pendientes.getAndDecrement() > 0) {
+                        Puzzle puzzle = minimos > 0 ? sudoku.generarPuzzleMinimo(reductor, minimos)
+                                : nivel != null ? sudoku.generarPuzzle(nivel) : sudoku.generarPuzzle();
+                        terminados.put(new Generado(puzzle, grader.calificar(puzzle.getTablero())));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable e) {
+                    // Avisar al escritor, que si no esperaría para siempre este puzzle; como aún lo
+                    // espera, acabará tomando el aviso aunque la cola esté llena
+                    pendientes.set(0);
+                    try {
+                        terminados.put(new Generado(e));
+                    } catch (InterruptedException interrumpido) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+        trabajadores.shutdown();
+
+        long inicio = System.nanoTime();
+        long ultimoReporte = inicio;
+        try (Salida destino = binario ? new SalidaBinaria(salida) : new SalidaTexto(salida)) {
+            for (long escritos = 1; escritos <= cantidad; escritos++) {
+                Generado generado = terminados.take();
+                if (generado.fallo != null) {
+                    trabajadores.shutdownNow();
+                    throw new IllegalStateException("Un trabajador falló tras " + (escritos - 1) + " puzzles", generado.fallo);
+                }
+                destino.escribir(generado.puzzle, generado.calificacion);
+                long ahora = System.nanoTime();
+                if (ahora - ultimoReporte >= TimeUnit.SECONDS.toNanos(1)) {
+                    reportar(escritos, ahora - inicio);
+                    ultimoReporte = ahora;
+                }
+            }
+        }
+        reportar(cantidad, System.nanoTime() - inicio);
+        System.err.println(EngineMetrics.resumen());
+        trabajadores.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Prints the progress and throughput to standard error.
+     *
+     * @param escritos the number of puzzles written so far
+     * @param nanos the time elapsed since the start
+     */
+    private static void reportar(long escritos, long nanos) {
+        double segundos = nanos / 1e9;
+        System.err.printf("%d puzzles en %.2f s (%.0f puzzles/s)%n", escritos, segundos, escritos / Math.max(segundos, 1e-9));
+    }
+
+    /**
+     * A generated puzzle together with its grading, or the failure of a worker.
+     */
+    private static final class Generado {
+        private final Puzzle puzzle;
+        private final Calificacion calificacion;
+        private final Throwable fallo;
+
+        /**
+         * Pairs a puzzle with its grading.
+         *
+         * @param puzzle the generated puzzle
+         * @param calificacion the grading of the puzzle
+         */
+        Generado(Puzzle puzzle, Calificacion calificacion) {
+            this.puzzle = puzzle;
+            this.calificacion = calificacion;
+            this.fallo = null;
+        }
+
+        /**
+         * Marks the failure of a worker, to be rethrown by the writer.
+         *
+         * @param fallo the error that stopped the worker
+         */
+        Generado(Throwable fallo) {
+            this.puzzle = null;
+            this.calificacion = null;
+            this.fallo = fallo;
+        }
+    }
+
+    /**
+     * Destination of the generated puzzles.
+     */
+    private interface Salida extends AutoCloseable {
+        /**
+         * Writes one puzzle.
+         *
+         * @param puzzle the puzzle to write
+         * @param calificacion the grading of the puzzle
+         * @throws IOException if it cannot be written.
+         */
+        void escribir(Puzzle puzzle, Calificacion calificacion) throws IOException;
+
+        /**
+         * Flushes and closes the destination.
+         *
+         * @throws IOException if it cannot be closed.
+         */
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Writes one line per puzzle with its clues and its solution.
+     */
+    private static final class SalidaTexto implements Salida {
+        private final Writer writer;
+        private final boolean cerrar;
+
+        /**
+         * Opens the text destination.
+         *
+         * @param archivo the output file, or null for standard output
+         * @throws IOException if the file cannot be created.
+         */
+        SalidaTexto(Path archivo) throws IOException {
+            this.cerrar = archivo != null;
+            this.writer = archivo != null
+                    ? Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)
+                    : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Writes one puzzle.
+         *
+         * @param puzzle the puzzle to write
+         * @param calificacion the grading of the puzzle
+         * @throws IOException if it cannot be written.
+         */
+        @Override
+        public void escribir(Puzzle puzzle, Calificacion calificacion) throws IOException {
+            writer.write(PuzzleCodec.aTexto(puzzle.getTablero()));
+            writer.write(' ');
+            writer.write(PuzzleCodec.aTexto(puzzle.getSolucion()));
+            writer.write(' ');
+            writer.write(String.valueOf(calificacion.getPuntuacion()));
+            writer.write(' ');
+            writer.write(calificacion.getNivel().name());
+            writer.write('\n');
+        }
+
+        /**
+         * Flushes and closes the destination.
+         *
+         * @throws IOException if it cannot be closed.
+         */
+        @Override
+        public void close() throws IOException {
+            if (cerrar) {
+                writer.close();
+            } else {
+                writer.flush(); // No cerrar la salida estándar
+            }
+        }
+    }
+
+    /**
+     * Writes the puzzles as a binary catalog.
+     */
+    private static final class SalidaBinaria implements Salida {
+        private final PuzzleCatalog.Escritor escritor;
+
+        /**
+         * Opens the catalog destination.
+         *
+         * @param archivo the output file
+         * @throws IOException if the file cannot be created.
+         */
+        SalidaBinaria(Path archivo) throws IOException {
+            this.escritor = new PuzzleCatalog.Escritor(archivo);
+        }
+
+        /**
+         * Writes one puzzle.
+         *
+         * @param puzzle the puzzle to write
+         * @param calificacion the grading of the puzzle
+         * @throws IOException if it cannot be written.
+         */
+        @Override
+        public void escribir(Puzzle puzzle, Calificacion calificacion) throws IOException {
+            escritor.agregar(puzzle, Math.min(calificacion.getPuntuacion(), 255));
+        }
+
+        /**
+         * Flushes and closes the destination.
+         *
+         * @throws IOException if it cannot be closed.
+         */
+        @Override
+        public void close() throws IOException {
+            escritor.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.sudoku.cli;
+
+import com.example.sudoku.model.GridEnumerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Headless entry point that enumerates every completed 6x6 grid, checks the
+ * total against the known count and reports the throughput of the search.
+ * <p>
+ * Usage: {@code EnumerateGrids [--hilos N] [--salida archivo]}. With
+ * {@code --salida} every grid is also written as two big-endian {@code long}s
+ * (high word, low word, see {@link com.example.sudoku.model.PuzzleCodec}),
+ * grouped by band in completion order. Exits with status 1 if the total is wrong.
+ */
+public class EnumerateGrids {
+    /**
+     * Parses the arguments and runs the enumeration.
+     *
+     * @param args the command line arguments.
+     * @throws IOException if the output cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int hilos = Runtime.getRuntime().availableProcessors();
+        Path salida = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--hilos" -> hilos = Integer.parseInt(args[++i]);
+                case "--salida" -> salida = Path.of(args[++i]);
+                default -> {
+                    System.err.println("Argumento desconocido: " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(hilos);
+        GridEnumerator enumerador = new GridEnumerator(pool);
+        long inicio = System.nanoTime();
+        long total;
+        if (salida == null) {
+            total = enumerador.contar();
+        } else {
+            try (FileChannel canal = FileChannel.open(salida, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                total = enumerador.recorrer((banda, rejillas, cantidad) -> escribir(canal, rejillas, cantidad));
+            }
+        }
+        pool.shutdown();
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.err.printf("%d rejillas en %.2f s (%.0f rejillas/s)%n", total, segundos, total / Math.max(segundos, 1e-9));
+        if (total != GridEnumerator.TOTAL_6X6) {
+            System.err.println("Se esperaban " + GridEnumerator.TOTAL_6X6 + " rejillas");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Appends the grids of one band to the output. Called from several worker
+     * threads; the channel keeps each write whole.
+     *
+     * @param canal the output channel
+     * @param rejillas the packed grids
+     * @param cantidad the number of grids
+     */
+    private static void escribir(FileChannel canal, long[] rejillas, int cantidad) {
+        ByteBuffer bloque = ByteBuffer.allocate(cantidad * 2 * Long.BYTES);
+        bloque.asLongBuffer().put(rejillas, 0, cantidad * 2);
+        try {
+            synchronized (canal) {
+                while (bloque.hasRemaining()) {
+                    canal.write(bloque);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
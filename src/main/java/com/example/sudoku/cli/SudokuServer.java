@@ -0,0 +1,527 @@
+package com.example.sudoku.cli;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.EngineMetrics;
+import com.example.sudoku.model.LatencyHistogram;
+import com.example.sudoku.model.NivelDificultad;
+import com.example.sudoku.model.Puzzle;
+import com.example.sudoku.model.PuzzleCache;
+import com.example.sudoku.model.PuzzlePool;
+import com.example.sudoku.model.solver.ResultadoResolucion;
+import com.example.sudoku.model.solver.SolverPortfolio;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless entry point that serves the engine over a local HTTP API, for web
+ * front ends that cannot embed the JavaFX screens.
+ * <p>
+ * Usage: {@code SudokuServer [--puerto N] [--hilos N] [--plazo MILISEGUNDOS]}.
+ * Endpoints:
+ * <ul>
+ *     <li>{@code GET /generar?tamano=9&dificultad=MEDIO&semilla=S}: a new puzzle; every parameter is optional.
+ *     Without a seed the puzzle comes from the shared {@link PuzzlePool}; seeded puzzles come from the shared
+ *     {@link PuzzleCache} and cannot be combined with a difficulty.</li>
+ *     <li>{@code POST /resolver}: the first solution of a board.</li>
+ *     <li>{@code POST /contar?limite=N}: the number of solutions, up to the limit (2 by default).</li>
+ *     <li>{@code POST /validar}: the cells that repeat a digit in a unit and whether the solution is unique.</li>
+ *     <li>{@code GET /metricas}: the latency percentiles of every endpoint and the engine metrics.</li>
+ * </ul>
+ * Boards are sent as JSON, {@code {"tablero":"..."}}, with one symbol per cell in
+ * row-major order ({@code 1}-{@code 9}, then {@code A}-{@code C}; {@code 0} or
+ * {@code .} for empty cells), or with content type {@code application/octet-stream}
+ * as one byte per cell. The size is taken from the number of cells. Requests
+ * that accept {@code application/octet-stream} get the boards of the answer in
+ * the same binary form: the solution for {@code /resolver}, and the clues
+ * followed by the solution for {@code /generar}. Solving and counting race the
+ * strategies of the shared {@link SolverPortfolio} under a deadline.
+ */
+public class SudokuServer {
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String BINARIO = "application/octet-stream";
+    private static final int LIMITE_POR_DEFECTO = 2;
+
+    private final HttpServer servidor;
+    private final ExecutorService ejecutor;
+    private final SolverPortfolio portfolio;
+    private final Duration plazo;
+    private final Map<String, LatencyHistogram> latencias = new LinkedHashMap<>();
+
+    /**
+     * Parses the arguments and starts the server until the process is stopped.
+     *
+     * @param args the command line arguments.
+     * @throws IOException if the port cannot be opened.
+     */
+    public static void main(String[] args) throws IOException {
+        int puerto = 8080;
+        int hilos = 4 * Runtime.getRuntime().availableProcessors();
+        long plazoMillis = 2000;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--puerto" -> puerto = Integer.parseInt(args[++i]);
+                case "--hilos" -> hilos = Integer.parseInt(args[++i]);
+                case "--plazo" -> plazoMillis = Long.parseLong(args[++i]);
+                default -> {
+                    System.err.println("Argumento desconocido: " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+
+        SudokuServer servidor = new SudokuServer(new InetSocketAddress(puerto), hilos, Duration.ofMillis(plazoMillis));
+        servidor.iniciar();
+        System.err.println("Servidor de Sudoku en http://localhost:" + servidor.getPuerto() + "/");
+    }
+
+    /**
+     * Creates a server bound to an address, not started yet.
+     *
+     * @param direccion the address to listen on; port 0 picks a free one
+     * @param hilos the number of threads that handle requests
+     * @param plazo the longest time a solve or count may take
+     * @throws IOException if the address cannot be bound.
+     */
+    public SudokuServer(InetSocketAddress direccion, int hilos, Duration plazo) throws IOException {
+        this.portfolio = SolverPortfolio.getCompartido();
+        this.plazo = plazo;
+        this.servidor = HttpServer.create(direccion, 0);
+        AtomicInteger numero = new AtomicInteger();
+        this.ejecutor = Executors.newFixedThreadPool(hilos, r -> new Thread(r, "sudoku-http-" + numero.incrementAndGet()));
+        servidor.setExecutor(ejecutor);
+        registrar("/generar", "GET", this::generar);
+        registrar("/resolver", "POST", this::resolver);
+        registrar("/contar", "POST", this::contar);
+        registrar("/validar", "POST", this::validar);
+        registrar("/metricas", "GET", this::metricas);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void iniciar() {
+        servidor.start();
+    }
+
+    /**
+     * Stops accepting requests and stops the request threads once the ones in
+     * progress finish.
+     */
+    public void detener() {
+        servidor.stop(0);
+        ejecutor.shutdown();
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return the bound port.
+     */
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Binds an endpoint, checking its method, timing it and turning bad input
+     * into a 400 answer.
+     *
+     * @param ruta the path of the endpoint
+     * @param metodo the HTTP method it accepts
+     * @param manejador the handler of the endpoint
+     */
+    private void registrar(String ruta, String metodo, Manejador manejador) {
+        LatencyHistogram latencia = new LatencyHistogram();
+        latencias.put(ruta, latencia);
+        servidor.createContext(ruta, intercambio -> {
+            long inicio = System.nanoTime();
+            try {
+                if (!intercambio.getRequestURI().getPath().equals(ruta)) {
+                    responderError(intercambio, 404, "Ruta desconocida");
+                } else if (!metodo.equals(intercambio.getRequestMethod())) {
+                    intercambio.getResponseHeaders().set("Allow", metodo);
+                    responderError(intercambio, 405, "Se esperaba " + metodo);
+                } else {
+                    manejador.atender(intercambio);
+                }
+            } catch (IllegalArgumentException e) {
+                responderError(intercambio, 400, e.getMessage());
+            } catch (RuntimeException e) {
+                responderError(intercambio, 500, String.valueOf(e.getMessage()));
+            } finally {
+                intercambio.close();
+                latencia.registrar(System.nanoTime() - inicio);
+            }
+        });
+    }
+
+    /**
+     * Generates a puzzle of the requested size, difficulty and seed.
+     *
+     * @param intercambio the request
+     * @throws IOException if the answer cannot be sent.
+     */
+    private void generar(HttpExchange intercambio) throws IOException {
+        Map<String, String> parametros = parametros(intercambio);
+        BoardGeometry geometria = geometria(parametros.getOrDefault("tamano", "6"));
+        NivelDificultad nivel = parametros.containsKey("dificultad")
+                ? NivelDificultad.valueOf(parametros.get("dificultad").toUpperCase()) : null;
+        Puzzle puzzle;
+        if (parametros.containsKey("semilla")) {
+            if (nivel != null) {
+                // La búsqueda por dificultad tiene un presupuesto de tiempo: la misma semilla no daría siempre el mismo puzzle
+                throw new IllegalArgumentException("No se puede pedir una semilla y una dificultad a la vez");
+            }
+            puzzle = PuzzleCache.getCompartido(geometria).obtener(Long.parseLong(parametros.get("semilla")));
+        } else {
+            puzzle = PuzzlePool.getCompartido(geometria, nivel != null ? nivel : NivelDificultad.FACIL).tomar();
+        }
+
+        if (aceptaBinario(intercambio)) {
+            byte[] cuerpo = new byte[2 * geometria.getCeldas()];
+            System.arraycopy(puzzle.getTablero(), 0, cuerpo, 0, geometria.getCeldas());
+            System.arraycopy(puzzle.getSolucion(), 0, cuerpo, geometria.getCeldas(), geometria.getCeldas());
+            responder(intercambio, 200, BINARIO, cuerpo);
+            return;
+        }
+        responderJson(intercambio, 200, "{\"tamano\":" + geometria.getTamano()
+                + ",\"tablero\":\"" + aTexto(puzzle.getTablero())
+                + "\",\"solucion\":\"" + aTexto(puzzle.getSolucion())
+                + "\",\"pistas\":" + puzzle.getPistas() + "}");
+    }
+
+    /**
+     * Solves the board of the request.
+     *
+     * @param intercambio the request
+     * @throws IOException if the board cannot be read or the answer sent.
+     */
+    private void resolver(HttpExchange intercambio) throws IOException {
+        ResultadoResolucion resultado = portfolio.resolver(leerTablero(intercambio), plazo);
+        byte[] solucion = resultado.getTablero();
+        if (aceptaBinario(intercambio)) {
+            responder(intercambio, solucion != null ? 200 : estado(resultado), BINARIO,
+                    solucion != null ? solucion : new byte[0]);
+            return;
+        }
+        responderJson(intercambio, 200, "{\"estado\":\"" + resultado.getEstado()
+                + "\",\"tablero\":" + (solucion != null ? "\"" + aTexto(solucion) + "\"" : "null")
+                + ",\"estrategia\":" + textoJson(resultado.getEstrategia())
+                + ",\"micros\":" + resultado.getNanos() / 1000 + "}");
+    }
+
+    /**
+     * Counts the solutions of the board of the request, up to the limit.
+     *
+     * @param intercambio the request
+     * @throws IOException if the board cannot be read or the answer sent.
+     */
+    private void contar(HttpExchange intercambio) throws IOException {
+        String limite = parametros(intercambio).get("limite");
+        int maximo = limite != null ? Integer.parseInt(limite) : LIMITE_POR_DEFECTO;
+        if (maximo < 1) {
+            throw new IllegalArgumentException("Se requiere limite >= 1");
+        }
+        ResultadoResolucion resultado = portfolio.contarSoluciones(leerTablero(intercambio), maximo, plazo);
+        responderJson(intercambio, 200, "{\"estado\":\"" + resultado.getEstado()
+                + "\",\"soluciones\":" + resultado.getSoluciones()
+                + ",\"estrategia\":" + textoJson(resultado.getEstrategia())
+                + ",\"micros\":" + resultado.getNanos() / 1000 + "}");
+    }
+
+    /**
+     * Checks the board of the request: which cells repeat a digit in a row,
+     * column or block, and whether it has exactly one solution.
+     *
+     * @param intercambio the request
+     * @throws IOException if the board cannot be read or the answer sent.
+     */
+    private void validar(HttpExchange intercambio) throws IOException {
+        byte[] tablero = leerTablero(intercambio);
+        BoardGeometry geometria = BoardGeometry.deCeldas(tablero.length);
+        boolean[] enConflicto = new boolean[tablero.length];
+        int conflictos = 0;
+        for (int u = 0; u < geometria.getUnidades(); u++) {
+            int[] unidad = geometria.unidad(u);
+            int vistos = 0;
+            for (int celda : unidad) {
+                vistos |= (vistos & (1 << tablero[celda])) << 16; // Bit 16+n: el dígito n se repite
+                vistos |= 1 << tablero[celda];
+            }
+            int repetidos = (vistos >>> 16) & ~1; // Las celdas vacías no cuentan
+            for (int celda : unidad) {
+                if ((repetidos & (1 << tablero[celda])) != 0 && !enConflicto[celda]) {
+                    enConflicto[celda] = true;
+                    conflictos++;
+                }
+            }
+        }
+
+        StringBuilder json = new StringBuilder("{\"conflictos\":[");
+        for (int celda = 0, escritos = 0; celda < tablero.length; celda++) {
+            if (enConflicto[celda]) {
+                json.append(escritos++ > 0 ? "," : "")
+                        .append('[').append(geometria.fila(celda)).append(',').append(geometria.columna(celda)).append(']');
+            }
+        }
+        json.append(']');
+        if (conflictos == 0) {
+            ResultadoResolucion resultado = portfolio.contarSoluciones(tablero, 2, plazo);
+            json.append(",\"estado\":\"").append(resultado.getEstado())
+                    .append("\",\"soluciones\":").append(resultado.getSoluciones())
+                    .append(",\"valido\":").append(resultado.getSoluciones() == 1);
+        } else {
+            json.append(",\"estado\":\"").append(ResultadoResolucion.Estado.SIN_SOLUCION)
+                    .append("\",\"soluciones\":0,\"valido\":false");
+        }
+        responderJson(intercambio, 200, json.append('}').toString());
+    }
+
+    /**
+     * Reports the latency percentiles of every endpoint, in microseconds, and
+     * the engine metrics.
+     *
+     * @param intercambio the request
+     * @throws IOException if the answer cannot be sent.
+     */
+    private void metricas(HttpExchange intercambio) throws IOException {
+        StringBuilder json = new StringBuilder("{");
+        for (Map.Entry<String, LatencyHistogram> entrada : latencias.entrySet()) {
+            LatencyHistogram latencia = entrada.getValue();
+            json.append('"').append(entrada.getKey()).append("\":{\"cuenta\":").append(latencia.getCuenta())
+                    .append(",\"media\":").append((long) latencia.getMedia() / 1000)
+                    .append(",\"p50\":").append(latencia.percentil(50) / 1000)
+                    .append(",\"p99\":").append(latencia.percentil(99) / 1000)
+                    .append(",\"p999\":").append(latencia.percentil(99.9) / 1000)
+                    .append("},");
+        }
+        json.append("\"motor\":").append(textoJson(EngineMetrics.resumen())).append('}');
+        responderJson(intercambio, 200, json.toString());
+    }
+
+    /**
+     * Reads the board of a request, as JSON or as one byte per cell.
+     *
+     * @param intercambio the request
+     * @return the board.
+     * @throws IOException if the body cannot be read.
+     * @throws IllegalArgumentException if the body is not a board of a known size.
+     */
+    private static byte[] leerTablero(HttpExchange intercambio) throws IOException {
+        byte[] cuerpo;
+        try (InputStream entrada = intercambio.getRequestBody()) {
+            cuerpo = entrada.readAllBytes();
+        }
+        String tipo = intercambio.getRequestHeaders().getFirst("Content-Type");
+        if (tipo != null && tipo.startsWith(BINARIO)) {
+            BoardGeometry geometria = BoardGeometry.deCeldas(cuerpo.length);
+            for (int i = 0; i < cuerpo.length; i++) {
+                if (cuerpo[i] < 0 || cuerpo[i] > geometria.getTamano()) {
+                    throw new IllegalArgumentException("Celda no válida en la posición " + i + ": " + cuerpo[i]);
+                }
+            }
+            return cuerpo;
+        }
+        return desdeTexto(campoTablero(new String(cuerpo, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Extracts the text of the {@code tablero} field of a JSON object. Board
+     * texts hold no escapes, so the first closing quote ends the field.
+     *
+     * @param json the body of the request
+     * @return the text of the board.
+     * @throws IllegalArgumentException if the field is missing.
+     */
+    private static String campoTablero(String json) {
+        int campo = json.indexOf("\"tablero\"");
+        int dosPuntos = campo < 0 ? -1 : json.indexOf(':', campo + 9);
+        int inicio = dosPuntos < 0 ? -1 : json.indexOf('"', dosPuntos + 1);
+        int fin = inicio < 0 ? -1 : json.indexOf('"', inicio + 1);
+        if (fin < 0) {
+            throw new IllegalArgumentException("Se esperaba {\"tablero\":\"...\"}");
+        }
+        return json.substring(inicio + 1, fin);
+    }
+
+    /**
+     * Parses a board written with one symbol per cell.
+     *
+     * @param texto the text of the board
+     * @return the board.
+     * @throws IllegalArgumentException if the text is not a board of a known size.
+     */
+    private static byte[] desdeTexto(String texto) {
+        BoardGeometry geometria = BoardGeometry.deCeldas(texto.length());
+        byte[] tablero = new byte[texto.length()];
+        for (int i = 0; i < tablero.length; i++) {
+            char c = texto.charAt(i);
+            if (c == '0' || c == '.') {
+                continue;
+            }
+            int valor = geometria.valor(c);
+            if (valor < 0) {
+                throw new IllegalArgumentException("Celda no válida en la posición " + i + ": " + c);
+            }
+            tablero[i] = (byte) valor;
+        }
+        return tablero;
+    }
+
+    /**
+     * Writes a board with one symbol per cell, 0 for empty cells.
+     *
+     * @param tablero the board
+     * @return the text of the board.
+     */
+    private static String aTexto(byte[] tablero) {
+        char[] texto = new char[tablero.length];
+        for (int i = 0; i < tablero.length; i++) {
+            texto[i] = tablero[i] == 0 ? '0' : BoardGeometry.simbolo(tablero[i]);
+        }
+        return new String(texto);
+    }
+
+    /**
+     * Finds a board size by its side, written as {@code 9} or {@code 9x9}.
+     *
+     * @param tamano the side of the board
+     * @return the geometry of that side.
+     * @throws IllegalArgumentException if no supported board has that side.
+     */
+    private static BoardGeometry geometria(String tamano) {
+        for (BoardGeometry geometria : BoardGeometry.disponibles()) {
+            if (geometria.toString().equals(tamano) || String.valueOf(geometria.getTamano()).equals(tamano)) {
+                return geometria;
+            }
+        }
+        throw new IllegalArgumentException("No hay tableros de tamaño " + tamano);
+    }
+
+    /**
+     * Decodes the query parameters of a request.
+     *
+     * @param intercambio the request
+     * @return the parameters by name.
+     */
+    private static Map<String, String> parametros(HttpExchange intercambio) {
+        Map<String, String> parametros = new HashMap<>();
+        String consulta = intercambio.getRequestURI().getRawQuery();
+        if (consulta == null) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0) {
+                parametros.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                        URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parametros;
+    }
+
+    /**
+     * Checks whether the client wants boards in binary form.
+     *
+     * @param intercambio the request
+     * @return true if it accepts {@code application/octet-stream}.
+     */
+    private static boolean aceptaBinario(HttpExchange intercambio) {
+        String acepta = intercambio.getRequestHeaders().getFirst("Accept");
+        return acepta != null && acepta.contains(BINARIO);
+    }
+
+    /**
+     * Maps a result without a board to an HTTP status for binary answers.
+     *
+     * @param resultado the result of the race
+     * @return 504 if the deadline passed, 422 if the board has no solution.
+     */
+    private static int estado(ResultadoResolucion resultado) {
+        return resultado.isTiempoAgotado() ? 504 : 422;
+    }
+
+    /**
+     * Quotes a text as a JSON string.
+     *
+     * @param texto the text, or null
+     * @return the JSON string, or {@code null}.
+     */
+    private static String textoJson(String texto) {
+        if (texto == null) {
+            return "null";
+        }
+        return '"' + texto.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + '"';
+    }
+
+    /**
+     * Sends an error as a JSON object.
+     *
+     * @param intercambio the request
+     * @param codigo the HTTP status
+     * @param mensaje the description of the error
+     * @throws IOException if the answer cannot be sent.
+     */
+    private static void responderError(HttpExchange intercambio, int codigo, String mensaje) throws IOException {
+        responderJson(intercambio, codigo, "{\"error\":" + textoJson(mensaje) + "}");
+    }
+
+    /**
+     * Sends a JSON answer.
+     *
+     * @param intercambio the request
+     * @param codigo the HTTP status
+     * @param json the body
+     * @throws IOException if the answer cannot be sent.
+     */
+    private static void responderJson(HttpExchange intercambio, int codigo, String json) throws IOException {
+        responder(intercambio, codigo, JSON, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sends an answer with a fixed length, so the connection can be kept alive.
+     *
+     * @param intercambio the request
+     * @param codigo the HTTP status
+     * @param tipo the content type
+     * @param cuerpo the body
+     * @throws IOException if the answer cannot be sent.
+     */
+    private static void responder(HttpExchange intercambio, int codigo, String tipo, byte[] cuerpo) throws IOException {
+        intercambio.getResponseHeaders().set("Content-Type", tipo);
+        intercambio.sendResponseHeaders(codigo, cuerpo.length > 0 ? cuerpo.length : -1);
+        if (cuerpo.length > 0) {
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        }
+    }
+
+    /**
+     * Handler of one endpoint.
+     */
+    @FunctionalInterface
+    private interface Manejador {
+        /**
+         * Answers a request.
+         *
+         * @param intercambio the request
+         * @throws IOException if the request cannot be read or answered.
+         */
+        void atender(HttpExchange intercambio) throws IOException;
+    }
+}
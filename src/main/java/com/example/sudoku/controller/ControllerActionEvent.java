@@ -0,0 +1,49 @@
+package com.example.sudoku.controller;
+
+import com.example.sudoku.model.BoardGeometry;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning one action of the player handled on the FX
+ * thread, such as starting a new game or asking for a hint. Long events point
+ * at the actions that freeze the window.
+ */
+@Name("com.example.sudoku.AccionControlador")
+@Label("Acción del jugador")
+@Category({"Sudoku", "Interfaz"})
+@Description("Acción del jugador atendida en el hilo de JavaFX")
+class ControllerActionEvent extends Event {
+    @Label("Acción")
+    String accion;
+
+    @Label("Tamaño")
+    String geometria;
+
+    /**
+     * Creates and begins the event of an action.
+     *
+     * @param accion the name of the action
+     * @param geometria the size of the board, or null if there is none yet
+     * @return the begun event.
+     */
+    static ControllerActionEvent iniciar(String accion, BoardGeometry geometria) {
+        ControllerActionEvent evento = new ControllerActionEvent();
+        evento.begin();
+        evento.accion = accion;
+        evento.geometria = geometria != null ? geometria.toString() : null;
+        return evento;
+    }
+
+    /**
+     * Ends the event and records it if Flight Recorder is listening.
+     */
+    void terminar() {
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.sudoku.controller;
+
+import com.example.sudoku.model.Puzzle;
+import javafx.concurrent.Task;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Takes puzzles off the JavaFX thread. Taking a puzzle may wait for a pool
+ * producer or generate one, which would freeze the window; the work runs as a
+ * {@link Task} on a background thread and the result is delivered back on the
+ * JavaFX thread.
+ */
+final class PuzzleLoader {
+    /** Single daemon thread: the player only waits for one puzzle at a time. */
+    private static final ExecutorService EJECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "sudoku-carga-puzzle");
+        hilo.setDaemon(true); // No impide que la aplicación termine
+        return hilo;
+    });
+
+    private PuzzleLoader() {
+    }
+
+    /**
+     * Takes a puzzle in the background.
+     *
+     * @param origen the work that takes the puzzle, run off the JavaFX thread
+     * @param alTerminar receives the puzzle on the JavaFX thread
+     * @param alFallar receives the error on the JavaFX thread if the puzzle could not be taken
+     */
+    static void cargar(Callable<Puzzle> origen, Consumer<Puzzle> alTerminar, Consumer<Throwable> alFallar) {
+        Task<Puzzle> tarea = new Task<>() {
+            /**
+             * Takes the puzzle.
+             *
+             * @return the puzzle taken.
+             * @throws Exception if it could not be taken.
+             */
+            @Override
+            protected Puzzle call() throws Exception {
+                return origen.call();
+            }
+        };
+        tarea.setOnSucceeded(e -> alTerminar.accept(tarea.getValue()));
+        tarea.setOnFailed(e -> alFallar.accept(tarea.getException()));
+        EJECUTOR.execute(tarea);
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.sudoku.controller;
 
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.GameJournal;
+import com.example.sudoku.model.NivelDificultad;
+import com.example.sudoku.model.PuzzlePool;
 import com.example.sudoku.model.Sudoku;
 import com.example.sudoku.view.SudokuGameStage;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceBox;
 import javafx.stage.Stage;
 import java.io.IOException;
 
@@ -16,18 +21,93 @@ public class SudokuFirstController {
     @FXML
     private Button IniciarJuego;
 
+    @FXML
+    private ChoiceBox<NivelDificultad> dificultad;
+
+    @FXML
+    private ChoiceBox<BoardGeometry> tamano;
+
+    @FXML
+    private Button Continuar;
+
     private Stage primaryStage;
 
+    /**
+     * Initializes the controller. This method is called after the FXML file
+     * has been loaded.
+     */
+    @FXML
+    public void initialize() {
+        tamano.getItems().setAll(BoardGeometry.disponibles()); // Tamaños de tablero disponibles
+        tamano.valueProperty().addListener((obs, anterior, geometria) -> ofrecerNiveles(geometria));
+        tamano.setValue(BoardGeometry.TABLERO_6X6);
+        dificultad.setValue(NivelDificultad.FACIL);
+        Continuar.setVisible(GameJournal.existe(GameJournal.DIRECTORIO_POR_DEFECTO)); // Hay una partida guardada
+    }
+
+    /**
+     * Offers only the difficulty bands the generator reaches on the chosen
+     * board size, keeping the chosen band if it is still offered.
+     * @param geometria The chosen board size.
+     */
+    private void ofrecerNiveles(BoardGeometry geometria) {
+        NivelDificultad elegido = dificultad.getValue();
+        dificultad.getItems().setAll(geometria.getNiveles()); // Niveles que alcanza este tamaño
+        dificultad.setValue(geometria.getNiveles().contains(elegido) ? elegido : NivelDificultad.FACIL);
+    }
+
     /**
      * Method that is called when the "Iniciar Juego" button is pressed.
      * @param event The action event triggered by the button press.
      */
     @FXML
     private void handleIniciarJuego(ActionEvent event) {
-        // Crear una instancia de Sudoku y generar el tablero
-        Sudoku sudoku = new Sudoku();
-        sudoku.iniciarNuevoJuego();  // Genera el tablero al iniciar el juego
+        BoardGeometry geometria = tamano.getValue();
+        ControllerActionEvent evento = ControllerActionEvent.iniciar("IniciarJuego", geometria);
+        NivelDificultad nivel = dificultad.getValue();
+        PuzzlePool pool = PuzzlePool.getCompartido(geometria, nivel);
+        IniciarJuego.setDisable(true); // Evita pedir dos juegos mientras se espera al pool
+        // Espera fuera del hilo de JavaFX a que el pool tenga un tablero listo
+        PuzzleLoader.cargar(pool::esperar, puzzle -> {
+            // Crear una instancia de Sudoku con el tablero tomado del pool
+            Sudoku sudoku = new Sudoku(geometria);
+            sudoku.cargarPuzzle(puzzle);
+            abrirJuego(event, sudoku, nivel);
+            evento.terminar();
+        }, error -> {
+            error.printStackTrace();
+            IniciarJuego.setDisable(false);
+            evento.terminar();
+        });
+    }
+
+    /**
+     * Method that is called when the "Continuar" button is pressed: restores the
+     * saved game and opens it.
+     * @param event The action event triggered by the button press.
+     */
+    @FXML
+    private void handleContinuar(ActionEvent event) {
+        ControllerActionEvent evento = ControllerActionEvent.iniciar("Continuar", null);
+        try {
+            // Los juegos nuevos siguen en el nivel de la partida guardada
+            abrirJuego(event, GameJournal.reanudar(GameJournal.DIRECTORIO_POR_DEFECTO),
+                    GameJournal.nivelGuardado(GameJournal.DIRECTORIO_POR_DEFECTO));
+        } catch (IOException e) {
+            e.printStackTrace();
+            Continuar.setVisible(false); // La partida guardada no se puede leer
+        }
+        evento.terminar();
+    }
 
+    /**
+     * Closes this window and opens the game window with the given game, which
+     * is recorded in the journal from then on.
+     * @param event The action event that opens the game.
+     * @param sudoku The game to play.
+     * @param nivel The difficulty of the new games started from the game window.
+     */
+    private void abrirJuego(ActionEvent event, Sudoku sudoku, NivelDificultad nivel) {
         // Cerrar la ventana actual (SudokuFirstStage)
         Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
         stage.close();
@@ -35,7 +115,9 @@ public class SudokuFirstController {
         // Abrir la ventana del juego (SudokuGameStage) con el Sudoku generado
         try {
             SudokuGameStage gameStage = new SudokuGameStage(); // Crear la instancia de la ventana
+            gameStage.setNivel(nivel); // Los juegos nuevos mantienen la dificultad elegida
             gameStage.setSudoku(sudoku); // Pasar el objeto Sudoku al controlador
+            gameStage.setDiario(new GameJournal(GameJournal.DIRECTORIO_POR_DEFECTO, sudoku, nivel)); // Guardar cada jugada
             gameStage.show(); // Mostrar la ventana del juego
         } catch (IOException e) {
             e.printStackTrace();
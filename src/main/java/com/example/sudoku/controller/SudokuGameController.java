@@ -1,28 +1,78 @@
 package com.example.sudoku.controller;
 
 import javafx.fxml.FXML;
+import javafx.geometry.HPos;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.geometry.VPos;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
+import javafx.scene.control.ToggleButton;
 import javafx.scene.layout.*;
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.HintEngine;
 import com.example.sudoku.model.ISudoku;
+import com.example.sudoku.model.NivelDificultad;
+import com.example.sudoku.model.Pista;
+import com.example.sudoku.model.PuzzlePool;
+import com.example.sudoku.model.ServedPuzzleFilter;
+import com.example.sudoku.model.SudokuListener;
 import javafx.scene.paint.Color;
 
-import java.util.List;
-
 /**
  * Controller for managing the Sudoku game logic and UI interactions.
+ * <p>
+ * The cells are created once per board size and kept in an array; model change
+ * events only touch the cells whose value or look actually changed.
  */
-public class SudokuGameController {
+public class SudokuGameController implements SudokuListener {
+    private static final String ESTILO_TEXTO = "-fx-font-size: %dpx; -fx-font-weight: bold; -fx-text-fill: white;";
+    private static final String ESTILO_NOTAS = "-fx-font-family: 'Monospaced'; -fx-font-size: %dpx; -fx-text-fill: silver;";
+    private static final Background FONDO_VACIA = new Background(new BackgroundFill(Color.BLACK, CornerRadii.EMPTY, Insets.EMPTY));
+    private static final Background FONDO_PISTA = new Background(new BackgroundFill(Color.rgb(34, 34, 34), null, null));
+    private static final Border BORDE_VALIDO = new Border(new BorderStroke(Color.LIMEGREEN, BorderStrokeStyle.SOLID, CornerRadii.EMPTY, new BorderWidths(1)));
+    private static final Border BORDE_CONFLICTO = new Border(new BorderStroke(Color.RED, BorderStrokeStyle.SOLID, CornerRadii.EMPTY, new BorderWidths(2)));
+    private static final Border BORDE_AYUDA = new Border(new BorderStroke(Color.YELLOW, BorderStrokeStyle.SOLID, CornerRadii.EMPTY, new BorderWidths(2)));
+
+    /**
+     * Look of a cell on the board.
+     */
+    private enum Estilo { VACIA, PISTA, JUGADOR, CONFLICTO, AYUDA }
+
     @FXML
     private GridPane tableSudokuGridPane;
 
+    @FXML
+    private Button NuevoJuego;
+
     @FXML
     private Button btnAyuda;
 
+    @FXML
+    private Button btnDeshacer;
+
+    @FXML
+    private Button btnRehacer;
+
+    @FXML
+    private Label lblPista;
+
+    @FXML
+    private ToggleButton btnNotas;
+
     private ISudoku sudoku;
+    private HintEngine ayudas;               // Celdas deducibles del tablero actual
     private int ayudasRestantes = 20; // Contador de ayudas restantes
+    private NivelDificultad nivel = NivelDificultad.FACIL; // Dificultad de los juegos nuevos
+    private final ServedPuzzleFilter servidos = new ServedPuzzleFilter(1024); // Puzzles 6x6 que ya vio el jugador
+    private BoardGeometry geometria;         // Tamaño del tablero mostrado
+    private TextField[][] celdas;            // Celdas creadas una sola vez por tamaño
+    private Label[][] notas;                 // Candidatos anotados, encima de cada celda
+    private int[][] valoresMostrados;        // Valor que muestra cada celda
+    private Estilo[][] estilosMostrados;     // Aspecto que tiene cada celda
+    private Border[][] bordesTablero;        // Bordes según la posición de la celda
 
     /**
      * Sets the Sudoku model for the controller.
@@ -30,74 +80,189 @@ public class SudokuGameController {
      * @param sudoku The Sudoku model to set.
      */
     public void setSudoku(ISudoku sudoku) {
+        if (this.sudoku != null) {
+            this.sudoku.removeListener(this); // Deja de escuchar el modelo anterior
+            ayudas.desconectar();
+        }
         this.sudoku = sudoku;
+        sudoku.addListener(this); // Escucha cambios, victorias y conflictos del modelo
+        ayudas = new HintEngine(sudoku); // Sigue las deducciones jugada a jugada
+        lblPista.setText("");
+        if (sudoku.getGeometry() != geometria) {
+            geometria = sudoku.getGeometry();
+            configurarGridPane(); // Configura el GridPane para el nuevo tamaño
+            crearCeldas(); // Crea las celdas una sola vez por tamaño
+        }
+        if (geometria == BoardGeometry.TABLERO_6X6) {
+            byte[] tablero = new byte[geometria.getCeldas()];
+            sudoku.copyTo(tablero);
+            servidos.agregar(tablero); // El primer puzzle también cuenta como servido
+        }
         dibujarTablero();  // Dibuja el tablero con el Sudoku generado
         actualizarBotonAyuda(); // Actualiza el texto del botón de ayuda
+        actualizarHistorial();
     }
 
     /**
-     * Initializes the controller. This method is called after the FXML file
-     * has been loaded.
+     * Sets the difficulty band used when starting a new game.
+     *
+     * @param nivel The difficulty band.
      */
-    @FXML
-    public void initialize() {
-        configurarGridPane(); // Configura el GridPane para el tablero
+    public void setNivel(NivelDificultad nivel) {
+        this.nivel = nivel;
     }
 
     /**
-     * Configures the GridPane to display the Sudoku board.
+     * Configures the GridPane to display a board of the current size.
      */
     private void configurarGridPane() {
+        int tamano = geometria.getTamano();
         tableSudokuGridPane.getColumnConstraints().clear();
         tableSudokuGridPane.getRowConstraints().clear();
-        for (int i = 0; i < 6; i++) {
+        for (int i = 0; i < tamano; i++) {
             ColumnConstraints column = new ColumnConstraints();
-            column.setPercentWidth(100.0 / 6); // Configura el ancho de las columnas
+            column.setPercentWidth(100.0 / tamano); // Configura el ancho de las columnas
             tableSudokuGridPane.getColumnConstraints().add(column);
 
             RowConstraints row = new RowConstraints();
-            row.setPercentHeight(100.0 / 6); // Configura la altura de las filas
+            row.setPercentHeight(100.0 / tamano); // Configura la altura de las filas
             tableSudokuGridPane.getRowConstraints().add(row);
         }
     }
 
     /**
-     * Draws the Sudoku board based on the current state of the Sudoku model.
+     * Creates the TextFields and borders of a board of the current size and adds
+     * them to the GridPane.
      */
-    private void dibujarTablero() {
-        tableSudokuGridPane.getChildren().clear(); // Limpia el tablero antes de dibujarlo
-        for (int i = 0; i < 6; i++) {
-            for (int j = 0; j < 6; j++) {
+    private void crearCeldas() {
+        int tamano = geometria.getTamano();
+        celdas = new TextField[tamano][tamano];
+        notas = new Label[tamano][tamano];
+        valoresMostrados = new int[tamano][tamano];
+        estilosMostrados = new Estilo[tamano][tamano];
+        bordesTablero = new Border[tamano][tamano];
+        String estiloTexto = String.format(ESTILO_TEXTO, 150 / tamano); // Letra más pequeña en tableros grandes
+        String estiloNotas = String.format(ESTILO_NOTAS, Math.max(8, 84 / tamano));
+        tableSudokuGridPane.getChildren().clear();
+        for (int i = 0; i < tamano; i++) {
+            for (int j = 0; j < tamano; j++) {
+                // Define el grosor del borde según la posición; los bordes gruesos separan los bloques
+                BorderWidths borderWidths = new BorderWidths(
+                        (i % geometria.getFilasBloque() == 0 && i != 0) ? 4 : 1,
+                        (j % geometria.getColumnasBloque() == geometria.getColumnasBloque() - 1) ? 4 : 1,
+                        (i == tamano - 1) ? 4 : 1,
+                        (j == 0) ? 4 : 1
+                );
+                bordesTablero[i][j] = new Border(new BorderStroke(Color.MEDIUMPURPLE, BorderStrokeStyle.SOLID, CornerRadii.EMPTY, borderWidths));
+
                 TextField txt = new TextField();
                 txt.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE); // Maximiza el tamaño del TextField
                 txt.setAlignment(Pos.CENTER);
-                txt.setStyle("-fx-font-size: 25px; -fx-font-weight: bold; -fx-text-fill: white;");
-                txt.setBackground(new Background(new BackgroundFill(Color.BLACK, CornerRadii.EMPTY, Insets.EMPTY)));
+                txt.setStyle(estiloTexto);
+                onKeyPressed(txt, i, j); // Configura el evento de teclado para la celda
+                celdas[i][j] = txt;
+                pintarCelda(i, j, 0, Estilo.VACIA);
+                tableSudokuGridPane.add(txt, j, i); // Agrega la celda al tablero
 
-                // Define el grosor del borde según la posición
-                BorderWidths borderWidths = new BorderWidths(
-                        (i % 2 == 0 && i != 0) ? 4 : 1,
-                        (j % 3 == 2) ? 4 : 1,
-                        (i == 5) ? 4 : 1,
-                        (j == 0) ? 4 : 1
-                );
+                Label nota = new Label();
+                nota.setStyle(estiloNotas);
+                nota.setMouseTransparent(true); // Los clics llegan a la celda de debajo
+                nota.setPadding(new Insets(1, 0, 0, 3));
+                GridPane.setHalignment(nota, HPos.LEFT);
+                GridPane.setValignment(nota, VPos.TOP);
+                notas[i][j] = nota;
+                tableSudokuGridPane.add(nota, j, i); // Encima de la celda, en la misma posición
+            }
+        }
+    }
 
-                txt.setBorder(new Border(new BorderStroke(Color.MEDIUMPURPLE, BorderStrokeStyle.SOLID, CornerRadii.EMPTY, borderWidths)));
-
-                int value = sudoku.getTableSudoku().get(i).get(j);
-                if (value > 0) {
-                    txt.setText(String.valueOf(value)); // Muestra el valor en la celda
-                    txt.setEditable(false); // La celda no se puede editar
-                    txt.setStyle("-fx-font-size: 25px; -fx-font-weight: bold; -fx-text-fill: white;");
-                    txt.setBackground(new Background(new BackgroundFill(Color.rgb(34, 34, 34), null, null)));
-                } else {
-                    txt.setText(""); // Celda vacía
-                    txt.setEditable(true);
-                    onKeyPressed(txt, i, j); // Configura el evento de teclado para la celda
-                }
+    /**
+     * Brings every cell in line with the model, touching only the cells whose
+     * value or look differ from what is shown.
+     */
+    private void dibujarTablero() {
+        for (int i = 0; i < geometria.getTamano(); i++) {
+            for (int j = 0; j < geometria.getTamano(); j++) {
+                pintarSegunModelo(i, j);
+                pintarNotas(i, j, sudoku.getNotas(i, j));
+            }
+        }
+    }
 
-                tableSudokuGridPane.add(txt, j, i); // Agrega la celda al tablero
+    /**
+     * Shows the value of a cell and the look that follows from the model: clue,
+     * empty, in conflict or placed. A hint keeps its look while it is not in conflict.
+     *
+     * @param row The row index of the cell.
+     * @param col The column index of the cell.
+     */
+    private void pintarSegunModelo(int row, int col) {
+        int valor = sudoku.getCell(row, col);
+        Estilo estilo;
+        if (sudoku.isClue(row, col)) {
+            estilo = Estilo.PISTA;
+        } else if (valor == 0) {
+            estilo = Estilo.VACIA;
+        } else if (sudoku.isInConflict(row, col)) {
+            estilo = Estilo.CONFLICTO;
+        } else {
+            estilo = estilosMostrados[row][col] == Estilo.AYUDA && valoresMostrados[row][col] == valor
+                    ? Estilo.AYUDA : Estilo.JUGADOR;
+        }
+        pintarCelda(row, col, valor, estilo);
+    }
+
+    /**
+     * Shows the pencil marks of a cell laid out like a block of the board, one
+     * position per digit, so a digit always appears in the same place.
+     *
+     * @param row The row index of the cell.
+     * @param col The column index of the cell.
+     * @param marcas The marked digits, bit n set for digit n.
+     */
+    private void pintarNotas(int row, int col, int marcas) {
+        String texto = "";
+        if (marcas != 0) {
+            int porLinea = geometria.getColumnasBloque();
+            StringBuilder lineas = new StringBuilder(geometria.getTamano() + geometria.getFilasBloque());
+            for (int num = 1; num <= geometria.getTamano(); num++) {
+                lineas.append((marcas & (1 << num)) != 0 ? BoardGeometry.simbolo(num) : ' ');
+                if (num % porLinea == 0 && num < geometria.getTamano()) {
+                    lineas.append('\n');
+                }
             }
+            texto = lineas.toString();
+        }
+        if (!texto.equals(notas[row][col].getText())) {
+            notas[row][col].setText(texto);
+        }
+    }
+
+    /**
+     * Shows a value and a look in a cell if they differ from the current ones.
+     *
+     * @param row The row index of the cell.
+     * @param col The column index of the cell.
+     * @param valor The value to show, 0 for an empty cell.
+     * @param estilo The look of the cell.
+     */
+    private void pintarCelda(int row, int col, int valor, Estilo estilo) {
+        TextField txt = celdas[row][col];
+        if (valoresMostrados[row][col] != valor || txt.getText().isEmpty() != (valor == 0)) {
+            txt.setText(textoDe(valor)); // Muestra el valor en la celda
+            valoresMostrados[row][col] = valor;
+        }
+        if (estilosMostrados[row][col] == estilo) {
+            return; // El aspecto no cambia
+        }
+        estilosMostrados[row][col] = estilo;
+        txt.setEditable(estilo != Estilo.PISTA); // Las pistas no se pueden editar
+        txt.setBackground(estilo == Estilo.PISTA || estilo == Estilo.AYUDA ? FONDO_PISTA : FONDO_VACIA);
+        switch (estilo) {
+            case JUGADOR -> txt.setBorder(BORDE_VALIDO);
+            case CONFLICTO -> txt.setBorder(BORDE_CONFLICTO);
+            case AYUDA -> txt.setBorder(BORDE_AYUDA);
+            default -> txt.setBorder(bordesTablero[row][col]);
         }
     }
 
@@ -110,131 +275,268 @@ public class SudokuGameController {
      */
     private void onKeyPressed(TextField textField, int row, int col) {
         textField.setOnKeyTyped(event -> {
+            if (sudoku == null || sudoku.isClue(row, col)) {
+                event.consume(); // Las pistas no responden al teclado
+                return;
+            }
+            ControllerActionEvent evento = ControllerActionEvent.iniciar("Jugada", geometria);
             String character = event.getCharacter(); // Obtiene el carácter ingresado
 
-            // Verifica si el carácter es un número válido
-            if (!character.matches("[1-6]")) {
+            if (character.equals("\b") || character.equals("\u007f")) {
+                sudoku.clearCell(row, col); // Borra la celda; el modelo avisa del cambio
+            } else if (character.length() != 1 || geometria.valor(character.charAt(0)) < 0) { // Verifica si el carácter es un dígito del tablero
                 event.consume(); // Evita la entrada de caracteres no válidos
-                sudoku.mostrarAlertaError("Entrada inválida", "Solo se permiten números del 1 al 6."); // Muestra alerta de error
+                mostrarAlertaError("Entrada inválida", "Solo se permiten " + simbolosValidos() + "."); // Muestra alerta de error
+            } else if (btnNotas.isSelected()) {
+                sudoku.alternarNota(geometria.valor(character.charAt(0)), row, col); // Modo notas: anota o borra el candidato
             } else {
-                int newValue = Character.getNumericValue(character.charAt(0)); // Convierte el carácter a número
-                sudoku.setNumberInTableSodoku(newValue, row, col); // Establece el número en la tabla
-                textField.setText(character); // Muestra el nuevo valor en la celda
-
-                // Verifica si el movimiento es válido
-                if (!esMovimientoValido(row, col, newValue)) {
-                    textField.setBorder(new Border(new BorderStroke(Color.RED, BorderStrokeStyle.SOLID, CornerRadii.EMPTY, new BorderWidths(2))));
-                    sudoku.mostrarAlertaError("Número inválido", "El número ingresado viola las reglas del Sudoku."); // Muestra alerta de error
-                } else {
-                    textField.setBorder(new Border(new BorderStroke(Color.LIMEGREEN, BorderStrokeStyle.SOLID, CornerRadii.EMPTY, new BorderWidths(1))));
-                }
+                int newValue = geometria.valor(character.charAt(0)); // Convierte el carácter a número
+                sudoku.setNumberInTableSodoku(newValue, row, col); // Establece el número; el modelo avisa del cambio
             }
+            // El TextField muestra siempre el valor del modelo, no el texto tecleado
+            textField.setText(textoDe(valoresMostrados[row][col]));
+            event.consume();
+            evento.terminar();
         });
     }
 
     /**
-     * Checks if the move made in the specified cell is valid according to Sudoku rules.
+     * Gets the text that shows a value in a cell.
      *
-     * @param row The row index of the move.
-     * @param col The column index of the move.
-     * @param number The number being placed in the cell.
-     * @return True if the move is valid; otherwise, false.
-     */
-    private boolean esMovimientoValido(int row, int col, int number) {
-        // Verifica si el número ya existe en la fila
-        for (int j = 0; j < 6; j++) {
-            if (j != col && sudoku.getTableSudoku().get(row).get(j) == number) {
-                return false; // Número no válido
-            }
+     * @param valor The value, 0 for an empty cell.
+     * @return The digit, or an empty text for an empty cell.
+     */
+    private static String textoDe(int valor) {
+        return valor > 0 ? String.valueOf(BoardGeometry.simbolo(valor)) : "";
+    }
+
+    /**
+     * Describes the characters accepted on the current board.
+     *
+     * @return The description of the valid digits.
+     */
+    private String simbolosValidos() {
+        int tamano = geometria.getTamano();
+        if (tamano <= 9) {
+            return "números del 1 al " + tamano;
         }
+        return "números del 1 al 9 y letras de la A a la " + BoardGeometry.simbolo(tamano);
+    }
 
-        // Verifica si el número ya existe en la columna
-        for (int i = 0; i < 6; i++) {
-            if (i != row && sudoku.getTableSudoku().get(i).get(col) == number) {
-                return false; // Número no válido
-            }
+    /**
+     * Updates the cell that changed and its peers, the only cells whose
+     * conflict state a change can alter, so a repeated number is marked in red
+     * on every cell holding it and the mark goes away once it is fixed.
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @param valor The new value of the cell.
+     */
+    @Override
+    public void onCeldaCambiada(int row, int col, int valor) {
+        pintarSegunModelo(row, col);
+        for (int par : geometria.pares(row * geometria.getTamano() + col)) {
+            pintarSegunModelo(geometria.fila(par), geometria.columna(par));
         }
+    }
 
-        // Verifica si el número ya existe en la subcuadrícula
-        int subgridRowStart = (row / 2) * 2; // Inicializa la fila de inicio de la subcuadrícula
-        int subgridColStart = (col / 3) * 3; // Inicializa la columna de inicio de la subcuadrícula
+    /**
+     * Redraws only the pencil marks of the cell that changed; placing a digit
+     * notifies just the cell and the peers that lost a mark.
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @param marcas The marked digits, bit n set for digit n.
+     */
+    @Override
+    public void onNotasCambiadas(int row, int col, int marcas) {
+        pintarNotas(row, col, marcas);
+    }
 
-        for (int i = subgridRowStart; i < subgridRowStart + 2; i++) {
-            for (int j = subgridColStart; j < subgridColStart + 3; j++) {
-                if ((i != row || j != col) && sudoku.getTableSudoku().get(i).get(j) == number) {
-                    return false; // Número no válido
-                }
-            }
-        }
+    /**
+     * Brings the board in line with a newly loaded puzzle.
+     */
+    @Override
+    public void onTableroCargado() {
+        dibujarTablero();
+        actualizarHistorial(); // Un tablero nuevo no tiene jugadas
+        lblPista.setText("");
+    }
 
-        return true; // Movimiento válido
+    /**
+     * Warns the player when a number repeats in its row, column or block; the
+     * cells in conflict were already marked when the cell changed.
+     *
+     * @param number The number placed.
+     * @param row The row index.
+     * @param col The column index.
+     */
+    @Override
+    public void onConflicto(int number, int row, int col) {
+        mostrarAlertaError("Número inválido", "El número ingresado viola las reglas del Sudoku."); // Muestra alerta de error
+    }
+
+    /**
+     * Warns the player when the model rejects a number or position.
+     *
+     * @param number The rejected number.
+     * @param row The row index.
+     * @param col The column index.
+     */
+    @Override
+    public void onMovimientoInvalido(int number, int row, int col) {
+        mostrarAlertaError("Error", "Número o posición no válida.");
     }
 
     /**
-     * Starts a new game by resetting the Sudoku model and redrawing the board.
+     * Displays a victory alert when the Sudoku is completed.
+     */
+    @Override
+    public void onVictoria() {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("¡Victoria!");
+        alert.setHeaderText("¡Felicidades! Has completado el Sudoku correctamente.");
+        alert.showAndWait();
+    }
+
+    /**
+     * Displays an error alert with a specific title and message.
+     *
+     * @param titulo The title of the alert.
+     * @param mensaje The message to display.
+     */
+    private void mostrarAlertaError(String titulo, String mensaje) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle(titulo);
+        alert.setHeaderText(mensaje);
+        alert.showAndWait();
+    }
+
+    /**
+     * Starts a new game by loading a new puzzle into the Sudoku model; the model
+     * notifies the board so only the cells that change are redrawn. The puzzle
+     * is taken from the pool off the JavaFX thread, so the window stays
+     * responsive if the pool has to wait for its producer.
      */
     @FXML
     public void NuevoJuego() {
-        sudoku.iniciarNuevoJuego(); // Reinicia el juego
-        dibujarTablero(); // Dibuja el nuevo tablero
-        ayudasRestantes = 20; // Reinicia el conteo de ayudas
-        actualizarBotonAyuda(); // Actualiza el botón de ayuda
+        ControllerActionEvent evento = ControllerActionEvent.iniciar("NuevoJuego", geometria);
+        PuzzlePool pool = PuzzlePool.getCompartido(geometria, nivel);
+        boolean filtrar = geometria == BoardGeometry.TABLERO_6X6;
+        NuevoJuego.setDisable(true); // Un solo juego nuevo a la vez
+        PuzzleLoader.cargar(
+                // En 6x6 se evitan los puzzles que el jugador ya vio, aunque estén reordenados
+                () -> filtrar ? pool.tomar(servidos) : pool.esperar(),
+                puzzle -> {
+                    sudoku.cargarPuzzle(puzzle); // Carga un tablero ya generado del pool
+                    ayudasRestantes = 20; // Reinicia el conteo de ayudas
+                    actualizarBotonAyuda(); // Actualiza el botón de ayuda
+                    NuevoJuego.setDisable(false);
+                    evento.terminar();
+                },
+                error -> {
+                    NuevoJuego.setDisable(false);
+                    mostrarAlertaError("Error", "No se pudo preparar un juego nuevo.");
+                    evento.terminar();
+                });
     }
 
     /**
-     * Provides a hint for an empty cell in the Sudoku board.
+     * Places the next hint of the hint engine: a cell that follows from the
+     * board by logic, or an empty cell revealed from the solution when none
+     * does, and tells the player which technique proves it.
      */
     @FXML
     public void mostrarAyuda() {
+        ControllerActionEvent evento = ControllerActionEvent.iniciar("mostrarAyuda", geometria);
         if (ayudasRestantes > 0) {
-            boolean ayudaDada = false; // Indica si se ha proporcionado ayuda
-            List<int[]> posicionesAyuda = sudoku.getPosicionesAyuda(); // Obtiene las posiciones donde se puede dar ayuda
-
-            for (int[] pos : posicionesAyuda) {
-                int row = pos[0];
-                int col = pos[1];
-                int num = pos[2];
-
-                // Verifica si la celda está vacía
-                if (sudoku.getTableSudoku().get(row).get(col) == 0) {
-                    TextField txt = (TextField) getNodeFromGridPane(row, col); // Obtiene el TextField correspondiente
-                    if (txt != null) {
-                        txt.setText(String.valueOf(num)); // Muestra el número sugerido
-                        txt.setBackground(new Background(new BackgroundFill(Color.rgb(34, 34, 34), null, null)));
-                        txt.setStyle("-fx-font-size: 25px; -fx-font-weight: bold; -fx-text-fill: white;");
-                        txt.setBorder(new Border(new BorderStroke(Color.YELLOW, BorderStrokeStyle.SOLID, CornerRadii.EMPTY, new BorderWidths(2))));
-                        sudoku.setNumberInTableSodoku(num, row, col); // Establece el número en la tabla
-                    }
-                    ayudasRestantes--; // Disminuye el contador de ayudas
-                    actualizarBotonAyuda(); // Actualiza el botón de ayuda
-                    ayudaDada = true; // Indica que se ha proporcionado ayuda
-                    break; // Sale del bucle
+            Pista pista = ayudas.siguiente(); // Tiempo constante: el motor ya tiene la cola lista
+            if (pista != null) {
+                int row = pista.getFila();
+                int col = pista.getColumna();
+                int num = pista.getValor();
+                lblPista.setText(describir(pista)); // Antes de aplicarla, por si completa el tablero
+                sudoku.aplicarAyuda(num, row, col); // Establece el número en la tabla como ayuda
+                if (estilosMostrados[row][col] != Estilo.CONFLICTO) {
+                    pintarCelda(row, col, num, Estilo.AYUDA); // Marca la celda como ayuda
                 }
-            }
-
-            // Verifica si no se pudo dar ayuda
-            if (!ayudaDada) {
-                sudoku.mostrarAlertaError("Sin ayudas", "No hay más celdas vacías disponibles para sugerir."); // Muestra alerta de error
+                ayudasRestantes--; // Disminuye el contador de ayudas
+                actualizarBotonAyuda(); // Actualiza el botón de ayuda
+            } else {
+                mostrarAlertaError("Sin ayudas", "No hay más celdas vacías disponibles para sugerir."); // Muestra alerta de error
             }
         } else {
-            sudoku.mostrarAlertaError("Sin ayudas", "No te quedan más ayudas disponibles."); // Muestra alerta de error
+            mostrarAlertaError("Sin ayudas", "No te quedan más ayudas disponibles."); // Muestra alerta de error
         }
+        evento.terminar();
     }
 
     /**
-     * Retrieves a TextField from the GridPane based on its row and column indices.
+     * Explains a hint to the player.
      *
-     * @param row The row index of the TextField.
-     * @param col The column index of the TextField.
-     * @return The TextField at the specified location, or null if not found.
+     * @param pista The hint.
+     * @return The cell, the digit and how it is deduced.
      */
-    private TextField getNodeFromGridPane(int row, int col) {
-        for (var node : tableSudokuGridPane.getChildren()) {
-            if (GridPane.getRowIndex(node) == row && GridPane.getColumnIndex(node) == col) {
-                return (TextField) node; // Retorna el TextField encontrado
-            }
+    private static String describir(Pista pista) {
+        String celda = "Fila " + (pista.getFila() + 1) + ", columna " + (pista.getColumna() + 1) + ": "
+                + BoardGeometry.simbolo(pista.getValor());
+        if (pista.getTecnica() == null) {
+            return celda + "\n(revelado)";
         }
-        return null; // Retorna null si no se encuentra
+        return celda + switch (pista.getTecnica()) {
+            case SOLITARIO_DESNUDO -> "\nÚnico candidato de la celda";
+            case SOLITARIO_OCULTO -> "\nÚnico lugar en su fila, columna o bloque";
+            default -> "";
+        };
+    }
+
+    /**
+     * Marks in every empty cell the digits that still fit; the model notifies
+     * only the cells whose marks change.
+     */
+    @FXML
+    public void autocompletarNotas() {
+        ControllerActionEvent evento = ControllerActionEvent.iniciar("autocompletarNotas", geometria);
+        sudoku.autocompletarNotas();
+        evento.terminar();
+    }
+
+    /**
+     * Reverts the last move; the model redraws the cell it changes.
+     */
+    @FXML
+    public void deshacer() {
+        ControllerActionEvent evento = ControllerActionEvent.iniciar("deshacer", geometria);
+        sudoku.deshacer();
+        evento.terminar();
+    }
+
+    /**
+     * Applies again the last undone move.
+     */
+    @FXML
+    public void rehacer() {
+        ControllerActionEvent evento = ControllerActionEvent.iniciar("rehacer", geometria);
+        sudoku.rehacer();
+        evento.terminar();
+    }
+
+    /**
+     * Enables the undo and redo buttons after every recorded move.
+     *
+     * @param movimiento The move, unused.
+     */
+    @Override
+    public void onMovimiento(int movimiento) {
+        actualizarHistorial();
+    }
+
+    /**
+     * Enables the undo and redo buttons only when there is a move to revert or apply.
+     */
+    private void actualizarHistorial() {
+        btnDeshacer.setDisable(!sudoku.puedeDeshacer());
+        btnRehacer.setDisable(!sudoku.puedeRehacer());
     }
 
     /**
@@ -0,0 +1,258 @@
+package com.example.sudoku.model;
+
+import java.util.List;
+
+/**
+ * Shape of a Sudoku board, given by the number of rows and columns of each block.
+ * A board has as many rows, columns, blocks and digits as cells in a block.
+ * <p>
+ * Each geometry precomputes the row, column and block of every cell, the cells
+ * of every unit and the peers of every cell, so the engine never divides by the
+ * block size in its inner loops. The tables are shared: callers must not modify
+ * the arrays they get. Only the sizes listed in {@link #disponibles()} exist, so
+ * geometries can be compared by identity and found from the number of cells.
+ */
+public final class BoardGeometry {
+    public static final BoardGeometry TABLERO_4X4 = new BoardGeometry(2, 2);
+    public static final BoardGeometry TABLERO_6X6 = new BoardGeometry(2, 3);
+    public static final BoardGeometry TABLERO_8X8 = new BoardGeometry(2, 4);
+    public static final BoardGeometry TABLERO_9X9 = new BoardGeometry(3, 3);
+    public static final BoardGeometry TABLERO_12X12 = new BoardGeometry(3, 4);
+
+    private static final List<BoardGeometry> DISPONIBLES =
+            List.of(TABLERO_4X4, TABLERO_6X6, TABLERO_8X8, TABLERO_9X9, TABLERO_12X12);
+    private static final List<NivelDificultad> SOLO_FACIL = List.of(NivelDificultad.FACIL);
+    private static final List<NivelDificultad> TODOS_LOS_NIVELES = List.of(NivelDificultad.values());
+
+    private final int filasBloque;
+    private final int columnasBloque;
+    private final int tamano;
+    private final int celdas;
+    private final int[] filaDe;     // Fila de cada celda
+    private final int[] columnaDe;  // Columna de cada celda
+    private final int[] bloqueDe;   // Bloque de cada celda
+    private final int[][] unidades; // Filas 0..n-1, columnas n..2n-1 y bloques 2n..3n-1
+    private final int[][] pares;    // Celdas que comparten fila, columna o bloque con cada celda
+
+    /**
+     * Builds a geometry and its lookup tables.
+     *
+     * @param filasBloque the number of rows of a block
+     * @param columnasBloque the number of columns of a block
+     */
+    private BoardGeometry(int filasBloque, int columnasBloque) {
+        this.filasBloque = filasBloque;
+        this.columnasBloque = columnasBloque;
+        this.tamano = filasBloque * columnasBloque;
+        this.celdas = tamano * tamano;
+        this.filaDe = new int[celdas];
+        this.columnaDe = new int[celdas];
+        this.bloqueDe = new int[celdas];
+        this.unidades = new int[3 * tamano][tamano];
+        this.pares = new int[celdas][2 * (tamano - 1) + (tamano - filasBloque - columnasBloque + 1)];
+
+        int bloquesPorFila = tamano / columnasBloque;
+        int[] ocupacion = new int[3 * tamano]; // Celdas ya añadidas a cada unidad
+        for (int celda = 0; celda < celdas; celda++) {
+            int row = celda / tamano;
+            int col = celda % tamano;
+            int bloque = (row / filasBloque) * bloquesPorFila + col / columnasBloque;
+            filaDe[celda] = row;
+            columnaDe[celda] = col;
+            bloqueDe[celda] = bloque;
+            unidades[row][ocupacion[row]++] = celda;
+            unidades[tamano + col][ocupacion[tamano + col]++] = celda;
+            unidades[2 * tamano + bloque][ocupacion[2 * tamano + bloque]++] = celda;
+        }
+        for (int celda = 0; celda < celdas; celda++) {
+            int total = 0;
+            for (int otra = 0; otra < celdas; otra++) {
+                if (otra != celda && (filaDe[otra] == filaDe[celda] || columnaDe[otra] == columnaDe[celda]
+                        || bloqueDe[otra] == bloqueDe[celda])) {
+                    pares[celda][total++] = otra;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets every supported geometry, from the smallest to the largest board.
+     *
+     * @return the supported geometries.
+     */
+    public static List<BoardGeometry> disponibles() {
+        return DISPONIBLES;
+    }
+
+    /**
+     * Finds the geometry of a board from its number of cells.
+     *
+     * @param celdas the number of cells of the board
+     * @return the geometry with that number of cells.
+     * @throws IllegalArgumentException if no supported geometry has that many cells.
+     */
+    public static BoardGeometry deCeldas(int celdas) {
+        for (BoardGeometry geometria : DISPONIBLES) {
+            if (geometria.celdas == celdas) {
+                return geometria;
+            }
+        }
+        throw new IllegalArgumentException("No hay tableros de " + celdas + " celdas");
+    }
+
+    /**
+     * Gets the number of rows of a block.
+     *
+     * @return the rows of a block.
+     */
+    public int getFilasBloque() {
+        return filasBloque;
+    }
+
+    /**
+     * Gets the number of columns of a block.
+     *
+     * @return the columns of a block.
+     */
+    public int getColumnasBloque() {
+        return columnasBloque;
+    }
+
+    /**
+     * Gets the number of rows and columns of the board, which is also the
+     * number of blocks and the largest digit.
+     *
+     * @return the side of the board.
+     */
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Gets the number of cells of the board.
+     *
+     * @return the number of cells.
+     */
+    public int getCeldas() {
+        return celdas;
+    }
+
+    /**
+     * Gets the row of a cell.
+     *
+     * @param celda the cell index, row-major
+     * @return the row index.
+     */
+    public int fila(int celda) {
+        return filaDe[celda];
+    }
+
+    /**
+     * Gets the column of a cell.
+     *
+     * @param celda the cell index, row-major
+     * @return the column index.
+     */
+    public int columna(int celda) {
+        return columnaDe[celda];
+    }
+
+    /**
+     * Gets the block of a cell.
+     *
+     * @param celda the cell index, row-major
+     * @return the block index, numbered row-major from 0.
+     */
+    public int bloque(int celda) {
+        return bloqueDe[celda];
+    }
+
+    /**
+     * Gets the block of a cell.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @return the block index, numbered row-major from 0.
+     */
+    public int bloque(int row, int col) {
+        return bloqueDe[row * tamano + col];
+    }
+
+    /**
+     * Gets the cells of a unit: rows are units 0 to n-1, columns n to 2n-1 and
+     * blocks 2n to 3n-1, with n the side of the board.
+     *
+     * @param unidad the unit index
+     * @return the cells of the unit; must not be modified.
+     */
+    public int[] unidad(int unidad) {
+        return unidades[unidad];
+    }
+
+    /**
+     * Gets the number of units of the board.
+     *
+     * @return three times the side of the board.
+     */
+    public int getUnidades() {
+        return unidades.length;
+    }
+
+    /**
+     * Gets the difficulty bands the generator reaches on this board. On a 4x4
+     * board removing clues never gets past naked singles, so it is only easy.
+     *
+     * @return the reachable bands, from easiest to hardest.
+     */
+    public List<NivelDificultad> getNiveles() {
+        return tamano <= 4 ? SOLO_FACIL : TODOS_LOS_NIVELES;
+    }
+
+    /**
+     * Gets the cells that share a row, column or block with a cell.
+     *
+     * @param celda the cell index, row-major
+     * @return the peers of the cell; must not be modified.
+     */
+    public int[] pares(int celda) {
+        return pares[celda];
+    }
+
+    /**
+     * Gets the character that shows a digit: 1 to 9, then A, B and C.
+     *
+     * @param valor the digit, from 1 to the side of the board
+     * @return the character of the digit.
+     */
+    public static char simbolo(int valor) {
+        return (char) (valor <= 9 ? '0' + valor : 'A' + valor - 10);
+    }
+
+    /**
+     * Reads a digit typed as a character, accepting lower-case letters.
+     *
+     * @param simbolo the character typed
+     * @return the digit, or -1 if the character is not a digit of this board.
+     */
+    public int valor(char simbolo) {
+        int valor;
+        if (simbolo >= '1' && simbolo <= '9') {
+            valor = simbolo - '0';
+        } else if (Character.toUpperCase(simbolo) >= 'A' && Character.toUpperCase(simbolo) <= 'Z') {
+            valor = Character.toUpperCase(simbolo) - 'A' + 10;
+        } else {
+            return -1;
+        }
+        return valor <= tamano ? valor : -1;
+    }
+
+    /**
+     * Describes the geometry as its side, for instance "9x9".
+     *
+     * @return the description of the geometry.
+     */
+    @Override
+    public String toString() {
+        return tamano + "x" + tamano;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.sudoku.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Result of grading a puzzle with the {@link DifficultyGrader}: which techniques
+ * were needed, how many times and the resulting score.
+ */
+public final class Calificacion {
+    /** Points added to the score when the puzzle cannot be finished with the known techniques. */
+    public static final int PENALIZACION_SIN_RESOLVER = 100;
+
+    private final boolean resuelto;
+    private final int[] usos;
+    private final int pasos;
+    private final int puntuacion;
+
+    /**
+     * Creates a grading result.
+     *
+     * @param resuelto true if the techniques were enough to solve the puzzle
+     * @param usos the number of times each technique was applied, indexed by ordinal
+     */
+    Calificacion(boolean resuelto, int[] usos) {
+        this.resuelto = resuelto;
+        this.usos = usos.clone();
+        int totalPasos = 0;
+        int total = resuelto ? 0 : PENALIZACION_SIN_RESOLVER;
+        for (Tecnica tecnica : Tecnica.values()) {
+            totalPasos += usos[tecnica.ordinal()];
+            total += usos[tecnica.ordinal()] * tecnica.getPeso();
+        }
+        this.pasos = totalPasos;
+        this.puntuacion = total;
+    }
+
+    /**
+     * Checks whether the techniques were enough to solve the puzzle.
+     *
+     * @return true if solved without guessing, false otherwise.
+     */
+    public boolean isResuelto() {
+        return resuelto;
+    }
+
+    /**
+     * Gets the number of times a technique was applied.
+     *
+     * @param tecnica the technique
+     * @return the number of steps that used it.
+     */
+    public int getUsos(Tecnica tecnica) {
+        return usos[tecnica.ordinal()];
+    }
+
+    /**
+     * Gets the techniques that were needed at least once.
+     *
+     * @return the set of techniques used.
+     */
+    public Set<Tecnica> getTecnicas() {
+        Set<Tecnica> tecnicas = EnumSet.noneOf(Tecnica.class);
+        for (Tecnica tecnica : Tecnica.values()) {
+            if (usos[tecnica.ordinal()] > 0) {
+                tecnicas.add(tecnica);
+            }
+        }
+        return tecnicas;
+    }
+
+    /**
+     * Gets the hardest technique that was needed.
+     *
+     * @return the hardest technique used, or null if no step was needed.
+     */
+    public Tecnica getTecnicaMasDificil() {
+        Tecnica[] tecnicas = Tecnica.values();
+        for (int i = tecnicas.length - 1; i >= 0; i--) {
+            if (usos[i] > 0) {
+                return tecnicas[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the total number of deduction steps.
+     *
+     * @return the number of steps.
+     */
+    public int getPasos() {
+        return pasos;
+    }
+
+    /**
+     * Gets the difficulty score: the sum of the weights of every step applied,
+     * plus a penalty if the puzzle could not be finished.
+     *
+     * @return the difficulty score.
+     */
+    public int getPuntuacion() {
+        return puntuacion;
+    }
+
+    /**
+     * Gets the difficulty band of the puzzle.
+     *
+     * @return the band, determined by the hardest technique needed.
+     */
+    public NivelDificultad getNivel() {
+        if (!resuelto || usos[Tecnica.ALA_X.ordinal()] > 0) {
+            return NivelDificultad.EXPERTO;
+        }
+        if (usos[Tecnica.PAREJA_DESNUDA.ordinal()] > 0 || usos[Tecnica.CANDIDATOS_BLOQUEADOS.ordinal()] > 0) {
+            return NivelDificultad.DIFICIL;
+        }
+        if (usos[Tecnica.SOLITARIO_OCULTO.ordinal()] > 0) {
+            return NivelDificultad.MEDIO;
+        }
+        return NivelDificultad.FACIL;
+    }
+}
@@ -0,0 +1,367 @@
+package com.example.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Grades puzzles by solving them the way a person would: it keeps a bitmask of
+ * candidates per cell and repeatedly applies the simplest technique that makes
+ * progress, restarting from the simplest one after every step.
+ * <p>
+ * Grading works on primitive arrays only and allocates nothing but the result,
+ * so it can be run on every generated puzzle. Instances keep scratch state and
+ * are not thread-safe; use one per thread.
+ */
+public class DifficultyGrader {
+    private final BoardGeometry geometria;
+    private final int tamano;
+    private final int celdas;
+    private final int todos; // Bit d-1 = el dígito d es candidato
+    private final int[][] unidades; // Filas 0..n-1, columnas n..2n-1 y bloques 2n..3n-1
+    private final byte[] valores;
+    private final int[] candidatos;
+    private final int[] usos = new int[Tecnica.values().length];
+    private final int[] posiciones; // Posiciones de un dígito en cada línea (ala X)
+    private int vacias;
+    private boolean contradiccion;
+
+    /**
+     * Creates a grader for 6x6 puzzles.
+     */
+    public DifficultyGrader() {
+        this(BoardGeometry.TABLERO_6X6);
+    }
+
+    /**
+     * Creates a grader for puzzles of the given size.
+     *
+     * @param geometria the size of the puzzles to grade
+     */
+    public DifficultyGrader(BoardGeometry geometria) {
+        this.geometria = geometria;
+        this.tamano = geometria.getTamano();
+        this.celdas = geometria.getCeldas();
+        this.todos = (1 << tamano) - 1;
+        this.unidades = new int[geometria.getUnidades()][];
+        for (int u = 0; u < unidades.length; u++) {
+            unidades[u] = geometria.unidad(u);
+        }
+        this.valores = new byte[celdas];
+        this.candidatos = new int[celdas];
+        this.posiciones = new int[tamano];
+    }
+
+    /**
+     * Grades a puzzle.
+     *
+     * @param tablero the clues of the puzzle, row-major, with 0 for empty cells
+     * @return the techniques needed and the resulting score.
+     */
+    public Calificacion calificar(byte[] tablero) {
+        Arrays.fill(usos, 0);
+        if (!iniciar(tablero)) {
+            return new Calificacion(false, usos);
+        }
+        while (vacias > 0 && !contradiccion) {
+            Tecnica aplicada = aplicarSiguientePaso();
+            if (aplicada == null) {
+                break; // Haría falta adivinar
+            }
+            usos[aplicada.ordinal()]++;
+        }
+        return new Calificacion(vacias == 0 && !contradiccion, usos);
+    }
+
+    /**
+     * Loads the clues and computes the candidates of every empty cell.
+     *
+     * @param tablero the clues of the puzzle
+     * @return false if two clues contradict each other.
+     */
+    private boolean iniciar(byte[] tablero) {
+        Arrays.fill(valores, (byte) 0);
+        Arrays.fill(candidatos, todos);
+        vacias = celdas;
+        contradiccion = false;
+        for (int celda = 0; celda < celdas; celda++) {
+            int num = tablero[celda];
+            if (num != 0) {
+                if ((candidatos[celda] & (1 << (num - 1))) == 0) {
+                    return false; // La pista ya estaba descartada por otra pista
+                }
+                colocar(celda, num);
+            }
+        }
+        return !contradiccion;
+    }
+
+    /**
+     * Applies the simplest technique that makes progress.
+     *
+     * @return the technique applied, or null if none of them helps.
+     */
+    private Tecnica aplicarSiguientePaso() {
+        if (solitarioDesnudo()) {
+            return Tecnica.SOLITARIO_DESNUDO;
+        }
+        if (solitarioOculto()) {
+            return Tecnica.SOLITARIO_OCULTO;
+        }
+        if (candidatosBloqueados()) {
+            return Tecnica.CANDIDATOS_BLOQUEADOS;
+        }
+        if (parejaDesnuda()) {
+            return Tecnica.PAREJA_DESNUDA;
+        }
+        if (alaX()) {
+            return Tecnica.ALA_X;
+        }
+        return null;
+    }
+
+    /**
+     * Places the digit of the first empty cell that has a single candidate.
+     *
+     * @return true if a digit was placed.
+     */
+    private boolean solitarioDesnudo() {
+        for (int celda = 0; celda < celdas; celda++) {
+            if (valores[celda] == 0 && Integer.bitCount(candidatos[celda]) == 1) {
+                colocar(celda, Integer.numberOfTrailingZeros(candidatos[celda]) + 1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Places the first digit that fits in a single cell of some unit.
+     *
+     * @return true if a digit was placed.
+     */
+    private boolean solitarioOculto() {
+        for (int[] unidad : unidades) {
+            int unaVez = 0;
+            int masDeUna = 0;
+            for (int celda : unidad) {
+                masDeUna |= unaVez & candidatos[celda];
+                unaVez |= candidatos[celda];
+            }
+            int unicos = unaVez & ~masDeUna;
+            if (unicos != 0) {
+                int bit = Integer.lowestOneBit(unicos);
+                for (int celda : unidad) {
+                    if ((candidatos[celda] & bit) != 0) {
+                        colocar(celda, Integer.numberOfTrailingZeros(bit) + 1);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes candidates using the intersection of blocks and lines: if a digit of
+     * a block only fits in one line, it cannot go elsewhere in that line, and if a
+     * digit of a line only fits in one block, it cannot go elsewhere in that block.
+     *
+     * @return true if some candidate was removed.
+     */
+    private boolean candidatosBloqueados() {
+        for (int bit = 1; bit <= todos; bit <<= 1) {
+            for (int b = 2 * tamano; b < 3 * tamano; b++) {
+                int filas = 0;
+                int columnas = 0;
+                for (int celda : unidades[b]) {
+                    if ((candidatos[celda] & bit) != 0) {
+                        filas |= 1 << (celda / tamano);
+                        columnas |= 1 << (celda % tamano);
+                    }
+                }
+                if (Integer.bitCount(filas) == 1
+                        && eliminarFuera(unidades[Integer.numberOfTrailingZeros(filas)], unidades[b], bit)) {
+                    return true;
+                }
+                if (Integer.bitCount(columnas) == 1
+                        && eliminarFuera(unidades[tamano + Integer.numberOfTrailingZeros(columnas)], unidades[b], bit)) {
+                    return true;
+                }
+            }
+            for (int linea = 0; linea < 2 * tamano; linea++) {
+                int bloques = 0;
+                for (int celda : unidades[linea]) {
+                    if ((candidatos[celda] & bit) != 0) {
+                        bloques |= 1 << geometria.bloque(celda);
+                    }
+                }
+                if (Integer.bitCount(bloques) == 1
+                        && eliminarFuera(unidades[2 * tamano + Integer.numberOfTrailingZeros(bloques)], unidades[linea], bit)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the candidates of two cells of a unit that share the same two
+     * candidates from the rest of the unit.
+     *
+     * @return true if some candidate was removed.
+     */
+    private boolean parejaDesnuda() {
+        for (int[] unidad : unidades) {
+            for (int i = 0; i < tamano; i++) {
+                int pareja = candidatos[unidad[i]];
+                if (Integer.bitCount(pareja) != 2) {
+                    continue;
+                }
+                for (int j = i + 1; j < tamano; j++) {
+                    if (candidatos[unidad[j]] != pareja) {
+                        continue;
+                    }
+                    boolean eliminado = false;
+                    for (int k = 0; k < tamano; k++) {
+                        int celda = unidad[k];
+                        if (k != i && k != j && (candidatos[celda] & pareja) != 0) {
+                            eliminar(celda, pareja);
+                            eliminado = true;
+                        }
+                    }
+                    if (eliminado) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes candidates with the X-wing pattern: if a digit only fits in the same
+     * two columns of two rows, it cannot go elsewhere in those columns, and the
+     * same with rows and columns swapped.
+     *
+     * @return true if some candidate was removed.
+     */
+    private boolean alaX() {
+        for (int bit = 1; bit <= todos; bit <<= 1) {
+            if (alaX(bit, 0) || alaX(bit, tamano)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Looks for an X-wing of one digit, with rows as base lines (and columns as
+     * cover lines) or the other way round.
+     *
+     * @param bit the candidate bit of the digit
+     * @param base 0 to use rows as base lines, n to use columns
+     * @return true if some candidate was removed.
+     */
+    private boolean alaX(int bit, int base) {
+        int cubierta = tamano - base; // Índice de la primera línea del otro tipo
+        Arrays.fill(posiciones, 0);
+        for (int linea = 0; linea < tamano; linea++) {
+            int[] unidad = unidades[base + linea];
+            for (int k = 0; k < tamano; k++) {
+                if ((candidatos[unidad[k]] & bit) != 0) {
+                    posiciones[linea] |= 1 << k;
+                }
+            }
+        }
+        for (int a = 0; a < tamano; a++) {
+            if (Integer.bitCount(posiciones[a]) != 2) {
+                continue;
+            }
+            for (int b = a + 1; b < tamano; b++) {
+                if (posiciones[b] != posiciones[a]) {
+                    continue;
+                }
+                boolean eliminado = false;
+                for (int k = posiciones[a]; k != 0; k &= k - 1) {
+                    int[] linea = unidades[cubierta + Integer.numberOfTrailingZeros(k)];
+                    for (int otra = 0; otra < tamano; otra++) {
+                        int celda = linea[otra];
+                        if (otra != a && otra != b && (candidatos[celda] & bit) != 0) {
+                            eliminar(celda, bit);
+                            eliminado = true;
+                        }
+                    }
+                }
+                if (eliminado) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes a candidate from the cells of a unit that are not in another unit.
+     *
+     * @param unidad the unit to clean
+     * @param excluida the unit whose cells are kept
+     * @param bit the candidate bit to remove
+     * @return true if some candidate was removed.
+     */
+    private boolean eliminarFuera(int[] unidad, int[] excluida, int bit) {
+        boolean eliminado = false;
+        for (int celda : unidad) {
+            if ((candidatos[celda] & bit) != 0 && !contiene(excluida, celda)) {
+                eliminar(celda, bit);
+                eliminado = true;
+            }
+        }
+        return eliminado;
+    }
+
+    /**
+     * Places a digit and removes it from the candidates of every peer.
+     *
+     * @param celda the cell index
+     * @param num the digit to place
+     */
+    private void colocar(int celda, int num) {
+        int bit = 1 << (num - 1);
+        valores[celda] = (byte) num;
+        candidatos[celda] = 0;
+        vacias--;
+        for (int par : geometria.pares(celda)) {
+            if ((candidatos[par] & bit) != 0) {
+                eliminar(par, bit);
+            }
+        }
+    }
+
+    /**
+     * Removes candidates from an empty cell, flagging a contradiction if none is left.
+     *
+     * @param celda the cell index
+     * @param bits the candidate bits to remove
+     */
+    private void eliminar(int celda, int bits) {
+        candidatos[celda] &= ~bits;
+        if (candidatos[celda] == 0 && valores[celda] == 0) {
+            contradiccion = true;
+        }
+    }
+
+    /**
+     * Checks whether a unit contains a cell.
+     *
+     * @param unidad the unit
+     * @param celda the cell index
+     * @return true if the cell belongs to the unit.
+     */
+    private static boolean contiene(int[] unidad, int celda) {
+        for (int otra : unidad) {
+            if (otra == celda) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
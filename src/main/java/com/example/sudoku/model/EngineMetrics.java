@@ -0,0 +1,111 @@
+package com.example.sudoku.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters and latency histograms of the engine. Solvers add the
+ * work of each search once it ends, not per node, so the counters cost nothing
+ * inside the search loops; generation, solving and validation record their
+ * latency. Everything can be read at any time from any thread.
+ */
+public final class EngineMetrics {
+    private static final LongAdder NODOS = new LongAdder();
+    private static final LongAdder RETROCESOS = new LongAdder();
+    private static final LongAdder CANDIDATOS = new LongAdder();
+    private static final LatencyHistogram GENERACION = new LatencyHistogram();
+    private static final LatencyHistogram RESOLUCION = new LatencyHistogram();
+    private static final LatencyHistogram VALIDACION = new LatencyHistogram();
+
+    private EngineMetrics() {
+    }
+
+    /**
+     * Adds the work of one search.
+     *
+     * @param nodos the digits placed
+     * @param retrocesos the placements undone to try another branch
+     * @param candidatos the digits considered for a cell
+     */
+    public static void sumarBusqueda(long nodos, long retrocesos, long candidatos) {
+        NODOS.add(nodos);
+        RETROCESOS.add(retrocesos);
+        CANDIDATOS.add(candidatos);
+    }
+
+    /**
+     * Gets the number of search nodes visited by every solver.
+     *
+     * @return the digits placed since start or the last reset.
+     */
+    public static long getNodos() {
+        return NODOS.sum();
+    }
+
+    /**
+     * Gets the number of backtracks of every solver.
+     *
+     * @return the placements undone since start or the last reset.
+     */
+    public static long getRetrocesos() {
+        return RETROCESOS.sum();
+    }
+
+    /**
+     * Gets the number of candidates tried by every solver.
+     *
+     * @return the digits considered since start or the last reset.
+     */
+    public static long getCandidatos() {
+        return CANDIDATOS.sum();
+    }
+
+    /**
+     * Gets the latencies of puzzle generation.
+     *
+     * @return the histogram of whole generations, from the empty board to the puzzle.
+     */
+    public static LatencyHistogram getGeneracion() {
+        return GENERACION;
+    }
+
+    /**
+     * Gets the latencies of solving.
+     *
+     * @return the histogram of complete-grid fills and portfolio races.
+     */
+    public static LatencyHistogram getResolucion() {
+        return RESOLUCION;
+    }
+
+    /**
+     * Gets the latencies of validation.
+     *
+     * @return the histogram of solution counts, such as the uniqueness checks
+     * made while removing clues.
+     */
+    public static LatencyHistogram getValidacion() {
+        return VALIDACION;
+    }
+
+    /**
+     * Clears every counter and histogram.
+     */
+    public static void reiniciar() {
+        NODOS.reset();
+        RETROCESOS.reset();
+        CANDIDATOS.reset();
+        GENERACION.reiniciar();
+        RESOLUCION.reiniciar();
+        VALIDACION.reiniciar();
+    }
+
+    /**
+     * Formats every metric for logs.
+     *
+     * @return a multi-line summary.
+     */
+    public static String resumen() {
+        return String.format("nodos=%d retrocesos=%d candidatos=%d%ngenerar: %s%nresolver: %s%nvalidar: %s",
+                getNodos(), getRetrocesos(), getCandidatos(), GENERACION, RESOLUCION, VALIDACION);
+    }
+}
@@ -0,0 +1,388 @@
+package com.example.sudoku.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Crash-safe record of the game in progress: a snapshot file with the puzzle,
+ * the board and the undo history, plus an append-only journal with the moves
+ * made since. Every few hundred moves the state is compacted into a new
+ * snapshot and the journal starts over; resuming reads the snapshot and
+ * replays the tail of the journal.
+ * <p>
+ * The journal listens to a {@link Sudoku}. The listener only queues the move,
+ * or a copy of the state for a snapshot, and a background thread does all the
+ * writing, so input latency never depends on the disk.
+ * <p>
+ * Snapshot file: magic, version, generation, cell count, the difficulty band
+ * of the new games of the session, the clues, the solution and the board as
+ * one byte per cell, then the number of applied moves, the number of stored
+ * moves and the moves. Version 1 snapshots have no band and resume as easy. Journal file: magic,
+ * version and the generation of its snapshot, then one {@code int} per move as
+ * described in {@link MoveLog}. A journal whose generation does not match the
+ * snapshot is left over from before a compaction and is ignored, as is a
+ * move cut short by a crash.
+ */
+public class GameJournal implements SudokuListener, AutoCloseable {
+    /** Magic number of snapshot files ("SDKS"). */
+    public static final int MAGICO_INSTANTANEA = 0x53444B53;
+    /** Magic number of journal files ("SDKJ"). */
+    public static final int MAGICO_DIARIO = 0x53444B4A;
+    /** Version of both file formats. */
+    public static final int VERSION = 2;
+    /** Directory used by the application for the game in progress. */
+    public static final Path DIRECTORIO_POR_DEFECTO = Path.of(System.getProperty("user.home"), ".sudoku");
+
+    private static final String ARCHIVO_INSTANTANEA = "partida.instantanea";
+    private static final String ARCHIVO_DIARIO = "partida.diario";
+    private static final int CABECERA_DIARIO = 16;
+    private static final int COMPACTAR_CADA = 256;   // Jugadas en el diario antes de una nueva instantánea
+    private static final int CAPACIDAD_COLA = 4096;
+    private static final Registro FIN = new Registro(0, null); // Pide al escritor que termine
+
+    private final Path directorio;
+    private final Sudoku sudoku;
+    private final NivelDificultad nivel;
+    private final BlockingQueue<Registro> pendientes = new ArrayBlockingQueue<>(CAPACIDAD_COLA);
+    private final Thread escritor;
+    private int jugadasEnDiario;                     // Solo se usa en el hilo del modelo
+    private boolean perdida;                         // La cola se llenó: falta una instantánea
+
+    /**
+     * Starts journaling an easy game: writes a snapshot of its current state
+     * and listens to every following move.
+     *
+     * @param directorio the directory of the snapshot and journal files
+     * @param sudoku the game to record
+     * @throws IOException if the directory cannot be created.
+     */
+    public GameJournal(Path directorio, Sudoku sudoku) throws IOException {
+        this(directorio, sudoku, NivelDificultad.FACIL);
+    }
+
+    /**
+     * Starts journaling a game: writes a snapshot of its current state and
+     * listens to every following move.
+     *
+     * @param directorio the directory of the snapshot and journal files
+     * @param sudoku the game to record
+     * @param nivel the difficulty band of the new games of the session, restored on resume
+     * @throws IOException if the directory cannot be created.
+     */
+    public GameJournal(Path directorio, Sudoku sudoku, NivelDificultad nivel) throws IOException {
+        Files.createDirectories(directorio);
+        this.directorio = directorio;
+        this.sudoku = sudoku;
+        this.nivel = nivel;
+        this.escritor = new Thread(this::escribir, "sudoku-diario");
+        this.escritor.setDaemon(true); // No impide que la aplicación termine
+        encolar(new Registro(0, capturar()));
+        this.escritor.start();
+        sudoku.addListener(this);
+    }
+
+    /**
+     * Checks whether a directory holds a game that can be resumed.
+     *
+     * @param directorio the directory of the snapshot and journal files
+     * @return true if there is a snapshot.
+     */
+    public static boolean existe(Path directorio) {
+        return Files.isRegularFile(directorio.resolve(ARCHIVO_INSTANTANEA));
+    }
+
+    /**
+     * Rebuilds the recorded game: loads the snapshot and replays the moves of
+     * the journal, undo history included.
+     *
+     * @param directorio the directory of the snapshot and journal files
+     * @return the restored game, without listeners.
+     * @throws IOException if the snapshot cannot be read or is not valid.
+     */
+    public static Sudoku reanudar(Path directorio) throws IOException {
+        ByteBuffer instantanea = ByteBuffer.wrap(Files.readAllBytes(directorio.resolve(ARCHIVO_INSTANTANEA)));
+        try {
+            int version = leerCabecera(instantanea);
+            long generacion = instantanea.getLong();
+            int celdas = instantanea.getShort();
+            if (version > 1) {
+                instantanea.get(); // El nivel se lee con nivelGuardado
+            }
+            byte[] pistas = new byte[celdas];
+            byte[] solucion = new byte[celdas];
+            byte[] valores = new byte[celdas];
+            instantanea.get(pistas).get(solucion).get(valores);
+            int aplicados = instantanea.getInt();
+            int[] movimientos = new int[instantanea.getInt()];
+            instantanea.asIntBuffer().get(movimientos);
+
+            Sudoku sudoku = new Sudoku(BoardGeometry.deCeldas(celdas));
+            sudoku.cargarPuzzle(new Puzzle(pistas, solucion));
+            sudoku.restaurarValores(valores);
+            sudoku.getHistorial().importar(movimientos, aplicados);
+
+            Path diario = directorio.resolve(ARCHIVO_DIARIO);
+            if (Files.isRegularFile(diario)) {
+                ByteBuffer cola = ByteBuffer.wrap(Files.readAllBytes(diario));
+                if (cola.remaining() >= CABECERA_DIARIO && cola.getInt() == MAGICO_DIARIO && cola.getInt() == version
+                        && cola.getLong() == generacion) {
+                    while (cola.remaining() >= Integer.BYTES) { // Un movimiento cortado por un cierre brusco se ignora
+                        sudoku.reproducir(cola.getInt());
+                    }
+                }
+            }
+            return sudoku;
+        } catch (RuntimeException e) {
+            throw new IOException("Instantánea de partida dañada", e);
+        }
+    }
+
+    /**
+     * Reads the difficulty band of the new games of the recorded session.
+     *
+     * @param directorio the directory of the snapshot and journal files
+     * @return the band, easy for snapshots written before the band was recorded.
+     * @throws IOException if the snapshot cannot be read or is not valid.
+     */
+    public static NivelDificultad nivelGuardado(Path directorio) throws IOException {
+        ByteBuffer instantanea = ByteBuffer.wrap(Files.readAllBytes(directorio.resolve(ARCHIVO_INSTANTANEA)));
+        try {
+            if (leerCabecera(instantanea) == 1) {
+                return NivelDificultad.FACIL;
+            }
+            instantanea.getLong(); // Generación
+            instantanea.getShort(); // Celdas
+            return NivelDificultad.values()[instantanea.get()];
+        } catch (RuntimeException e) {
+            throw new IOException("Instantánea de partida dañada", e);
+        }
+    }
+
+    /**
+     * Reads and checks the magic number and version of a snapshot.
+     *
+     * @param instantanea the snapshot, positioned at its start
+     * @return the version of the snapshot.
+     * @throws IOException if it is not a snapshot of a known version.
+     */
+    private static int leerCabecera(ByteBuffer instantanea) throws IOException {
+        int version;
+        if (instantanea.getInt() != MAGICO_INSTANTANEA || (version = instantanea.getInt()) < 1 || version > VERSION) {
+            throw new IOException("Instantánea de partida no válida");
+        }
+        return version;
+    }
+
+    /**
+     * Queues a move for the journal and asks for a snapshot every few hundred moves.
+     *
+     * @param movimiento the packed move
+     */
+    @Override
+    public void onMovimiento(int movimiento) {
+        if (perdida || ++jugadasEnDiario >= COMPACTAR_CADA) {
+            encolar(new Registro(0, capturar())); // La instantánea ya incluye este movimiento
+        } else {
+            encolar(new Registro(movimiento, null));
+        }
+    }
+
+    /**
+     * Queues a snapshot when a new puzzle replaces the board.
+     */
+    @Override
+    public void onTableroCargado() {
+        encolar(new Registro(0, capturar()));
+    }
+
+    /**
+     * Stops listening, writes what is queued and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        sudoku.removeListener(this);
+        try {
+            // Sin interrumpir al escritor: un canal interrumpido a mitad de escritura se cierra
+            if (pendientes.offer(FIN, 5, TimeUnit.SECONDS)) {
+                escritor.join(TimeUnit.SECONDS.toMillis(5));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a record without ever blocking the caller. If the queue is full
+     * the record is dropped and the next move is replaced by a snapshot.
+     *
+     * @param registro the record to write
+     */
+    private void encolar(Registro registro) {
+        boolean aceptado = pendientes.offer(registro);
+        if (registro.instantanea != null) {
+            perdida = !aceptado;
+            if (aceptado) {
+                jugadasEnDiario = 0;
+            }
+        } else if (!aceptado) {
+            perdida = true;
+        }
+    }
+
+    /**
+     * Copies the state of the game for a snapshot. It runs on the thread of the
+     * model and only copies a few small arrays.
+     *
+     * @return the serialized snapshot, without its generation.
+     */
+    private byte[] capturar() {
+        Puzzle puzzle = sudoku.getPuzzle();
+        byte[] valores = new byte[sudoku.getGeometry().getCeldas()];
+        sudoku.copyTo(valores);
+        MoveLog historial = sudoku.getHistorial();
+        int[] movimientos = historial.exportar();
+        ByteBuffer datos = ByteBuffer.allocate(3 + 3 * valores.length + 8 + movimientos.length * Integer.BYTES);
+        datos.putShort((short) valores.length).put((byte) nivel.ordinal()).put(puzzle.getTablero()).put(puzzle.getSolucion()).put(valores);
+        datos.putInt(historial.getAplicados()).putInt(movimientos.length);
+        for (int movimiento : movimientos) {
+            datos.putInt(movimiento);
+        }
+        return datos.array();
+    }
+
+    /**
+     * Body of the writer thread: takes the queued records in batches, appends
+     * the moves to the journal and turns every snapshot into a new snapshot
+     * file and an empty journal.
+     */
+    private void escribir() {
+        List<Registro> lote = new ArrayList<>();
+        ByteBuffer movimientos = ByteBuffer.allocate(CAPACIDAD_COLA * Integer.BYTES);
+        FileChannel diario = null;
+        // Generaciones distintas en cada ejecución, para no confundir el diario de una sesión anterior
+        long generacion = new SplittableRandom().nextLong();
+        try {
+            boolean fin = false;
+            while (!fin) {
+                lote.add(pendientes.take());
+                pendientes.drainTo(lote);
+                for (Registro registro : lote) {
+                    if (registro == FIN) {
+                        fin = true;
+                        break;
+                    } else if (registro.instantanea != null) {
+                        diario = vaciar(diario, movimientos);
+                        if (diario != null) {
+                            diario.close();
+                        }
+                        generacion++;
+                        diario = compactar(registro.instantanea, generacion);
+                    } else {
+                        movimientos.putInt(registro.movimiento);
+                    }
+                }
+                lote.clear();
+                vaciar(diario, movimientos);
+                if (diario != null) {
+                    diario.force(false); // Cada lote queda en disco antes de esperar el siguiente
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Salida sin escribir lo pendiente
+        } catch (IOException e) {
+            System.err.println("No se pudo escribir el diario de la partida: " + e.getMessage());
+        } finally {
+            if (diario != null) {
+                try {
+                    diario.close();
+                } catch (IOException e) {
+                    System.err.println("No se pudo cerrar el diario de la partida: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends the buffered moves to the journal.
+     *
+     * @param diario the journal channel, or null if there is none yet
+     * @param movimientos the buffered moves
+     * @return the same channel.
+     * @throws IOException if the moves cannot be written.
+     */
+    private static FileChannel vaciar(FileChannel diario, ByteBuffer movimientos) throws IOException {
+        movimientos.flip();
+        while (diario != null && movimientos.hasRemaining()) {
+            diario.write(movimientos);
+        }
+        movimientos.clear();
+        return diario;
+    }
+
+    /**
+     * Replaces the snapshot file atomically and starts an empty journal for it.
+     *
+     * @param instantanea the serialized state, without its generation
+     * @param generacion the generation of the new snapshot
+     * @return the channel of the new journal, positioned after its header.
+     * @throws IOException if the files cannot be written.
+     */
+    private FileChannel compactar(byte[] instantanea, long generacion) throws IOException {
+        Path temporal = directorio.resolve(ARCHIVO_INSTANTANEA + ".tmp");
+        ByteBuffer cabecera = ByteBuffer.allocate(16);
+        cabecera.putInt(MAGICO_INSTANTANEA).putInt(VERSION).putLong(generacion).flip();
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer cuerpo = ByteBuffer.wrap(instantanea);
+            while (cabecera.hasRemaining()) {
+                canal.write(cabecera);
+            }
+            while (cuerpo.hasRemaining()) {
+                canal.write(cuerpo);
+            }
+            canal.force(true);
+        }
+        // Primero la instantánea: si el proceso muere aquí, el diario viejo tiene otra generación y se ignora
+        Files.move(temporal, directorio.resolve(ARCHIVO_INSTANTANEA), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        FileChannel diario = FileChannel.open(directorio.resolve(ARCHIVO_DIARIO), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer inicio = ByteBuffer.allocate(CABECERA_DIARIO);
+        inicio.putInt(MAGICO_DIARIO).putInt(VERSION).putLong(generacion).flip();
+        while (inicio.hasRemaining()) {
+            diario.write(inicio);
+        }
+        return diario;
+    }
+
+    /**
+     * One queued record: a move, or a snapshot of the whole state.
+     */
+    private static final class Registro {
+        private final int movimiento;
+        private final byte[] instantanea;
+
+        /**
+         * Creates a record.
+         *
+         * @param movimiento the packed move, ignored for snapshots
+         * @param instantanea the serialized state, or null for a move
+         */
+        Registro(int movimiento, byte[] instantanea) {
+            this.movimiento = movimiento;
+            this.instantanea = instantanea;
+        }
+    }
+}
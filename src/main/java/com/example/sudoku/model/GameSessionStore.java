@@ -0,0 +1,116 @@
+package com.example.sudoku.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Boards of many concurrent 6x6 games, each kept as an immutable
+ * {@link PackedBoard} in its own atomic reference. A move builds the new board
+ * and installs it with a compare-and-set, retrying if another move of the same
+ * session won the race, so sessions never take a lock and moves on different
+ * sessions never contend. Readers get a board that cannot change under them.
+ */
+public class GameSessionStore {
+    private final ConcurrentHashMap<Long, AtomicReference<PackedBoard>> sesiones = new ConcurrentHashMap<>();
+    private final AtomicLong siguienteId = new AtomicLong(1);
+
+    /**
+     * Opens a session that starts with the clues of a puzzle.
+     *
+     * @param puzzle a 6x6 puzzle
+     * @return the id of the new session.
+     * @throws IllegalArgumentException if the puzzle is not 6x6.
+     */
+    public long abrir(Puzzle puzzle) {
+        return abrir(PackedBoard.de(puzzle));
+    }
+
+    /**
+     * Opens a session that starts with a board.
+     *
+     * @param tablero the starting board
+     * @return the id of the new session.
+     */
+    public long abrir(PackedBoard tablero) {
+        long id = siguienteId.getAndIncrement();
+        sesiones.put(id, new AtomicReference<>(tablero));
+        return id;
+    }
+
+    /**
+     * Gets the current board of a session.
+     *
+     * @param id the id of the session
+     * @return the board, or null if there is no such session.
+     */
+    public PackedBoard get(long id) {
+        AtomicReference<PackedBoard> sesion = sesiones.get(id);
+        return sesion != null ? sesion.get() : null;
+    }
+
+    /**
+     * Changes one cell of a session, retrying against concurrent moves.
+     *
+     * @param id the id of the session
+     * @param row the row index
+     * @param col the column index
+     * @param valor the new value, 0 to empty the cell
+     * @return the board after the move.
+     * @throws IllegalArgumentException if there is no such session, the value is
+     * out of range or the cell is a clue.
+     */
+    public PackedBoard jugar(long id, int row, int col, int valor) {
+        return sesion(id).updateAndGet(tablero -> tablero.with(row, col, valor));
+    }
+
+    /**
+     * Replaces the board of a session only if it is still the expected one, for
+     * clients that read a board, compute a change and must not overwrite a move
+     * they did not see.
+     *
+     * @param id the id of the session
+     * @param esperado the board the change was computed from
+     * @param nuevo the board to install
+     * @return true if the board was replaced, false if it had changed meanwhile.
+     * @throws IllegalArgumentException if there is no such session.
+     */
+    public boolean reemplazar(long id, PackedBoard esperado, PackedBoard nuevo) {
+        return sesion(id).compareAndSet(esperado, nuevo);
+    }
+
+    /**
+     * Closes a session.
+     *
+     * @param id the id of the session
+     * @return the last board of the session, or null if there was no such session.
+     */
+    public PackedBoard cerrar(long id) {
+        AtomicReference<PackedBoard> sesion = sesiones.remove(id);
+        return sesion != null ? sesion.get() : null;
+    }
+
+    /**
+     * Gets the number of open sessions.
+     *
+     * @return the sessions not closed yet.
+     */
+    public int getSesiones() {
+        return sesiones.size();
+    }
+
+    /**
+     * Gets the reference holding the board of a session.
+     *
+     * @param id the id of the session
+     * @return the reference of the session.
+     * @throws IllegalArgumentException if there is no such session.
+     */
+    private AtomicReference<PackedBoard> sesion(long id) {
+        AtomicReference<PackedBoard> sesion = sesiones.get(id);
+        if (sesion == null) {
+            throw new IllegalArgumentException("No hay sesión " + id);
+        }
+        return sesion;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.sudoku.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning the generation of one puzzle, from the empty
+ * board to the loaded puzzle.
+ */
+@Name("com.example.sudoku.Generacion")
+@Label("Generación de puzzle")
+@Category("Sudoku")
+@Description("Generación de un puzzle desde el tablero vacío")
+class GenerationEvent extends Event {
+    @Label("Tamaño")
+    String geometria;
+
+    @Label("Modo")
+    @Description("ALEATORIO, SEMILLA, DIFICULTAD o MINIMO")
+    String modo;
+
+    @Label("Nivel")
+    @Description("Banda de dificultad obtenida, si se buscó una")
+    String nivel;
+
+    @Label("Intentos")
+    int intentos;
+
+    @Label("Pistas")
+    int pistas;
+}
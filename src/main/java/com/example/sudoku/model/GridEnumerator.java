@@ -0,0 +1,324 @@
+package com.example.sudoku.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Enumerates every completed 6x6 grid. The search is split by first band (the
+ * top two rows, one row of blocks): there are 720 first rows and, for each, 36
+ * second rows that keep both top blocks valid, so 25,920 bands. Ranges of bands
+ * are split across a fork-join pool and each band is completed with an
+ * iterative, allocation-free search over the remaining 24 cells.
+ * <p>
+ * Grids can be counted or streamed packed with {@link PuzzleCodec}, one band at
+ * a time. The total must be {@link #TOTAL_6X6}.
+ */
+public class GridEnumerator {
+    /** Known number of completed 6x6 grids. */
+    public static final long TOTAL_6X6 = 28_200_960L;
+    /** Number of valid first bands. */
+    public static final int BANDAS = 25_920;
+
+    private static final BoardGeometry GEOMETRIA = BoardGeometry.TABLERO_6X6;
+    private static final int CELDAS_BANDA = 12;
+    private static final int BANDAS_POR_TAREA = 64; // Tamaño de las tareas hoja
+    private static final int TODOS = 0b1111110;     // Bit n = dígito n
+    private static final byte[][] PERMUTACIONES_6 = permutaciones(new byte[]{1, 2, 3, 4, 5, 6});
+    private static final byte[][] PERMUTACIONES_3 = permutaciones(new byte[]{0, 1, 2});
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Receives the grids of one band. It is called from the worker threads of
+     * the pool, possibly at the same time for different bands.
+     */
+    public interface Receptor {
+        /**
+         * Takes the grids completed from one band.
+         *
+         * @param banda the band index
+         * @param rejillas the packed grids, high word then low word for each grid;
+         *                 reused after the call returns
+         * @param cantidad the number of grids
+         */
+        void aceptar(int banda, long[] rejillas, int cantidad);
+    }
+
+    /**
+     * Creates an enumerator that runs on the common fork-join pool.
+     */
+    public GridEnumerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an enumerator that runs on the given pool.
+     *
+     * @param pool the pool that runs the search
+     */
+    public GridEnumerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Counts every completed grid.
+     *
+     * @return the number of grids.
+     */
+    public long contar() {
+        return pool.invoke(new Tarea(0, BANDAS, null));
+    }
+
+    /**
+     * Enumerates every completed grid, handing them to the receptor band by band.
+     *
+     * @param receptor the receiver of the packed grids
+     * @return the number of grids.
+     */
+    public long recorrer(Receptor receptor) {
+        return pool.invoke(new Tarea(0, BANDAS, receptor));
+    }
+
+    /**
+     * Counts every completed grid and checks the result against the known total.
+     *
+     * @return the number of grids.
+     * @throws IllegalStateException if the count is not {@link #TOTAL_6X6}.
+     */
+    public long verificar() {
+        long total = contar();
+        if (total != TOTAL_6X6) {
+            throw new IllegalStateException("Se esperaban " + TOTAL_6X6 + " rejillas y hay " + total);
+        }
+        return total;
+    }
+
+    /**
+     * Writes the first band with the given index into the top two rows of a board.
+     *
+     * @param banda the band index, from 0 to {@link #BANDAS} - 1
+     * @param tablero the board to fill; the other cells are left untouched
+     */
+    public static void primeraBanda(int banda, byte[] tablero) {
+        byte[] fila = PERMUTACIONES_6[banda / 36];
+        byte[] izquierda = PERMUTACIONES_3[(banda % 36) / 6];
+        byte[] derecha = PERMUTACIONES_3[banda % 6];
+        System.arraycopy(fila, 0, tablero, 0, 6);
+        // La segunda fila lleva en cada bloque los dígitos que faltan en ese bloque
+        for (int k = 0; k < 3; k++) {
+            tablero[6 + k] = fila[3 + izquierda[k]];
+            tablero[9 + k] = fila[derecha[k]];
+        }
+    }
+
+    /**
+     * Builds every permutation of the given values in lexicographic order.
+     *
+     * @param valores the values, in ascending order
+     * @return the permutations.
+     */
+    private static byte[][] permutaciones(byte[] valores) {
+        int n = valores.length;
+        int total = 1;
+        for (int i = 2; i <= n; i++) {
+            total *= i;
+        }
+        byte[][] resultado = new byte[total][];
+        byte[] actual = valores.clone();
+        for (int p = 0; p < total; p++) {
+            resultado[p] = actual.clone();
+            int i = n - 2;
+            while (i >= 0 && actual[i] > actual[i + 1]) {
+                i--;
+            }
+            if (i < 0) {
+                break;
+            }
+            int j = n - 1;
+            while (actual[j] < actual[i]) {
+                j--;
+            }
+            byte tmp = actual[i];
+            actual[i] = actual[j];
+            actual[j] = tmp;
+            for (int a = i + 1, b = n - 1; a < b; a++, b--) {
+                tmp = actual[a];
+                actual[a] = actual[b];
+                actual[b] = tmp;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Fork-join task over a range of bands: it splits in halves down to
+     * {@link #BANDAS_POR_TAREA} bands and then completes them one by one.
+     */
+    private static final class Tarea extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int desde;
+        private final int hasta;
+        private final Receptor receptor;
+
+        /**
+         * Creates the task of a range of bands.
+         *
+         * @param desde the first band, inclusive
+         * @param hasta the last band, exclusive
+         * @param receptor the receiver of the grids, or null to only count them
+         */
+        Tarea(int desde, int hasta, Receptor receptor) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.receptor = receptor;
+        }
+
+        /**
+         * Splits the range or completes its bands.
+         *
+         * @return the number of grids of the range.
+         */
+        @Override
+        protected Long compute() {
+            if (hasta - desde > BANDAS_POR_TAREA) {
+                int medio = (desde + hasta) >>> 1;
+                Tarea izquierda = new Tarea(desde, medio, receptor);
+                izquierda.fork();
+                long derecha = new Tarea(medio, hasta, receptor).compute();
+                return derecha + izquierda.join();
+            }
+            Completado completado = new Completado(receptor);
+            long total = 0;
+            for (int banda = desde; banda < hasta; banda++) {
+                total += completado.completar(banda);
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Completes the grids of one band with an explicit stack of candidate masks.
+     */
+    private static final class Completado {
+        private final byte[] celdas = new byte[GEOMETRIA.getCeldas()];
+        private final int[] mascaraFilas = new int[GEOMETRIA.getTamano()];
+        private final int[] mascaraColumnas = new int[GEOMETRIA.getTamano()];
+        private final int[] mascaraBloques = new int[GEOMETRIA.getTamano()];
+        private final int[] candidatos = new int[GEOMETRIA.getCeldas() - CELDAS_BANDA]; // Dígitos aún por probar en cada nivel
+        private final Receptor receptor;
+        private long[] rejillas;
+
+        /**
+         * Creates the working state of a leaf task.
+         *
+         * @param receptor the receiver of the grids, or null to only count them
+         */
+        Completado(Receptor receptor) {
+            this.receptor = receptor;
+            this.rejillas = receptor != null ? new long[2 * 2048] : null;
+        }
+
+        /**
+         * Completes every grid of a band.
+         *
+         * @param banda the band index
+         * @return the number of grids of the band.
+         */
+        int completar(int banda) {
+            Arrays.fill(celdas, (byte) 0);
+            Arrays.fill(mascaraFilas, 0);
+            Arrays.fill(mascaraColumnas, 0);
+            Arrays.fill(mascaraBloques, 0);
+            primeraBanda(banda, celdas);
+            for (int celda = 0; celda < CELDAS_BANDA; celda++) {
+                marcar(celda, celdas[celda]);
+            }
+
+            int ultimo = candidatos.length - 1;
+            int encontradas = 0;
+            int nivel = 0;
+            candidatos[0] = libres(CELDAS_BANDA);
+            while (nivel >= 0) {
+                int celda = CELDAS_BANDA + nivel;
+                if (celdas[celda] != 0) {
+                    desmarcar(celda, celdas[celda]); // Deshacer el dígito anterior de este nivel
+                    celdas[celda] = 0;
+                }
+                int restantes = candidatos[nivel];
+                if (restantes == 0) {
+                    nivel--;
+                    continue;
+                }
+                int bit = restantes & -restantes;
+                candidatos[nivel] = restantes ^ bit;
+                celdas[celda] = (byte) Integer.numberOfTrailingZeros(bit);
+                marcar(celda, celdas[celda]);
+                if (nivel < ultimo) {
+                    nivel++;
+                    candidatos[nivel] = libres(CELDAS_BANDA + nivel);
+                } else {
+                    guardar(encontradas++); // Rejilla completa; el mismo nivel prueba el siguiente dígito
+                }
+            }
+            if (receptor != null) {
+                receptor.aceptar(banda, rejillas, encontradas);
+            }
+            return encontradas;
+        }
+
+        /**
+         * Stores the packed current grid when streaming.
+         *
+         * @param indice the position of the grid within the band
+         */
+        private void guardar(int indice) {
+            if (receptor == null) {
+                return;
+            }
+            if (2 * indice + 1 >= rejillas.length) {
+                rejillas = Arrays.copyOf(rejillas, rejillas.length * 2);
+            }
+            rejillas[2 * indice] = PuzzleCodec.empaquetarAlto(celdas);
+            rejillas[2 * indice + 1] = PuzzleCodec.empaquetarBajo(celdas);
+        }
+
+        /**
+         * Computes the digits that still fit in a cell.
+         *
+         * @param celda the cell index
+         * @return the mask of the digits that fit.
+         */
+        private int libres(int celda) {
+            return TODOS & ~(mascaraFilas[GEOMETRIA.fila(celda)] | mascaraColumnas[GEOMETRIA.columna(celda)]
+                    | mascaraBloques[GEOMETRIA.bloque(celda)]);
+        }
+
+        /**
+         * Marks a digit in the masks of the units of a cell.
+         *
+         * @param celda the cell index
+         * @param num the digit
+         */
+        private void marcar(int celda, int num) {
+            int bit = 1 << num;
+            mascaraFilas[GEOMETRIA.fila(celda)] |= bit;
+            mascaraColumnas[GEOMETRIA.columna(celda)] |= bit;
+            mascaraBloques[GEOMETRIA.bloque(celda)] |= bit;
+        }
+
+        /**
+         * Clears a digit from the masks of the units of a cell.
+         *
+         * @param celda the cell index
+         * @param num the digit
+         */
+        private void desmarcar(int celda, int num) {
+            int bit = ~(1 << num);
+            mascaraFilas[GEOMETRIA.fila(celda)] &= bit;
+            mascaraColumnas[GEOMETRIA.columna(celda)] &= bit;
+            mascaraBloques[GEOMETRIA.bloque(celda)] &= bit;
+        }
+    }
+}
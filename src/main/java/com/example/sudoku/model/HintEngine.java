@@ -0,0 +1,390 @@
+package com.example.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the cells that can be deduced from the current board in a queue, so
+ * the next hint is taken in constant time instead of scanning the board.
+ * <p>
+ * The engine listens to the game and keeps the candidate mask of every cell
+ * and, for every unit and digit, the mask of the positions of the unit where
+ * the digit still fits. A move only recomputes the candidates of the cell and
+ * its peers; every candidate that changes updates the position masks of its
+ * three units, and only the cells of those units that may have gained or lost a
+ * single are checked again. A cell enters the queue when it has a single
+ * candidate (naked single) or holds the only place of a digit in one of its
+ * units (hidden single), and only if the deduced digit matches the solution,
+ * which can differ when the player made a mistake. When nothing can be deduced,
+ * the first empty cell is revealed from the solution.
+ */
+public class HintEngine implements SudokuListener {
+    private final ISudoku sudoku;
+    private final BoardGeometry geometria;
+    private final int tamano;
+    private final int celdas;
+    private final int todos;              // Bit n = dígito n
+    private final byte[] valores;
+    private final byte[] solucion;
+    private final int[] candidatos;       // Dígitos que caben en cada celda vacía
+    private final int[] conteo;           // Veces que aparece cada dígito en cada unidad
+    private final int[] presentes;        // Dígitos presentes en cada unidad
+    private final int[] lugares;          // Por unidad y dígito: posiciones de la unidad donde cabe
+    private final int[] unidadesDe;       // Las 3 unidades de cada celda
+    private final int[] posicionEn;       // Posición de cada celda dentro de cada una de sus unidades
+    private final byte[] valorPista;      // Dígito deducido de cada celda en la cola
+    private final Tecnica[] tecnicaPista;
+    private final Cola deducibles;        // Celdas que se pueden deducir, en orden de llegada
+    private final Cola vacias;            // Celdas vacías, para revelar cuando no hay deducción
+    private final int[] revisar;          // Celdas pendientes de revisar tras una jugada
+    private final int[] marcaRevisar;
+    private int totalRevisar;
+    private int ronda;
+
+    /**
+     * Creates the engine of a game and starts listening to it.
+     *
+     * @param sudoku the game to give hints for
+     */
+    public HintEngine(ISudoku sudoku) {
+        this.sudoku = sudoku;
+        this.geometria = sudoku.getGeometry();
+        this.tamano = geometria.getTamano();
+        this.celdas = geometria.getCeldas();
+        this.todos = ((1 << tamano) - 1) << 1;
+        this.valores = new byte[celdas];
+        this.solucion = new byte[celdas];
+        this.candidatos = new int[celdas];
+        this.conteo = new int[3 * tamano * (tamano + 1)];
+        this.presentes = new int[3 * tamano];
+        this.lugares = new int[3 * tamano * (tamano + 1)];
+        this.unidadesDe = new int[3 * celdas];
+        this.posicionEn = new int[3 * celdas];
+        for (int u = 0; u < geometria.getUnidades(); u++) {
+            int[] unidad = geometria.unidad(u);
+            for (int p = 0; p < unidad.length; p++) {
+                int k = u / tamano; // 0 fila, 1 columna, 2 bloque
+                unidadesDe[3 * unidad[p] + k] = u;
+                posicionEn[3 * unidad[p] + k] = p;
+            }
+        }
+        this.valorPista = new byte[celdas];
+        this.tecnicaPista = new Tecnica[celdas];
+        this.deducibles = new Cola(celdas);
+        this.vacias = new Cola(celdas);
+        this.revisar = new int[celdas];
+        this.marcaRevisar = new int[celdas];
+        reconstruir();
+        sudoku.addListener(this);
+    }
+
+    /**
+     * Gets the next hint without changing the board.
+     *
+     * @return the oldest deducible cell, or the first empty cell revealed from
+     * the solution if none can be deduced, or null if the board is full.
+     */
+    public Pista siguiente() {
+        int celda = deducibles.primera();
+        if (celda >= 0) {
+            return new Pista(geometria.fila(celda), geometria.columna(celda), valorPista[celda], tecnicaPista[celda]);
+        }
+        celda = vacias.primera();
+        if (celda >= 0 && solucion[celda] != 0) {
+            return new Pista(geometria.fila(celda), geometria.columna(celda), solucion[celda], null);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of cells that can be deduced right now.
+     *
+     * @return the length of the queue of hints.
+     */
+    public int getDeducibles() {
+        return deducibles.tamano;
+    }
+
+    /**
+     * Stops listening to the game.
+     */
+    public void desconectar() {
+        sudoku.removeListener(this);
+    }
+
+    /**
+     * Updates the candidates around a cell that changed.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @param valor the new value of the cell
+     */
+    @Override
+    public void onCeldaCambiada(int row, int col, int valor) {
+        establecer(row * tamano + col, valor);
+    }
+
+    /**
+     * Rebuilds everything for a new puzzle.
+     */
+    @Override
+    public void onTableroCargado() {
+        reconstruir();
+    }
+
+    /**
+     * Reads the whole board and the solution and computes every mask and the
+     * queue from scratch.
+     */
+    private void reconstruir() {
+        sudoku.copyTo(valores);
+        System.arraycopy(sudoku.getPuzzle().getSolucion(), 0, solucion, 0, celdas);
+        Arrays.fill(conteo, 0);
+        Arrays.fill(presentes, 0);
+        Arrays.fill(lugares, 0);
+        Arrays.fill(candidatos, 0);
+        deducibles.vaciar();
+        vacias.vaciar();
+        for (int celda = 0; celda < celdas; celda++) {
+            if (valores[celda] != 0) {
+                contar(celda, valores[celda], 1);
+            } else {
+                vacias.agregar(celda);
+            }
+        }
+        ronda++;
+        totalRevisar = 0;
+        for (int celda = 0; celda < celdas; celda++) {
+            actualizarCandidatos(celda);
+            pedirRevision(celda);
+        }
+        revisarPendientes();
+    }
+
+    /**
+     * Applies a change of one cell and updates what it affects.
+     *
+     * @param celda the cell index
+     * @param valor the new value, 0 if emptied
+     */
+    private void establecer(int celda, int valor) {
+        int anterior = valores[celda];
+        if (anterior == valor) {
+            return;
+        }
+        if (anterior != 0) {
+            contar(celda, anterior, -1);
+        }
+        if (valor != 0) {
+            contar(celda, valor, 1);
+            vacias.quitar(celda);
+        } else {
+            vacias.agregar(celda);
+        }
+        valores[celda] = (byte) valor;
+
+        ronda++;
+        totalRevisar = 0;
+        actualizarCandidatos(celda);
+        pedirRevision(celda);
+        for (int par : geometria.pares(celda)) {
+            actualizarCandidatos(par);
+        }
+        revisarPendientes();
+    }
+
+    /**
+     * Counts a digit in or out of the three units of a cell.
+     *
+     * @param celda the cell index
+     * @param num the digit
+     * @param delta 1 to add it, -1 to remove it
+     */
+    private void contar(int celda, int num, int delta) {
+        for (int k = 0; k < 3; k++) {
+            int u = unidadesDe[3 * celda + k];
+            int n = conteo[u * (tamano + 1) + num] += delta;
+            if (n > 0) {
+                presentes[u] |= 1 << num;
+            } else {
+                presentes[u] &= ~(1 << num);
+            }
+        }
+    }
+
+    /**
+     * Recomputes the candidates of a cell. Every digit it gains or loses flips
+     * its position in the masks of its units, and the cells left holding that
+     * digit in those units are queued for review.
+     *
+     * @param celda the cell index
+     */
+    private void actualizarCandidatos(int celda) {
+        int nuevos = 0;
+        if (valores[celda] == 0) {
+            nuevos = todos & ~(presentes[unidadesDe[3 * celda]] | presentes[unidadesDe[3 * celda + 1]]
+                    | presentes[unidadesDe[3 * celda + 2]]);
+        }
+        int cambios = candidatos[celda] ^ nuevos;
+        if (cambios == 0) {
+            return;
+        }
+        candidatos[celda] = nuevos;
+        pedirRevision(celda);
+        for (int bits = cambios; bits != 0; bits &= bits - 1) {
+            int num = Integer.numberOfTrailingZeros(bits);
+            for (int k = 0; k < 3; k++) {
+                int u = unidadesDe[3 * celda + k];
+                int indice = u * (tamano + 1) + num;
+                lugares[indice] ^= 1 << posicionEn[3 * celda + k];
+                // Puede haber aparecido o desaparecido un solitario oculto de este dígito en la unidad
+                int[] unidad = geometria.unidad(u);
+                for (int pos = lugares[indice]; pos != 0; pos &= pos - 1) {
+                    pedirRevision(unidad[Integer.numberOfTrailingZeros(pos)]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a cell to the cells to review after the current move, once.
+     *
+     * @param celda the cell index
+     */
+    private void pedirRevision(int celda) {
+        if (marcaRevisar[celda] != ronda) {
+            marcaRevisar[celda] = ronda;
+            revisar[totalRevisar++] = celda;
+        }
+    }
+
+    /**
+     * Reviews the pending cells, putting them in the queue of hints or taking
+     * them out of it.
+     */
+    private void revisarPendientes() {
+        for (int i = 0; i < totalRevisar; i++) {
+            int celda = revisar[i];
+            Tecnica tecnica = null;
+            int num = 0;
+            int posibles = candidatos[celda];
+            if (valores[celda] == 0 && posibles != 0) {
+                if (Integer.bitCount(posibles) == 1) {
+                    tecnica = Tecnica.SOLITARIO_DESNUDO;
+                    num = Integer.numberOfTrailingZeros(posibles);
+                } else {
+                    num = solitarioOculto(celda, posibles);
+                    if (num != 0) {
+                        tecnica = Tecnica.SOLITARIO_OCULTO;
+                    }
+                }
+            }
+            if (tecnica != null && num == solucion[celda]) {
+                valorPista[celda] = (byte) num;
+                tecnicaPista[celda] = tecnica;
+                deducibles.agregar(celda); // No hace nada si ya estaba en la cola
+            } else {
+                deducibles.quitar(celda); // Ya no se deduce, o la deducción parte de un error del jugador
+            }
+        }
+        totalRevisar = 0;
+    }
+
+    /**
+     * Looks for a candidate of a cell that fits nowhere else in one of its units.
+     *
+     * @param celda the cell index
+     * @param posibles the candidates of the cell
+     * @return the digit, or 0 if there is none.
+     */
+    private int solitarioOculto(int celda, int posibles) {
+        for (int k = 0; k < 3; k++) {
+            int u = unidadesDe[3 * celda + k];
+            int propia = 1 << posicionEn[3 * celda + k];
+            for (int bits = posibles; bits != 0; bits &= bits - 1) {
+                int num = Integer.numberOfTrailingZeros(bits);
+                if (lugares[u * (tamano + 1) + num] == propia) {
+                    return num;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Insertion-ordered set of cells as an intrusive doubly linked list over
+     * arrays: adding, removing and reading the first cell take constant time.
+     */
+    private static final class Cola {
+        private final int[] siguiente;
+        private final int[] anterior;
+        private final boolean[] contiene;
+        private final int centinela;
+        private int tamano;
+
+        /**
+         * Creates an empty set for the given number of cells.
+         *
+         * @param celdas the number of cells of the board
+         */
+        Cola(int celdas) {
+            siguiente = new int[celdas + 1];
+            anterior = new int[celdas + 1];
+            contiene = new boolean[celdas];
+            centinela = celdas;
+            vaciar();
+        }
+
+        /**
+         * Removes every cell.
+         */
+        void vaciar() {
+            siguiente[centinela] = centinela;
+            anterior[centinela] = centinela;
+            Arrays.fill(contiene, false);
+            tamano = 0;
+        }
+
+        /**
+         * Appends a cell at the end if it is not in the set yet.
+         *
+         * @param celda the cell index
+         */
+        void agregar(int celda) {
+            if (contiene[celda]) {
+                return;
+            }
+            int ultima = anterior[centinela];
+            siguiente[ultima] = celda;
+            anterior[celda] = ultima;
+            siguiente[celda] = centinela;
+            anterior[centinela] = celda;
+            contiene[celda] = true;
+            tamano++;
+        }
+
+        /**
+         * Removes a cell if it is in the set.
+         *
+         * @param celda the cell index
+         */
+        void quitar(int celda) {
+            if (!contiene[celda]) {
+                return;
+            }
+            siguiente[anterior[celda]] = siguiente[celda];
+            anterior[siguiente[celda]] = anterior[celda];
+            contiene[celda] = false;
+            tamano--;
+        }
+
+        /**
+         * Gets the oldest cell of the set.
+         *
+         * @return the cell index, or -1 if the set is empty.
+         */
+        int primera() {
+            int celda = siguiente[centinela];
+            return celda == centinela ? -1 : celda;
+        }
+    }
+}
@@ -11,6 +11,12 @@ public interface ISudoku {
      */
     void resetGame();
 
+    /**
+     * Gets the size of the board.
+     * @return The geometry of the board.
+     */
+    BoardGeometry getGeometry();
+
     /**
      * Gets the positions where hints can be given.
      * @return List of int arrays representing positions for hints.
@@ -23,6 +29,32 @@ public interface ISudoku {
      */
     boolean isSudokuComplete();
 
+    /**
+     * Checks in constant time if every cell is filled and no number repeats.
+     * @return True if complete, otherwise false.
+     */
+    boolean isComplete();
+
+    /**
+     * Gets the number of cells whose number repeats in their row, column or block.
+     * @return The number of conflicting cells.
+     */
+    int conflictCount();
+
+    /**
+     * Gets the cells whose number repeats in their row, column or block.
+     * @return List of [row, column] pairs.
+     */
+    List<int[]> getConflictingCells();
+
+    /**
+     * Checks whether the number of a cell repeats in its row, column or block.
+     * @param row The row index.
+     * @param col The column index.
+     * @return True if the cell is in conflict, otherwise false.
+     */
+    boolean isInConflict(int row, int col);
+
     /**
      * Sets a number in the Sudoku puzzle table at the specified row and column.
      * @param number The number to set.
@@ -32,25 +64,132 @@ public interface ISudoku {
     void setNumberInTableSodoku(int number, int row, int col);
 
     /**
-     * Gets the current state of the Sudoku board.
+     * Empties the cell at the specified row and column.
+     * @param row The row index.
+     * @param col The column index.
+     */
+    void clearCell(int row, int col);
+
+    /**
+     * Places the digit of a hint at the specified row and column.
+     * @param number The digit of the hint.
+     * @param row The row index.
+     * @param col The column index.
+     */
+    void aplicarAyuda(int number, int row, int col);
+
+    /**
+     * Reverts the last move of the player or of a hint.
+     * @return True if a move was undone, false if there was none.
+     */
+    boolean deshacer();
+
+    /**
+     * Applies again the last undone move.
+     * @return True if a move was redone, false if there was none.
+     */
+    boolean rehacer();
+
+    /**
+     * Checks whether there is a move to undo.
+     * @return True if a move can be undone.
+     */
+    boolean puedeDeshacer();
+
+    /**
+     * Checks whether there is a move to redo.
+     * @return True if a move can be redone.
+     */
+    boolean puedeRehacer();
+
+    /**
+     * Gets the puzzle being played: its clues and its solution.
+     * @return The current puzzle.
+     */
+    Puzzle getPuzzle();
+
+    /**
+     * Gets the pencil marks of a cell.
+     * @param row The row index.
+     * @param col The column index.
+     * @return The marked digits, bit n set for digit n.
+     */
+    int getNotas(int row, int col);
+
+    /**
+     * Marks or unmarks a digit as a candidate of an empty cell.
+     * @param number The digit.
+     * @param row The row index.
+     * @param col The column index.
+     */
+    void alternarNota(int number, int row, int col);
+
+    /**
+     * Marks in every empty cell exactly the digits that do not repeat in its
+     * row, column or block.
+     */
+    void autocompletarNotas();
+
+    /**
+     * Gets a copy of the current state of the Sudoku board.
      * @return List of lists representing the Sudoku board.
      */
     List<List<Integer>> getTableSudoku();
 
+    /**
+     * Gets the value of a single cell of the board.
+     * @param row The row index.
+     * @param col The column index.
+     * @return The value of the cell, or 0 if it is empty.
+     */
+    int getCell(int row, int col);
+
+    /**
+     * Copies the whole board, in row-major order, into the given array.
+     * @param destino The array to fill; must hold one element per cell.
+     */
+    void copyTo(byte[] destino);
+
+    /**
+     * Checks whether a cell holds one of the clues of the puzzle.
+     * @param row The row index.
+     * @param col The column index.
+     * @return True if the cell is a clue, otherwise false.
+     */
+    boolean isClue(int row, int col);
+
     /**
      * Initializes a new game.
      */
     void iniciarNuevoJuego();
 
     /**
-     * Shows an alert for victory.
+     * Initializes a new game fully determined by a seed.
+     * @param semilla The seed of the puzzle; the same seed always gives the same puzzle.
+     */
+    void iniciarNuevoJuego(long semilla);
+
+    /**
+     * Initializes a new game whose difficulty falls in the given band.
+     * @param objetivo The difficulty band wanted.
+     */
+    void iniciarNuevoJuego(NivelDificultad objetivo);
+
+    /**
+     * Loads a previously generated puzzle as the current game.
+     * @param puzzle The puzzle to load.
+     */
+    void cargarPuzzle(Puzzle puzzle);
+
+    /**
+     * Registers a listener for the events of the game.
+     * @param listener The listener to add.
      */
-    void mostrarAlertaVictoria();
+    void addListener(SudokuListener listener);
 
     /**
-     * Shows an alert for error.
-     * @param titulo The title of the alert.
-     * @param mensaje The message of the alert.
+     * Unregisters a previously added listener.
+     * @param listener The listener to remove.
      */
-    void mostrarAlertaError(String titulo, String mensaje);
+    void removeListener(SudokuListener listener);
 }
@@ -0,0 +1,107 @@
+package com.example.sudoku.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with one bucket per power of two of nanoseconds, safe to
+ * update from many threads at once. Recording costs one increment of a
+ * {@link LongAdder}, so it can sit on hot paths; percentiles are reported as
+ * the upper bound of their bucket, so they are accurate to a factor of two.
+ */
+public class LatencyHistogram {
+    private static final int CUBETAS = 64; // Cubeta i: latencias en [2^(i-1), 2^i) ns
+
+    private final LongAdder[] cubetas = new LongAdder[CUBETAS];
+    private final LongAdder cuenta = new LongAdder();
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < CUBETAS; i++) {
+            cubetas[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos the latency in nanoseconds; negative values count as 0
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        cubetas[Math.min(CUBETAS - 1, 64 - Long.numberOfLeadingZeros(valor))].increment();
+        cuenta.increment();
+        total.add(valor);
+    }
+
+    /**
+     * Gets the number of latencies recorded.
+     *
+     * @return the count.
+     */
+    public long getCuenta() {
+        return cuenta.sum();
+    }
+
+    /**
+     * Gets the mean latency.
+     *
+     * @return the mean in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMedia() {
+        long n = cuenta.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    /**
+     * Estimates a percentile of the recorded latencies.
+     *
+     * @param percentil the percentile, from 0 to 100
+     * @return the upper bound in nanoseconds of the bucket holding the
+     * percentile, or 0 if nothing was recorded.
+     */
+    public long percentil(double percentil) {
+        long[] conteos = new long[CUBETAS];
+        long n = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            conteos[i] = cubetas[i].sum(); // Instantánea: las cubetas pueden seguir cambiando
+            n += conteos[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rango = Math.max(1, (long) Math.ceil(percentil / 100 * n));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += conteos[i];
+            if (acumulado >= rango) {
+                return i == 0 ? 0 : i >= 63 ? Long.MAX_VALUE : (1L << i) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Clears the histogram. Latencies recorded at the same time may be lost.
+     */
+    public void reiniciar() {
+        for (LongAdder cubeta : cubetas) {
+            cubeta.reset();
+        }
+        cuenta.reset();
+        total.reset();
+    }
+
+    /**
+     * Formats the count, mean and main percentiles for logs.
+     *
+     * @return a one-line summary in milliseconds.
+     */
+    @Override
+    public String toString() {
+        return String.format("n=%d media=%.2fms p50=%.2fms p99=%.2fms p999=%.2fms", getCuenta(), getMedia() / 1e6,
+                percentil(50) / 1e6, percentil(99) / 1e6, percentil(99.9) / 1e6);
+    }
+}
@@ -0,0 +1,386 @@
+package com.example.sudoku.model;
+
+import com.example.sudoku.model.solver.DancingLinksSolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Reduces a solved grid to minimal puzzles: uniquely solvable puzzles from which
+ * no clue can be removed. Many random removal orders are tried in parallel and
+ * the sparsest result is kept.
+ * <p>
+ * A clue can be removed exactly when no solution exists with its cell holding a
+ * different digit, so each step is a single search for one counterexample
+ * instead of a count of solutions. A clue that cannot be removed stays needed
+ * as more clues are removed, so one pass over an order gives a minimal puzzle.
+ * Each worker keeps one board with its masks and updates it incrementally as
+ * clues are removed; the searches undo their own placements.
+ */
+public class MinimalPuzzleReducer {
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a reducer that runs on the common fork-join pool.
+     */
+    public MinimalPuzzleReducer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a reducer that runs on the given pool.
+     *
+     * @param pool the pool that runs the removal orders
+     */
+    public MinimalPuzzleReducer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Tries several random removal orders in parallel and returns the sparsest
+     * minimal puzzle found. The result depends only on the grid, the number of
+     * orders, the seed and the parallelism of the pool.
+     *
+     * @param solucion the solved grid, row-major
+     * @param ordenes the number of removal orders to try
+     * @param semilla the seed of the removal orders
+     * @return the minimal puzzle with the fewest clues, with the grid as solution.
+     * @throws IllegalArgumentException if the grid is not complete and valid, or
+     * fewer than one order is asked for.
+     */
+    public Puzzle reducir(byte[] solucion, int ordenes, long semilla) {
+        comprobarOrdenes(ordenes);
+        BoardGeometry geometria = BoardGeometry.deCeldas(solucion.length);
+        if (!new Reductor(geometria).cargar(solucion) || contarVacias(solucion) > 0) {
+            throw new IllegalArgumentException("Se requiere una cuadrícula completa y válida");
+        }
+        int tareas = Math.max(1, Math.min(ordenes, pool.getParallelism()));
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        List<Callable<byte[]>> trabajos = new ArrayList<>(tareas);
+        for (int t = 0; t < tareas; t++) {
+            int cuantos = ordenes / tareas + (t < ordenes % tareas ? 1 : 0);
+            SplittableRandom random = raiz.split(); // Un generador por tarea
+            trabajos.add(() -> new Reductor(geometria).mejorDe(solucion, cuantos, random));
+        }
+
+        byte[] mejor = null;
+        try {
+            for (Future<byte[]> resultado : pool.invokeAll(trabajos)) {
+                byte[] tablero = resultado.get();
+                if (mejor == null || contarVacias(tablero) > contarVacias(mejor)) {
+                    mejor = tablero;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reducción interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("No se pudo reducir la cuadrícula", e.getCause());
+        }
+        return new Puzzle(mejor, solucion);
+    }
+
+    /**
+     * Rejects a number of removal orders that would leave no puzzle to return.
+     *
+     * @param ordenes the number of removal orders to try
+     * @throws IllegalArgumentException if it is less than one.
+     */
+    static void comprobarOrdenes(int ordenes) {
+        if (ordenes < 1) {
+            throw new IllegalArgumentException("Se requiere al menos un orden de eliminación y hay " + ordenes);
+        }
+    }
+
+    /**
+     * Checks whether a puzzle is minimal: it has a single solution and removing
+     * any of its clues gives more than one.
+     *
+     * @param tablero the puzzle, row-major, with 0 for empty cells
+     * @return true if the puzzle is uniquely solvable and no clue can be removed.
+     */
+    public static boolean esMinimo(byte[] tablero) {
+        Reductor reductor = new Reductor(BoardGeometry.deCeldas(tablero.length));
+        return reductor.cargar(tablero) && new DancingLinksSolver().contarSoluciones(tablero, 2) == 1
+                && reductor.todasNecesarias();
+    }
+
+    /**
+     * Counts the empty cells of a board.
+     *
+     * @param tablero the board
+     * @return the number of cells holding 0.
+     */
+    private static int contarVacias(byte[] tablero) {
+        int vacias = 0;
+        for (byte valor : tablero) {
+            if (valor == 0) {
+                vacias++;
+            }
+        }
+        return vacias;
+    }
+
+    /**
+     * Board with its row, column and block masks and the explicit stack of the
+     * counterexample search, reused across every order of one task.
+     */
+    private static final class Reductor {
+        private static final int SOLUCION = 1;
+        private static final int CALLEJON = 0;
+        private static final int ELEGIDA = 2;
+
+        private final BoardGeometry geometria;
+        private final int todos;          // Bit n = dígito n
+        private final byte[] celdas;
+        private final int[] mascaraFilas;
+        private final int[] mascaraColumnas;
+        private final int[] mascaraBloques;
+        private final int[] elegidas;     // Celda elegida en cada nivel de la pila
+        private final int[] candidatos;   // Dígitos aún por probar en cada nivel
+        private final int[] orden;
+        private int celdaProhibida = -1;  // Celda que no puede volver a su dígito
+        private int bitProhibido;
+
+        /**
+         * Allocates the working state for a board size.
+         *
+         * @param geometria the size of the board
+         */
+        Reductor(BoardGeometry geometria) {
+            this.geometria = geometria;
+            this.todos = ((1 << geometria.getTamano()) - 1) << 1;
+            this.celdas = new byte[geometria.getCeldas()];
+            this.mascaraFilas = new int[geometria.getTamano()];
+            this.mascaraColumnas = new int[geometria.getTamano()];
+            this.mascaraBloques = new int[geometria.getTamano()];
+            this.elegidas = new int[geometria.getCeldas()];
+            this.candidatos = new int[geometria.getCeldas()];
+            this.orden = new int[geometria.getCeldas()];
+        }
+
+        /**
+         * Loads a board.
+         *
+         * @param tablero the board to load
+         * @return false if a number repeats in a unit.
+         */
+        boolean cargar(byte[] tablero) {
+            Arrays.fill(celdas, (byte) 0);
+            Arrays.fill(mascaraFilas, 0);
+            Arrays.fill(mascaraColumnas, 0);
+            Arrays.fill(mascaraBloques, 0);
+            for (int celda = 0; celda < tablero.length; celda++) {
+                int num = tablero[celda];
+                if (num != 0) {
+                    if ((libres(celda) & (1 << num)) == 0) {
+                        return false;
+                    }
+                    colocar(celda, num);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Reduces the grid along several random orders.
+         *
+         * @param solucion the solved grid
+         * @param cuantos the number of orders to try
+         * @param random the source of the orders
+         * @return the sparsest minimal puzzle found.
+         */
+        byte[] mejorDe(byte[] solucion, int cuantos, SplittableRandom random) {
+            byte[] mejor = null;
+            int menosPistas = Integer.MAX_VALUE;
+            for (int i = 0; i < cuantos; i++) {
+                barajar(random);
+                int pistas = reducir(solucion);
+                if (pistas < menosPistas) {
+                    menosPistas = pistas;
+                    mejor = celdas.clone();
+                }
+            }
+            return mejor;
+        }
+
+        /**
+         * Removes, in the current order, every clue whose cell cannot hold
+         * another digit in any solution.
+         *
+         * @param solucion the solved grid
+         * @return the number of clues left.
+         */
+        int reducir(byte[] solucion) {
+            cargar(solucion);
+            int pistas = celdas.length;
+            for (int celda : orden) {
+                int valor = celdas[celda];
+                quitar(celda, valor);
+                if (existeAlternativa(celda, valor)) {
+                    colocar(celda, valor); // La pista es necesaria y lo seguirá siendo
+                } else {
+                    pistas--;
+                }
+            }
+            return pistas;
+        }
+
+        /**
+         * Checks that every clue of the loaded puzzle is needed.
+         *
+         * @return true if no clue can be removed without another solution appearing.
+         */
+        boolean todasNecesarias() {
+            for (int celda = 0; celda < celdas.length; celda++) {
+                int valor = celdas[celda];
+                if (valor == 0) {
+                    continue;
+                }
+                quitar(celda, valor);
+                boolean necesaria = existeAlternativa(celda, valor);
+                colocar(celda, valor);
+                if (!necesaria) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Looks for a solution of the current board in which a cell does not hold
+         * a given digit, always branching on the empty cell with fewest candidates.
+         * The board is left as it was.
+         *
+         * @param celda the cell that must differ, or -1 for any solution
+         * @param valor the digit the cell must not hold
+         * @return true if such a solution exists.
+         */
+        boolean existeAlternativa(int celda, int valor) {
+            celdaProhibida = celda;
+            bitProhibido = celda >= 0 ? 1 << valor : 0;
+            int nivel = 0;
+            int estado = elegir(0);
+            while (true) {
+                if (estado == SOLUCION) {
+                    for (int l = 0; l < nivel; l++) {
+                        quitar(elegidas[l], celdas[elegidas[l]]); // Dejar el tablero como estaba
+                    }
+                    return true;
+                }
+                if (estado == CALLEJON) {
+                    do {
+                        if (nivel == 0) {
+                            return false;
+                        }
+                        nivel--;
+                        quitar(elegidas[nivel], celdas[elegidas[nivel]]);
+                    } while (candidatos[nivel] == 0);
+                }
+                int bit = candidatos[nivel] & -candidatos[nivel];
+                candidatos[nivel] ^= bit;
+                colocar(elegidas[nivel], Integer.numberOfTrailingZeros(bit));
+                estado = elegir(++nivel);
+            }
+        }
+
+        /**
+         * Chooses the empty cell with fewest candidates for a stack level.
+         *
+         * @param nivel the stack level
+         * @return SOLUCION if the board is full, CALLEJON if some cell has no
+         * candidate, ELEGIDA otherwise.
+         */
+        private int elegir(int nivel) {
+            int mejor = -1;
+            int mejorCandidatos = 0;
+            int minimo = Integer.MAX_VALUE;
+            for (int celda = 0; celda < celdas.length; celda++) {
+                if (celdas[celda] != 0) {
+                    continue;
+                }
+                int posibles = libres(celda);
+                if (celda == celdaProhibida) {
+                    posibles &= ~bitProhibido;
+                }
+                int cuenta = Integer.bitCount(posibles);
+                if (cuenta < minimo) {
+                    if (cuenta == 0) {
+                        return CALLEJON;
+                    }
+                    minimo = cuenta;
+                    mejor = celda;
+                    mejorCandidatos = posibles;
+                }
+            }
+            if (mejor < 0) {
+                return SOLUCION;
+            }
+            elegidas[nivel] = mejor;
+            candidatos[nivel] = mejorCandidatos;
+            return ELEGIDA;
+        }
+
+        /**
+         * Shuffles the cell indices into the removal order.
+         *
+         * @param random the source of randomness
+         */
+        private void barajar(SplittableRandom random) {
+            for (int i = 0; i < orden.length; i++) {
+                orden[i] = i;
+            }
+            for (int i = orden.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = orden[i];
+                orden[i] = orden[j];
+                orden[j] = tmp;
+            }
+        }
+
+        /**
+         * Computes the digits that still fit in a cell.
+         *
+         * @param celda the cell index
+         * @return the mask of the digits that fit.
+         */
+        private int libres(int celda) {
+            return todos & ~(mascaraFilas[geometria.fila(celda)] | mascaraColumnas[geometria.columna(celda)]
+                    | mascaraBloques[geometria.bloque(celda)]);
+        }
+
+        /**
+         * Places a digit and marks it in the masks.
+         *
+         * @param celda the cell index
+         * @param num the digit
+         */
+        private void colocar(int celda, int num) {
+            int bit = 1 << num;
+            celdas[celda] = (byte) num;
+            mascaraFilas[geometria.fila(celda)] |= bit;
+            mascaraColumnas[geometria.columna(celda)] |= bit;
+            mascaraBloques[geometria.bloque(celda)] |= bit;
+        }
+
+        /**
+         * Empties a cell and clears its digit from the masks.
+         *
+         * @param celda the cell index
+         * @param num the digit that was in the cell
+         */
+        private void quitar(int celda, int num) {
+            int bit = ~(1 << num);
+            celdas[celda] = 0;
+            mascaraFilas[geometria.fila(celda)] &= bit;
+            mascaraColumnas[geometria.columna(celda)] &= bit;
+            mascaraBloques[geometria.bloque(celda)] &= bit;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Undo and redo history of the moves of one game, kept in a fixed ring of
+ * {@code int}s. Each move packs the cell, the value before, the value after and
+ * its origin into one {@code int}, so recording a move allocates nothing; when
+ * the ring is full the oldest move is forgotten.
+ * <p>
+ * Layout of a move: bits 0-7 cell, bits 8-12 value before, bits 13-17 value
+ * after (0 = empty), bits 18-19 origin.
+ */
+public class MoveLog {
+    /** The player typed or cleared a digit. */
+    public static final int JUGADOR = 0;
+    /** A hint placed the digit. */
+    public static final int AYUDA = 1;
+    /** An undo reverted a move; the move stored is the reverse. */
+    public static final int DESHACER = 2;
+    /** A redo applied a move again. */
+    public static final int REHACER = 3;
+
+    private static final int CAPACIDAD_POR_DEFECTO = 1024;
+
+    private final int[] anillo;
+    private int inicio;      // Posición del movimiento más antiguo
+    private int aplicados;   // Movimientos que se pueden deshacer
+    private int disponibles; // Movimientos guardados, incluidos los que se pueden rehacer
+
+    /**
+     * Creates a history of 1024 moves.
+     */
+    public MoveLog() {
+        this(CAPACIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * Creates a history of the given number of moves.
+     *
+     * @param capacidad the moves kept before the oldest is forgotten
+     */
+    public MoveLog(int capacidad) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("Se requiere capacidad >= 1");
+        }
+        this.anillo = new int[capacidad];
+    }
+
+    /**
+     * Packs a move into an {@code int}.
+     *
+     * @param celda the cell index, row-major
+     * @param anterior the value before the move, 0 if empty
+     * @param nuevo the value after the move, 0 if empty
+     * @param origen {@link #JUGADOR}, {@link #AYUDA}, {@link #DESHACER} or {@link #REHACER}
+     * @return the packed move.
+     */
+    public static int codificar(int celda, int anterior, int nuevo, int origen) {
+        return celda | anterior << 8 | nuevo << 13 | origen << 18;
+    }
+
+    /**
+     * Gets the cell of a move.
+     *
+     * @param movimiento the packed move
+     * @return the cell index, row-major.
+     */
+    public static int celda(int movimiento) {
+        return movimiento & 0xFF;
+    }
+
+    /**
+     * Gets the value a move replaced.
+     *
+     * @param movimiento the packed move
+     * @return the value before the move, 0 if empty.
+     */
+    public static int anterior(int movimiento) {
+        return (movimiento >>> 8) & 0x1F;
+    }
+
+    /**
+     * Gets the value a move left.
+     *
+     * @param movimiento the packed move
+     * @return the value after the move, 0 if empty.
+     */
+    public static int nuevo(int movimiento) {
+        return (movimiento >>> 13) & 0x1F;
+    }
+
+    /**
+     * Gets the origin of a move.
+     *
+     * @param movimiento the packed move
+     * @return {@link #JUGADOR}, {@link #AYUDA}, {@link #DESHACER} or {@link #REHACER}.
+     */
+    public static int origen(int movimiento) {
+        return (movimiento >>> 18) & 0x3;
+    }
+
+    /**
+     * Builds the move that reverts another one.
+     *
+     * @param movimiento the packed move
+     * @param origen the origin of the reverse move
+     * @return the packed reverse move.
+     */
+    public static int inverso(int movimiento, int origen) {
+        return codificar(celda(movimiento), nuevo(movimiento), anterior(movimiento), origen);
+    }
+
+    /**
+     * Records a new move. The moves that could be redone are discarded.
+     *
+     * @param movimiento the packed move
+     */
+    public void registrar(int movimiento) {
+        if (aplicados == anillo.length) {
+            inicio = (inicio + 1) % anillo.length; // Anillo lleno: olvidar el más antiguo
+            aplicados--;
+        }
+        anillo[(inicio + aplicados) % anillo.length] = movimiento;
+        aplicados++;
+        disponibles = aplicados;
+    }
+
+    /**
+     * Takes the last applied move to undo it.
+     *
+     * @return the packed move, or -1 if there is nothing to undo.
+     */
+    public int deshacer() {
+        if (aplicados == 0) {
+            return -1;
+        }
+        aplicados--;
+        return anillo[(inicio + aplicados) % anillo.length];
+    }
+
+    /**
+     * Takes the last undone move to apply it again.
+     *
+     * @return the packed move, or -1 if there is nothing to redo.
+     */
+    public int rehacer() {
+        if (aplicados == disponibles) {
+            return -1;
+        }
+        return anillo[(inicio + aplicados++) % anillo.length];
+    }
+
+    /**
+     * Checks whether a move can be undone.
+     *
+     * @return true if there is an applied move.
+     */
+    public boolean puedeDeshacer() {
+        return aplicados > 0;
+    }
+
+    /**
+     * Checks whether a move can be redone.
+     *
+     * @return true if there is an undone move.
+     */
+    public boolean puedeRehacer() {
+        return aplicados < disponibles;
+    }
+
+    /**
+     * Forgets every move.
+     */
+    public void limpiar() {
+        inicio = 0;
+        aplicados = 0;
+        disponibles = 0;
+    }
+
+    /**
+     * Gets the number of applied moves.
+     *
+     * @return the moves that can be undone.
+     */
+    public int getAplicados() {
+        return aplicados;
+    }
+
+    /**
+     * Copies the stored moves, oldest first: the applied ones followed by
+     * those that can be redone.
+     *
+     * @return the stored moves.
+     */
+    public int[] exportar() {
+        int[] movimientos = new int[disponibles];
+        for (int i = 0; i < disponibles; i++) {
+            movimientos[i] = anillo[(inicio + i) % anillo.length];
+        }
+        return movimientos;
+    }
+
+    /**
+     * Replaces the history with exported moves.
+     *
+     * @param movimientos the moves, oldest first
+     * @param aplicados how many of them are applied; the rest can be redone
+     */
+    public void importar(int[] movimientos, int aplicados) {
+        int desde = Math.max(0, movimientos.length - anillo.length); // Solo caben los más recientes
+        limpiar();
+        Arrays.fill(anillo, 0);
+        for (int i = desde; i < movimientos.length; i++) {
+            anillo[i - desde] = movimientos[i];
+        }
+        this.disponibles = movimientos.length - desde;
+        this.aplicados = Math.max(0, Math.min(aplicados - desde, disponibles));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.sudoku.model;
+
+/**
+ * Difficulty bands offered to the player, defined by the hardest technique a
+ * puzzle requires.
+ */
+public enum NivelDificultad {
+    /** Solvable with naked singles only. */
+    FACIL,
+    /** Needs hidden singles. */
+    MEDIO,
+    /** Needs locked candidates or naked pairs. */
+    DIFICIL,
+    /** Needs an X-wing or cannot be solved without guessing. */
+    EXPERTO
+}
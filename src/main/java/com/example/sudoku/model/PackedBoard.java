@@ -0,0 +1,228 @@
+package com.example.sudoku.model;
+
+/**
+ * Immutable 6x6 board packed into two {@code long}s of values, in the layout of
+ * {@link PuzzleCodec}, plus a {@code long} with the clue mask. Changing a cell
+ * returns a new board, so a board can be shared between threads and sessions
+ * without copies or locks, and replaced atomically with a compare-and-set.
+ */
+public final class PackedBoard {
+    private static final int TAMANO = 6;
+    private static final int CELDAS_BAJO = 21;
+    private static final int BITS_POR_CELDA = 3;
+    private static final long MASCARA_CELDA = 0b111L;
+
+    private final long alto;
+    private final long bajo;
+    private final long pistas;
+
+    /**
+     * Creates a board from its packed words.
+     *
+     * @param alto the high word of the values
+     * @param bajo the low word of the values
+     * @param pistas the clue mask, bit {@code i} set if cell {@code i} is a clue
+     */
+    private PackedBoard(long alto, long bajo, long pistas) {
+        this.alto = alto;
+        this.bajo = bajo;
+        this.pistas = pistas;
+    }
+
+    /**
+     * Packs the clues of a puzzle as a board ready to play.
+     *
+     * @param puzzle a 6x6 puzzle
+     * @return the board with the clues and no other value.
+     * @throws IllegalArgumentException if the puzzle is not 6x6.
+     */
+    public static PackedBoard de(Puzzle puzzle) {
+        byte[] tablero = puzzle.getTablero();
+        comprobarTamano(tablero);
+        return new PackedBoard(PuzzleCodec.empaquetarAlto(tablero), PuzzleCodec.empaquetarBajo(tablero),
+                PuzzleCodec.mascaraPistas(tablero));
+    }
+
+    /**
+     * Packs a board in play.
+     *
+     * @param tablero the values of a 6x6 board, row-major, 0 for empty cells
+     * @param pistas the clue mask, bit {@code i} set if cell {@code i} is a clue
+     * @return the packed board.
+     * @throws IllegalArgumentException if the board is not 6x6, a value is out of
+     * range or a clue cell is empty.
+     */
+    public static PackedBoard de(byte[] tablero, long pistas) {
+        comprobarTamano(tablero);
+        for (int i = 0; i < PuzzleCodec.CELDAS; i++) {
+            if (tablero[i] < 0 || tablero[i] > TAMANO) {
+                throw new IllegalArgumentException("Celda no válida en la posición " + i + ": " + tablero[i]);
+            }
+        }
+        if ((pistas & ~PuzzleCodec.mascaraPistas(tablero)) != 0) {
+            throw new IllegalArgumentException("Hay pistas en celdas vacías");
+        }
+        return new PackedBoard(PuzzleCodec.empaquetarAlto(tablero), PuzzleCodec.empaquetarBajo(tablero), pistas);
+    }
+
+    /**
+     * Rejects boards that are not 6x6.
+     *
+     * @param tablero the board to check
+     * @throws IllegalArgumentException if the board does not have 36 cells.
+     */
+    private static void comprobarTamano(byte[] tablero) {
+        if (tablero.length != PuzzleCodec.CELDAS) {
+            throw new IllegalArgumentException("Solo se empaquetan tableros 6x6 y hay " + tablero.length + " celdas");
+        }
+    }
+
+    /**
+     * Gets the value of a cell.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @return the value of the cell, or 0 if it is empty.
+     */
+    public int get(int row, int col) {
+        return PuzzleCodec.celda(alto, bajo, indice(row, col));
+    }
+
+    /**
+     * Checks whether a cell holds one of the clues of the puzzle.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @return true if the cell is a clue.
+     */
+    public boolean isClue(int row, int col) {
+        return (pistas & (1L << indice(row, col))) != 0;
+    }
+
+    /**
+     * Gets the board with one cell changed. This board is not modified.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @param valor the new value, 0 to empty the cell
+     * @return the changed board, or this board if the cell already holds the value.
+     * @throws IllegalArgumentException if the value is out of range or the cell is a clue.
+     */
+    public PackedBoard with(int row, int col, int valor) {
+        int indice = indice(row, col);
+        if (valor < 0 || valor > TAMANO) {
+            throw new IllegalArgumentException("Valor no válido: " + valor);
+        }
+        if ((pistas & (1L << indice)) != 0) {
+            throw new IllegalArgumentException("La celda (" + row + ", " + col + ") es una pista");
+        }
+        if (PuzzleCodec.celda(alto, bajo, indice) == valor) {
+            return this;
+        }
+        if (indice < CELDAS_BAJO) {
+            int desplazamiento = indice * BITS_POR_CELDA;
+            return new PackedBoard(alto, (bajo & ~(MASCARA_CELDA << desplazamiento)) | ((long) valor << desplazamiento), pistas);
+        }
+        int desplazamiento = (indice - CELDAS_BAJO) * BITS_POR_CELDA;
+        return new PackedBoard((alto & ~(MASCARA_CELDA << desplazamiento)) | ((long) valor << desplazamiento), bajo, pistas);
+    }
+
+    /**
+     * Checks whether every cell holds a value. Repeated digits are not checked.
+     *
+     * @return true if no cell is empty.
+     */
+    public boolean isFull() {
+        for (int i = 0; i < PuzzleCodec.CELDAS; i++) {
+            if (PuzzleCodec.celda(alto, bajo, i) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the values, in row-major order, into the given array.
+     *
+     * @param destino the array to fill; must hold 36 elements
+     */
+    public void copyTo(byte[] destino) {
+        PuzzleCodec.desempaquetar(alto, bajo, destino);
+    }
+
+    /**
+     * Gets the high word of the values.
+     *
+     * @return the cells 21 to 35, 3 bits each.
+     */
+    public long getAlto() {
+        return alto;
+    }
+
+    /**
+     * Gets the low word of the values.
+     *
+     * @return the cells 0 to 20, 3 bits each.
+     */
+    public long getBajo() {
+        return bajo;
+    }
+
+    /**
+     * Gets the clue mask.
+     *
+     * @return a mask with bit {@code i} set if cell {@code i} is a clue.
+     */
+    public long getPistas() {
+        return pistas;
+    }
+
+    /**
+     * Turns a position into a cell index, checking that it is on the board.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @return the cell index, row-major.
+     * @throws IllegalArgumentException if the position is outside the board.
+     */
+    private static int indice(int row, int col) {
+        if (row < 0 || row >= TAMANO || col < 0 || col >= TAMANO) {
+            throw new IllegalArgumentException("Posición fuera del tablero: (" + row + ", " + col + ")");
+        }
+        return row * TAMANO + col;
+    }
+
+    /**
+     * Compares the values and clues of two boards.
+     *
+     * @param otro the object to compare with
+     * @return true if it is a board with the same values and clues.
+     */
+    @Override
+    public boolean equals(Object otro) {
+        return otro instanceof PackedBoard tablero
+                && tablero.alto == alto && tablero.bajo == bajo && tablero.pistas == pistas;
+    }
+
+    /**
+     * Hashes the values and clues of the board.
+     *
+     * @return the hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(alto * 31 + bajo) * 31 + Long.hashCode(pistas);
+    }
+
+    /**
+     * Formats the board as 36 digits in row-major order, with 0 for empty cells.
+     *
+     * @return the text form of the board.
+     */
+    @Override
+    public String toString() {
+        byte[] tablero = new byte[PuzzleCodec.CELDAS];
+        copyTo(tablero);
+        return PuzzleCodec.aTexto(tablero);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.sudoku.model;
+
+/**
+ * Hint for one cell: the digit that goes there and the technique that proves
+ * it from the current board.
+ */
+public final class Pista {
+    private final int fila;
+    private final int columna;
+    private final int valor;
+    private final Tecnica tecnica;
+
+    /**
+     * Creates a hint.
+     *
+     * @param fila the row of the cell
+     * @param columna the column of the cell
+     * @param valor the digit of the cell
+     * @param tecnica the technique that deduces it, or null if it is only revealed from the solution
+     */
+    Pista(int fila, int columna, int valor, Tecnica tecnica) {
+        this.fila = fila;
+        this.columna = columna;
+        this.valor = valor;
+        this.tecnica = tecnica;
+    }
+
+    /**
+     * Gets the row of the cell.
+     *
+     * @return the row index.
+     */
+    public int getFila() {
+        return fila;
+    }
+
+    /**
+     * Gets the column of the cell.
+     *
+     * @return the column index.
+     */
+    public int getColumna() {
+        return columna;
+    }
+
+    /**
+     * Gets the digit of the cell.
+     *
+     * @return the digit to place.
+     */
+    public int getValor() {
+        return valor;
+    }
+
+    /**
+     * Gets the technique that deduces the digit.
+     *
+     * @return the technique, or null if no single step deduces the cell from
+     * the current board and the digit is taken from the solution.
+     */
+    public Tecnica getTecnica() {
+        return tecnica;
+    }
+
+    /**
+     * Checks whether the hint follows from the board by logic.
+     *
+     * @return true if a technique justifies the digit.
+     */
+    public boolean isDeducida() {
+        return tecnica != null;
+    }
+}
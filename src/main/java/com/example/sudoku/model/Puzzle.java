@@ -0,0 +1,73 @@
+package com.example.sudoku.model;
+
+/**
+ * Immutable generated puzzle: the clues shown to the player and its unique solution.
+ */
+public final class Puzzle {
+    private final byte[] tablero;
+    private final byte[] solucion;
+
+    /**
+     * Creates a puzzle from copies of the given boards.
+     *
+     * @param tablero the clues, row-major, with 0 for empty cells
+     * @param solucion the complete solution, row-major
+     */
+    public Puzzle(byte[] tablero, byte[] solucion) {
+        this.tablero = tablero.clone();
+        this.solucion = solucion.clone();
+    }
+
+    /**
+     * Gets the clues of the puzzle.
+     *
+     * @return a copy of the board with the clues.
+     */
+    public byte[] getTablero() {
+        return tablero.clone();
+    }
+
+    /**
+     * Gets the solution of the puzzle.
+     *
+     * @return a copy of the solved board.
+     */
+    public byte[] getSolucion() {
+        return solucion.clone();
+    }
+
+    /**
+     * Gets the clues without copying them, for the engine to load the puzzle.
+     * Callers must not modify the array.
+     *
+     * @return the board with the clues.
+     */
+    byte[] tablero() {
+        return tablero;
+    }
+
+    /**
+     * Gets the solution without copying it, for the engine to load the puzzle.
+     * Callers must not modify the array.
+     *
+     * @return the solved board.
+     */
+    byte[] solucion() {
+        return solucion;
+    }
+
+    /**
+     * Counts the clues of the puzzle.
+     *
+     * @return the number of non-empty cells.
+     */
+    public int getPistas() {
+        int pistas = 0;
+        for (byte valor : tablero) {
+            if (valor != 0) {
+                pistas++;
+            }
+        }
+        return pistas;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.sudoku.model;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Least-recently-used cache of the puzzles generated from a seed, for one board
+ * size. Since {@link Sudoku#generarPuzzle(long)} is deterministic, a puzzle is
+ * fully identified by its seed: a daily puzzle or a shared game only needs the
+ * number, and the puzzle is regenerated when it is not cached.
+ * <p>
+ * Concurrent requests for the same seed wait for a single generation instead of
+ * repeating it.
+ */
+public class PuzzleCache {
+    private static final int CAPACIDAD_POR_DEFECTO = 256;
+
+    private static final Map<BoardGeometry, PuzzleCache> COMPARTIDOS = new HashMap<>();
+
+    private final BoardGeometry geometria;
+    private final Map<Long, FutureTask<Puzzle>> entradas;
+    private long aciertos;
+    private long fallos;
+
+    /**
+     * Creates an empty cache of 6x6 puzzles.
+     *
+     * @param capacidad the maximum number of puzzles kept
+     */
+    public PuzzleCache(int capacidad) {
+        this(BoardGeometry.TABLERO_6X6, capacidad);
+    }
+
+    /**
+     * Creates an empty cache of puzzles of one size.
+     *
+     * @param geometria the size of the puzzles
+     * @param capacidad the maximum number of puzzles kept
+     */
+    public PuzzleCache(BoardGeometry geometria, int capacidad) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser al menos 1");
+        }
+        this.geometria = geometria;
+        // Orden de acceso: el primero es siempre el menos usado recientemente
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, FutureTask<Puzzle>> eldest) {
+                return size() > capacidad;
+            }
+        };
+    }
+
+    /**
+     * Gets the cache of a board size shared by the application, creating it on
+     * first use. Its capacity can be set with the {@code sudoku.cache.capacidad}
+     * system property.
+     *
+     * @param geometria the size of the puzzles
+     * @return the shared cache of that size.
+     */
+    public static synchronized PuzzleCache getCompartido(BoardGeometry geometria) {
+        return COMPARTIDOS.computeIfAbsent(geometria, g -> new PuzzleCache(
+                g, Integer.getInteger("sudoku.cache.capacidad", CAPACIDAD_POR_DEFECTO)));
+    }
+
+    /**
+     * Gets the seed of the puzzle of a day, the same for every player.
+     *
+     * @param fecha the day
+     * @return the seed of that day.
+     */
+    public static long semillaDelDia(LocalDate fecha) {
+        // Mezclar el número de día para que días seguidos no den semillas seguidas
+        long z = fecha.toEpochDay() * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Gets the puzzle of a seed, generating it on the calling thread if it is
+     * not cached.
+     *
+     * @param semilla the seed of the puzzle
+     * @return the puzzle of that seed.
+     */
+    public Puzzle obtener(long semilla) {
+        FutureTask<Puzzle> tarea;
+        boolean generar = false;
+        synchronized (entradas) {
+            tarea = entradas.get(semilla);
+            if (tarea == null) {
+                tarea = new FutureTask<>(() -> new Sudoku(geometria).generarPuzzle(semilla));
+                entradas.put(semilla, tarea);
+                generar = true;
+                fallos++;
+            } else {
+                aciertos++;
+            }
+        }
+        if (generar) {
+            tarea.run(); // La generación ocurre fuera del candado
+        }
+        try {
+            return tarea.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando el puzzle " + semilla, e);
+        } catch (ExecutionException e) {
+            synchronized (entradas) {
+                entradas.remove(semilla, tarea); // No guardar generaciones fallidas
+            }
+            throw new IllegalStateException("No se pudo generar el puzzle " + semilla, e.getCause());
+        }
+    }
+
+    /**
+     * Gets the number of puzzles currently cached.
+     *
+     * @return the size of the cache.
+     */
+    public int tamano() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+
+    /**
+     * Gets the number of requests served from the cache.
+     *
+     * @return the number of hits.
+     */
+    public long getAciertos() {
+        synchronized (entradas) {
+            return aciertos;
+        }
+    }
+
+    /**
+     * Gets the number of requests that had to generate the puzzle.
+     *
+     * @return the number of misses.
+     */
+    public long getFallos() {
+        synchronized (entradas) {
+            return fallos;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.sudoku.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Read-only catalog of vetted puzzles stored as fixed-size binary records and
+ * accessed through a memory-mapped file, so a puzzle can be loaded by record
+ * number without reading the rest of the file.
+ * <p>
+ * The file starts with a 32 byte header (magic, version, record size and record
+ * count) followed by 24 byte records: the packed solution (high and low word)
+ * and the metadata word described in {@link PuzzleCodec}.
+ */
+public class PuzzleCatalog implements AutoCloseable {
+    /** Magic number at the start of every catalog ("SDK6"). */
+    public static final int MAGICO = 0x53444B36;
+    /** Version of the file format. */
+    public static final int VERSION = 1;
+    /** Size of the header in bytes. */
+    public static final int TAMANO_CABECERA = 32;
+    /** Size of each record in bytes. */
+    public static final int TAMANO_REGISTRO = 24;
+
+    private final FileChannel canal;
+    private final MappedByteBuffer datos;
+    private final int total;
+    private int[][] indicePistas;       // Registros agrupados por número de pistas
+    private int[][] indiceDificultad;   // Registros agrupados por dificultad
+
+    /**
+     * Opens and maps a catalog file.
+     *
+     * @param canal the open channel
+     * @param datos the mapped contents of the file
+     * @param total the number of records
+     */
+    private PuzzleCatalog(FileChannel canal, MappedByteBuffer datos, int total) {
+        this.canal = canal;
+        this.datos = datos;
+        this.total = total;
+    }
+
+    /**
+     * Opens a catalog file for reading.
+     *
+     * @param archivo the catalog file
+     * @return the opened catalog.
+     * @throws IOException if the file cannot be read or is not a valid catalog.
+     */
+    public static PuzzleCatalog abrir(Path archivo) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        try {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("El catálogo supera el tamaño máximo mapeable: " + archivo);
+            }
+            MappedByteBuffer datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (datos.capacity() < TAMANO_CABECERA || datos.getInt(0) != MAGICO) {
+                throw new IOException("No es un catálogo de Sudoku: " + archivo);
+            }
+            if (datos.getInt(4) != VERSION || datos.getInt(8) != TAMANO_REGISTRO) {
+                throw new IOException("Versión de catálogo no soportada: " + archivo);
+            }
+            long total = datos.getLong(16);
+            if (total < 0 || total > Integer.MAX_VALUE) {
+                throw new IOException("Número de registros no válido (" + total + "): " + archivo);
+            }
+            if (TAMANO_CABECERA + total * TAMANO_REGISTRO > datos.capacity()) {
+                throw new IOException("Catálogo truncado: " + archivo);
+            }
+            return new PuzzleCatalog(canal, datos, (int) total);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of puzzles in the catalog.
+     *
+     * @return the record count.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Reads a puzzle by record number.
+     *
+     * @param registro the record number, from 0
+     * @return the decoded puzzle.
+     */
+    public Puzzle leer(int registro) {
+        int offset = offset(registro);
+        return PuzzleCodec.decodificar(datos.getLong(offset), datos.getLong(offset + 8), datos.getLong(offset + 16));
+    }
+
+    /**
+     * Gets the number of clues of a record without decoding it.
+     *
+     * @param registro the record number, from 0
+     * @return the clue count.
+     */
+    public int getPistas(int registro) {
+        return PuzzleCodec.numeroPistas(datos.getLong(offset(registro) + 16));
+    }
+
+    /**
+     * Gets the difficulty of a record without decoding it.
+     *
+     * @param registro the record number, from 0
+     * @return the difficulty, 0 if unknown.
+     */
+    public int getDificultad(int registro) {
+        return PuzzleCodec.dificultad(datos.getLong(offset(registro) + 16));
+    }
+
+    /**
+     * Gets the records with the given number of clues. The index is built on the
+     * first call by scanning the metadata of every record.
+     *
+     * @param pistas the clue count
+     * @return the matching record numbers in ascending order.
+     */
+    public synchronized int[] registrosConPistas(int pistas) {
+        if (indicePistas == null) {
+            indicePistas = indexar(true);
+        }
+        return pistas < 0 || pistas >= indicePistas.length ? new int[0] : indicePistas[pistas].clone();
+    }
+
+    /**
+     * Gets the records with the given difficulty. The index is built on the first
+     * call by scanning the metadata of every record.
+     *
+     * @param dificultad the difficulty
+     * @return the matching record numbers in ascending order.
+     */
+    public synchronized int[] registrosConDificultad(int dificultad) {
+        if (indiceDificultad == null) {
+            indiceDificultad = indexar(false);
+        }
+        return dificultad < 0 || dificultad >= indiceDificultad.length ? new int[0] : indiceDificultad[dificultad].clone();
+    }
+
+    /**
+     * Groups the record numbers by clue count or by difficulty.
+     *
+     * @param porPistas true to group by clue count, false to group by difficulty
+     * @return for each key, the record numbers that have it.
+     */
+    private int[][] indexar(boolean porPistas) {
+        int[] claves = new int[total];
+        int[] conteo = new int[256];
+        for (int registro = 0; registro < total; registro++) {
+            claves[registro] = porPistas ? getPistas(registro) : getDificultad(registro);
+            conteo[claves[registro]]++;
+        }
+        int[][] indice = new int[256][];
+        for (int clave = 0; clave < indice.length; clave++) {
+            indice[clave] = new int[conteo[clave]];
+        }
+        Arrays.fill(conteo, 0);
+        for (int registro = 0; registro < total; registro++) {
+            int clave = claves[registro];
+            indice[clave][conteo[clave]++] = registro;
+        }
+        return indice;
+    }
+
+    /**
+     * Computes the position of a record in the file.
+     *
+     * @param registro the record number
+     * @return the byte offset of the record.
+     */
+    private int offset(int registro) {
+        if (registro < 0 || registro >= total) {
+            throw new IndexOutOfBoundsException("Registro fuera del catálogo: " + registro);
+        }
+        return TAMANO_CABECERA + registro * TAMANO_REGISTRO;
+    }
+
+    /**
+     * Closes the underlying file.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Writes a catalog file record by record. The record count in the header is
+     * filled in when the writer is closed.
+     */
+    public static class Escritor implements AutoCloseable {
+        private static final int REGISTROS_POR_BLOQUE = 4096;
+
+        private final FileChannel canal;
+        private final ByteBuffer bloque = ByteBuffer.allocate(TAMANO_REGISTRO * REGISTROS_POR_BLOQUE);
+        private long total;
+
+        /**
+         * Creates or truncates a catalog file.
+         *
+         * @param archivo the file to write
+         * @throws IOException if the file cannot be created.
+         */
+        public Escritor(Path archivo) throws IOException {
+            canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            canal.write(cabecera(0), 0);
+            canal.position(TAMANO_CABECERA);
+        }
+
+        /**
+         * Appends a puzzle of unknown difficulty.
+         *
+         * @param puzzle the puzzle to append
+         * @throws IOException if the record cannot be written.
+         */
+        public void agregar(Puzzle puzzle) throws IOException {
+            agregar(puzzle, 0);
+        }
+
+        /**
+         * Appends a puzzle.
+         *
+         * @param puzzle the puzzle to append
+         * @param dificultad the difficulty, from 0 (unknown) to 255
+         * @throws IOException if the record cannot be written.
+         * @throws IllegalArgumentException if the puzzle is not 6x6.
+         */
+        public void agregar(Puzzle puzzle, int dificultad) throws IOException {
+            byte[] solucion = puzzle.getSolucion();
+            if (solucion.length != PuzzleCodec.CELDAS) {
+                throw new IllegalArgumentException("El catálogo solo admite tableros 6x6");
+            }
+            bloque.putLong(PuzzleCodec.empaquetarAlto(solucion));
+            bloque.putLong(PuzzleCodec.empaquetarBajo(solucion));
+            bloque.putLong(PuzzleCodec.metadatos(puzzle.getTablero(), dificultad));
+            total++;
+            if (!bloque.hasRemaining()) {
+                vaciar();
+            }
+        }
+
+        /**
+         * Writes the buffered records to the file.
+         *
+         * @throws IOException if the records cannot be written.
+         */
+        private void vaciar() throws IOException {
+            bloque.flip();
+            while (bloque.hasRemaining()) {
+                canal.write(bloque);
+            }
+            bloque.clear();
+        }
+
+        /**
+         * Builds the header of the file.
+         *
+         * @param registros the record count
+         * @return the header, ready to be written.
+         */
+        private static ByteBuffer cabecera(long registros) {
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+            cabecera.putInt(MAGICO).putInt(VERSION).putInt(TAMANO_REGISTRO).putInt(0).putLong(registros).putLong(0);
+            return cabecera.flip();
+        }
+
+        /**
+         * Flushes the pending records, writes the final record count and closes the file.
+         *
+         * @throws IOException if the file cannot be written or closed.
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                vaciar();
+                canal.write(cabecera(total), 0);
+            } finally {
+                canal.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.sudoku.model;
+
+/**
+ * Packs 6x6 boards into two {@code long}s, 3 bits per cell. Cells 0 to 20 go to
+ * the low word and cells 21 to 35 to the high word, in row-major order.
+ * <p>
+ * A whole puzzle is stored as its packed solution plus a third word holding the
+ * clue mask (bit {@code i} set if cell {@code i} is a clue) in bits 0 to 35, the
+ * clue count in bits 40 to 47 and the difficulty in bits 48 to 55.
+ */
+public final class PuzzleCodec {
+    /** Number of cells of a board. */
+    public static final int CELDAS = 36;
+    private static final int BITS_POR_CELDA = 3;
+    private static final int CELDAS_BAJO = 21;
+    private static final long MASCARA_CELDA = 0b111L;
+    private static final long MASCARA_PISTAS = (1L << CELDAS) - 1;
+
+    private PuzzleCodec() {
+    }
+
+    /**
+     * Packs the cells 0 to 20 of a board.
+     *
+     * @param tablero the board, row-major
+     * @return the low word of the packed board.
+     */
+    public static long empaquetarBajo(byte[] tablero) {
+        long bajo = 0;
+        for (int i = CELDAS_BAJO - 1; i >= 0; i--) {
+            bajo = (bajo << BITS_POR_CELDA) | tablero[i];
+        }
+        return bajo;
+    }
+
+    /**
+     * Packs the cells 21 to 35 of a board.
+     *
+     * @param tablero the board, row-major
+     * @return the high word of the packed board.
+     */
+    public static long empaquetarAlto(byte[] tablero) {
+        long alto = 0;
+        for (int i = CELDAS - 1; i >= CELDAS_BAJO; i--) {
+            alto = (alto << BITS_POR_CELDA) | tablero[i];
+        }
+        return alto;
+    }
+
+    /**
+     * Unpacks a board into the given array.
+     *
+     * @param alto the high word
+     * @param bajo the low word
+     * @param destino the array to fill; must hold 36 elements
+     */
+    public static void desempaquetar(long alto, long bajo, byte[] destino) {
+        for (int i = 0; i < CELDAS_BAJO; i++) {
+            destino[i] = (byte) (bajo & MASCARA_CELDA);
+            bajo >>>= BITS_POR_CELDA;
+        }
+        for (int i = CELDAS_BAJO; i < CELDAS; i++) {
+            destino[i] = (byte) (alto & MASCARA_CELDA);
+            alto >>>= BITS_POR_CELDA;
+        }
+    }
+
+    /**
+     * Reads a single cell of a packed board.
+     *
+     * @param alto the high word
+     * @param bajo the low word
+     * @param indice the cell index, row-major
+     * @return the value of the cell.
+     */
+    public static int celda(long alto, long bajo, int indice) {
+        if (indice < CELDAS_BAJO) {
+            return (int) ((bajo >>> (indice * BITS_POR_CELDA)) & MASCARA_CELDA);
+        }
+        return (int) ((alto >>> ((indice - CELDAS_BAJO) * BITS_POR_CELDA)) & MASCARA_CELDA);
+    }
+
+    /**
+     * Builds the clue mask of a board.
+     *
+     * @param tablero the board, row-major
+     * @return a mask with bit {@code i} set if cell {@code i} is not empty.
+     */
+    public static long mascaraPistas(byte[] tablero) {
+        long mascara = 0;
+        for (int i = 0; i < CELDAS; i++) {
+            if (tablero[i] != 0) {
+                mascara |= 1L << i;
+            }
+        }
+        return mascara;
+    }
+
+    /**
+     * Builds the metadata word of a puzzle.
+     *
+     * @param tablero the clues of the puzzle
+     * @param dificultad the difficulty, from 0 (unknown) to 255
+     * @return the clue mask combined with the clue count and difficulty.
+     */
+    public static long metadatos(byte[] tablero, int dificultad) {
+        long mascara = mascaraPistas(tablero);
+        return mascara | ((long) Long.bitCount(mascara) << 40) | ((long) (dificultad & 0xFF) << 48);
+    }
+
+    /**
+     * Extracts the clue mask from a metadata word.
+     *
+     * @param metadatos the metadata word
+     * @return the clue mask.
+     */
+    public static long pistas(long metadatos) {
+        return metadatos & MASCARA_PISTAS;
+    }
+
+    /**
+     * Extracts the clue count from a metadata word.
+     *
+     * @param metadatos the metadata word
+     * @return the number of clues.
+     */
+    public static int numeroPistas(long metadatos) {
+        return (int) ((metadatos >>> 40) & 0xFF);
+    }
+
+    /**
+     * Extracts the difficulty from a metadata word.
+     *
+     * @param metadatos the metadata word
+     * @return the difficulty, 0 if unknown.
+     */
+    public static int dificultad(long metadatos) {
+        return (int) ((metadatos >>> 48) & 0xFF);
+    }
+
+    /**
+     * Rebuilds a puzzle from its packed solution and metadata.
+     *
+     * @param solucionAlto the high word of the solution
+     * @param solucionBajo the low word of the solution
+     * @param metadatos the metadata word
+     * @return the decoded puzzle.
+     */
+    public static Puzzle decodificar(long solucionAlto, long solucionBajo, long metadatos) {
+        byte[] solucion = new byte[CELDAS];
+        desempaquetar(solucionAlto, solucionBajo, solucion);
+        byte[] tablero = new byte[CELDAS];
+        long mascara = pistas(metadatos);
+        for (int i = 0; i < CELDAS; i++) {
+            if ((mascara & (1L << i)) != 0) {
+                tablero[i] = solucion[i];
+            }
+        }
+        return new Puzzle(tablero, solucion);
+    }
+
+    /**
+     * Formats a board as 36 digits in row-major order, with 0 for empty cells.
+     *
+     * @param tablero the board
+     * @return the text form of the board.
+     */
+    public static String aTexto(byte[] tablero) {
+        char[] texto = new char[CELDAS];
+        for (int i = 0; i < CELDAS; i++) {
+            texto[i] = (char) ('0' + tablero[i]);
+        }
+        return new String(texto);
+    }
+
+    /**
+     * Parses a board written as 36 digits; '.' is accepted for empty cells.
+     *
+     * @param texto the text form of the board
+     * @return the parsed board.
+     * @throws IllegalArgumentException if the text is not a valid board.
+     */
+    public static byte[] desdeTexto(String texto) {
+        if (texto.length() != CELDAS) {
+            throw new IllegalArgumentException("Se esperaban 36 celdas y hay " + texto.length());
+        }
+        byte[] tablero = new byte[CELDAS];
+        for (int i = 0; i < CELDAS; i++) {
+            char c = texto.charAt(i);
+            if (c == '.') {
+                continue;
+            }
+            if (c < '0' || c > '6') {
+                throw new IllegalArgumentException("Celda no válida en la posición " + i + ": " + c);
+            }
+            tablero[i] = (byte) (c - '0');
+        }
+        return tablero;
+    }
+}
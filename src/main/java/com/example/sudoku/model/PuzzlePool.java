@@ -0,0 +1,292 @@
+package com.example.sudoku.model;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Bounded pool of ready-made puzzles kept full by a background producer thread,
+ * so starting a new game only has to take one from the queue.
+ * <p>
+ * The producer fills the pool up to its depth and then sleeps until consumers
+ * drain it down to the low watermark, so it works in bursts instead of waking
+ * up for every puzzle taken.
+ * <p>
+ * Puzzles a player already got are set aside in a second bounded queue and
+ * handed first to the callers that do not filter, so they are not lost.
+ */
+public class PuzzlePool {
+    private static final int PROFUNDIDAD_POR_DEFECTO = 16;
+    private static final int MARCA_BAJA_POR_DEFECTO = 4;
+    private static final int REVISADOS_POR_TOMA = 4; // Puzzles de la cola que se miran como máximo al filtrar
+
+    private static final Map<BoardGeometry, Map<NivelDificultad, PuzzlePool>> COMPARTIDOS = new HashMap<>();
+
+    private final ArrayBlockingQueue<Puzzle> cola;
+    private final ArrayBlockingQueue<Puzzle> apartados; // Ya servidos a un jugador, para los demás
+    private final int profundidad;
+    private final int marcaBaja;
+    private final BoardGeometry geometria;
+    private final NivelDificultad nivel;
+    private final Object senal = new Object();
+    private final Thread productor;
+    private volatile boolean activo = true;
+
+    /**
+     * Creates a pool of puzzles of any difficulty and starts its producer thread.
+     *
+     * @param profundidad the maximum number of puzzles kept ready
+     * @param marcaBaja the number of puzzles at or below which the producer refills the pool
+     */
+    public PuzzlePool(int profundidad, int marcaBaja) {
+        this(profundidad, marcaBaja, null);
+    }
+
+    /**
+     * Creates a pool of 6x6 puzzles of one difficulty band and starts its producer thread.
+     *
+     * @param profundidad the maximum number of puzzles kept ready
+     * @param marcaBaja the number of puzzles at or below which the producer refills the pool
+     * @param nivel the difficulty band of the puzzles, or null for any difficulty
+     */
+    public PuzzlePool(int profundidad, int marcaBaja, NivelDificultad nivel) {
+        this(profundidad, marcaBaja, BoardGeometry.TABLERO_6X6, nivel);
+    }
+
+    /**
+     * Creates a pool of puzzles of one size and difficulty band and starts its
+     * producer thread.
+     *
+     * @param profundidad the maximum number of puzzles kept ready
+     * @param marcaBaja the number of puzzles at or below which the producer refills the pool
+     * @param geometria the size of the puzzles
+     * @param nivel the difficulty band of the puzzles, or null for any difficulty
+     * @throws IllegalArgumentException if the depths are not valid or the band
+     * cannot be reached on boards of that size.
+     */
+    public PuzzlePool(int profundidad, int marcaBaja, BoardGeometry geometria, NivelDificultad nivel) {
+        if (profundidad < 1 || marcaBaja < 0 || marcaBaja >= profundidad) {
+            throw new IllegalArgumentException("Se requiere 0 <= marcaBaja < profundidad y profundidad >= 1");
+        }
+        if (nivel != null && !geometria.getNiveles().contains(nivel)) {
+            throw new IllegalArgumentException("Los tableros " + geometria + " no alcanzan el nivel " + nivel);
+        }
+        this.profundidad = profundidad;
+        this.marcaBaja = marcaBaja;
+        this.geometria = geometria;
+        this.nivel = nivel;
+        this.cola = new ArrayBlockingQueue<>(profundidad);
+        this.apartados = new ArrayBlockingQueue<>(profundidad);
+        this.productor = new Thread(this::producir, "sudoku-puzzle-pool-" + geometria + (nivel != null ? "-" + nivel : ""));
+        this.productor.setDaemon(true); // No impide que la aplicación termine
+        this.productor.setPriority(Thread.MIN_PRIORITY); // Solo una sugerencia: en Linux no suele tener efecto
+        this.productor.start();
+    }
+
+    /**
+     * Gets the pool of 6x6 puzzles of a difficulty band shared by the application.
+     *
+     * @param nivel the difficulty band
+     * @return the shared pool of that band.
+     */
+    public static PuzzlePool getCompartido(NivelDificultad nivel) {
+        return getCompartido(BoardGeometry.TABLERO_6X6, nivel);
+    }
+
+    /**
+     * Gets the pool of a board size and difficulty band shared by the application,
+     * creating it on first use. Its depth and low watermark can be set with the
+     * {@code sudoku.pool.profundidad} and {@code sudoku.pool.marcaBaja} system properties.
+     *
+     * @param geometria the size of the puzzles
+     * @param nivel the difficulty band
+     * @return the shared pool of that size and band.
+     * @throws IllegalArgumentException if the band cannot be reached on boards of that size.
+     */
+    public static synchronized PuzzlePool getCompartido(BoardGeometry geometria, NivelDificultad nivel) {
+        return COMPARTIDOS.computeIfAbsent(geometria, g -> new EnumMap<>(NivelDificultad.class))
+                .computeIfAbsent(nivel, n -> new PuzzlePool(
+                        Integer.getInteger("sudoku.pool.profundidad", PROFUNDIDAD_POR_DEFECTO),
+                        Integer.getInteger("sudoku.pool.marcaBaja", MARCA_BAJA_POR_DEFECTO),
+                        geometria, n));
+    }
+
+    /**
+     * Creates the shared pool of the size and band the first screen offers by
+     * default, 6x6 and easy, so its producer starts filling it in the
+     * background. The pools of the other sizes and bands are created when the
+     * player first picks them; warming them all at startup would run one
+     * producer per combination at once.
+     */
+    public static void precalentar() {
+        getCompartido(BoardGeometry.TABLERO_6X6, NivelDificultad.FACIL);
+    }
+
+    /**
+     * Takes a puzzle from the pool. If the pool is empty the puzzle is generated
+     * on the calling thread so the caller never waits for the producer; callers
+     * that must not block for a generation, such as the JavaFX thread, should
+     * use {@link #esperar()} from a background thread instead.
+     *
+     * @return a new puzzle.
+     */
+    public Puzzle tomar() {
+        Puzzle puzzle = tomarListo();
+        if (puzzle == null) {
+            puzzle = generarEnBanda(new Sudoku(geometria)); // Pool vacío: generar aquí
+        }
+        return puzzle;
+    }
+
+    /**
+     * Takes a puzzle from the pool, waiting for the producer if it is empty.
+     *
+     * @return a new puzzle.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public Puzzle esperar() throws InterruptedException {
+        Puzzle puzzle = tomarListo();
+        return puzzle != null ? puzzle : cola.take();
+    }
+
+    /**
+     * Takes a puzzle set aside or from the queue, without waiting, and wakes the
+     * producer if the queue dropped to the low watermark.
+     *
+     * @return a ready puzzle, or null if there is none.
+     */
+    private Puzzle tomarListo() {
+        Puzzle puzzle = apartados.poll();
+        if (puzzle == null) {
+            puzzle = cola.poll();
+        }
+        despertarSiHaceFalta();
+        return puzzle;
+    }
+
+    /**
+     * Wakes the producer if the queue dropped to the low watermark.
+     */
+    private void despertarSiHaceFalta() {
+        if (cola.size() <= marcaBaja) {
+            synchronized (senal) {
+                senal.notifyAll(); // Despierta al productor para rellenar
+            }
+        }
+    }
+
+    /**
+     * Takes a puzzle that was not served to a player yet, up to symmetry, and
+     * marks it as served. At most a few puzzles of the queue are checked, so a
+     * take costs a bounded number of symmetry hashes; those the player already
+     * got are set aside for other callers. If none of them is new, one is
+     * generated on the calling thread avoiding the served ones, so this should
+     * not be called from the JavaFX thread.
+     *
+     * @param servidos the filter of the puzzles served to the player
+     * @return a new puzzle for that player.
+     * @throws IllegalStateException if the pool is not 6x6, the only size with a canonical form.
+     */
+    public Puzzle tomar(ServedPuzzleFilter servidos) {
+        if (geometria != BoardGeometry.TABLERO_6X6) {
+            throw new IllegalStateException("El filtro de puzzles servidos solo admite tableros 6x6");
+        }
+        Puzzle elegido = null;
+        for (int revisados = 0; revisados < REVISADOS_POR_TOMA && elegido == null; revisados++) {
+            Puzzle puzzle = cola.poll();
+            if (puzzle == null) {
+                break;
+            }
+            if (servidos.agregar(puzzle.getTablero())) {
+                elegido = puzzle;
+            } else if (!apartados.offer(puzzle)) {
+                // Apartados llenos: el más antiguo deja sitio, así lo que queda apartado es lo más reciente
+                apartados.poll();
+                apartados.offer(puzzle);
+            }
+        }
+        despertarSiHaceFalta();
+        if (elegido == null) {
+            Sudoku generador = new Sudoku(geometria);
+            generador.setFiltroServidos(servidos); // Genera aquí evitando los ya servidos
+            elegido = generarEnBanda(generador);
+        }
+        return elegido;
+    }
+
+    /**
+     * Gets the number of puzzles currently ready.
+     *
+     * @return the size of the pool, including the puzzles set aside.
+     */
+    public int disponibles() {
+        return cola.size() + apartados.size();
+    }
+
+    /**
+     * Stops the producer thread. Puzzles already in the pool can still be taken.
+     */
+    public void detener() {
+        activo = false;
+        productor.interrupt();
+    }
+
+    /**
+     * Producer loop: refills the pool up to its depth, then waits until it drops
+     * to the low watermark.
+     */
+    private void producir() {
+        Sudoku generador = new Sudoku(geometria);
+        try {
+            while (activo) {
+                while (activo && cola.size() < profundidad) {
+                    Puzzle puzzle = generar(generador);
+                    if (puzzle != null) {
+                        cola.put(puzzle);
+                    }
+                }
+                synchronized (senal) {
+                    while (activo && cola.size() > marcaBaja) {
+                        senal.wait();
+                    }
+                }
+            }
+        } catch (InterruptedException | CancellationException e) {
+            // Salida ordenada al detener el pool: la interrupción también cancela el solver a mitad de generación
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Generates one puzzle of the band of this pool, retrying until the
+     * generation reaches the band.
+     *
+     * @param generador the Sudoku used to generate
+     * @return the generated puzzle.
+     */
+    private Puzzle generarEnBanda(Sudoku generador) {
+        Puzzle puzzle = generar(generador);
+        while (puzzle == null) {
+            puzzle = generar(generador);
+        }
+        return puzzle;
+    }
+
+    /**
+     * Generates one puzzle and keeps it only if it falls in the band of this
+     * pool; the closest puzzle the generator falls back to when its time budget
+     * runs out belongs to another band and must not be served as this one.
+     *
+     * @param generador the Sudoku used to generate
+     * @return the generated puzzle, or null if it missed the band.
+     */
+    private Puzzle generar(Sudoku generador) {
+        if (nivel == null) {
+            return generador.generarPuzzle();
+        }
+        Puzzle puzzle = generador.generarPuzzle(nivel);
+        return generador.getUltimaGeneracion().isObjetivoAlcanzado() ? puzzle : null;
+    }
+}
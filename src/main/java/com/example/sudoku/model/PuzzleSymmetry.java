@@ -0,0 +1,169 @@
+package com.example.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Canonical form of 6x6 puzzles under the symmetries that keep a puzzle the
+ * same to a player: relabeling the digits, swapping the three bands, swapping
+ * the two rows inside a band, swapping the two stacks and permuting the three
+ * columns inside a stack. That is 6 x 8 x 2 x 36 = 3456 geometric transforms,
+ * each combined with the digit relabeling that makes it smallest.
+ * <p>
+ * The canonical form is the lexicographically smallest board of the orbit,
+ * with empty cells as 0. Two boards are equivalent exactly when their canonical
+ * forms are equal, and {@link #hash(byte[])} condenses it into 64 bits.
+ */
+public final class PuzzleSymmetry {
+    /** Number of geometric transforms of a 6x6 board. */
+    public static final int TRANSFORMACIONES = 3456;
+
+    private static final int TAMANO = 6;
+    private static final int[][] ORDENES_FILAS = ordenesFilas();       // 48 órdenes de filas
+    private static final int[][] ORDENES_COLUMNAS = ordenesColumnas(); // 72 órdenes de columnas
+
+    private PuzzleSymmetry() {
+    }
+
+    /**
+     * Computes the canonical form of a 6x6 board.
+     *
+     * @param tablero the board, row-major, with 0 for empty cells
+     * @return the smallest equivalent board.
+     * @throws IllegalArgumentException if the board is not 6x6.
+     */
+    public static byte[] canonica(byte[] tablero) {
+        if (tablero.length != PuzzleCodec.CELDAS) {
+            throw new IllegalArgumentException("La forma canónica solo existe para tableros 6x6");
+        }
+        byte[] mejor = new byte[PuzzleCodec.CELDAS];
+        byte[] candidato = new byte[PuzzleCodec.CELDAS];
+        int[] etiquetas = new int[TAMANO + 1];
+        boolean hayMejor = false;
+        for (int[] filas : ORDENES_FILAS) {
+            for (int[] columnas : ORDENES_COLUMNAS) {
+                if (transformar(tablero, filas, columnas, candidato, etiquetas, hayMejor ? mejor : null)) {
+                    System.arraycopy(candidato, 0, mejor, 0, mejor.length);
+                    hayMejor = true;
+                }
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Computes a 64-bit hash of the canonical form of a board, equal for every
+     * equivalent board.
+     *
+     * @param tablero the board, row-major, with 0 for empty cells
+     * @return the hash of the canonical form.
+     */
+    public static long hash(byte[] tablero) {
+        byte[] canonica = canonica(tablero);
+        long z = PuzzleCodec.empaquetarAlto(canonica) * 0x9E3779B97F4A7C15L + PuzzleCodec.empaquetarBajo(canonica);
+        // Mezcla final de SplitMix64
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Checks whether two boards are the same puzzle up to symmetry.
+     *
+     * @param a the first board
+     * @param b the second board
+     * @return true if both have the same canonical form.
+     */
+    public static boolean equivalentes(byte[] a, byte[] b) {
+        return Arrays.equals(canonica(a), canonica(b));
+    }
+
+    /**
+     * Applies one geometric transform, relabels the digits in order of first
+     * appearance and compares the result with the best board so far, giving up
+     * as soon as it becomes larger.
+     *
+     * @param tablero the original board
+     * @param filas the source row of each target row
+     * @param columnas the source column of each target column
+     * @param destino the array that receives the transformed board
+     * @param etiquetas scratch space for the relabeling
+     * @param mejor the smallest board so far, or null if there is none
+     * @return true if the transformed board is smaller than {@code mejor}.
+     */
+    private static boolean transformar(byte[] tablero, int[] filas, int[] columnas, byte[] destino,
+                                       int[] etiquetas, byte[] mejor) {
+        Arrays.fill(etiquetas, 0);
+        int siguiente = 1;
+        boolean menor = mejor == null; // Ya es estrictamente menor que el mejor
+        int i = 0;
+        for (int row = 0; row < TAMANO; row++) {
+            int base = filas[row] * TAMANO;
+            for (int col = 0; col < TAMANO; col++, i++) {
+                int valor = tablero[base + columnas[col]];
+                if (valor != 0) {
+                    if (etiquetas[valor] == 0) {
+                        etiquetas[valor] = siguiente++;
+                    }
+                    valor = etiquetas[valor];
+                }
+                if (!menor) {
+                    if (valor > mejor[i]) {
+                        return false; // Ya es mayor: descartar esta transformación
+                    }
+                    menor = valor < mejor[i];
+                }
+                destino[i] = (byte) valor;
+            }
+        }
+        return menor;
+    }
+
+    /**
+     * Builds the 48 row orders: any order of the three bands times a swap or not
+     * of the two rows of each band.
+     *
+     * @return the source row of each target row, per order.
+     */
+    private static int[][] ordenesFilas() {
+        int[][] bandas = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+        int[][] ordenes = new int[48][TAMANO];
+        int n = 0;
+        for (int[] banda : bandas) {
+            for (int cambios = 0; cambios < 8; cambios++) {
+                for (int b = 0; b < 3; b++) {
+                    boolean cambiar = (cambios & (1 << b)) != 0;
+                    ordenes[n][2 * b] = 2 * banda[b] + (cambiar ? 1 : 0);
+                    ordenes[n][2 * b + 1] = 2 * banda[b] + (cambiar ? 0 : 1);
+                }
+                n++;
+            }
+        }
+        return ordenes;
+    }
+
+    /**
+     * Builds the 72 column orders: either order of the two stacks times any
+     * order of the three columns of each stack.
+     *
+     * @return the source column of each target column, per order.
+     */
+    private static int[][] ordenesColumnas() {
+        int[][] tres = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+        int[][] ordenes = new int[72][TAMANO];
+        int n = 0;
+        for (int pilas = 0; pilas < 2; pilas++) {
+            for (int[] primera : tres) {
+                for (int[] segunda : tres) {
+                    int izquierda = pilas == 0 ? 0 : 3;
+                    int derecha = 3 - izquierda;
+                    for (int k = 0; k < 3; k++) {
+                        ordenes[n][k] = izquierda + primera[k];
+                        ordenes[n][3 + k] = derecha + segunda[k];
+                    }
+                    n++;
+                }
+            }
+        }
+        return ordenes;
+    }
+}
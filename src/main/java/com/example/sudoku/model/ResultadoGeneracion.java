@@ -0,0 +1,82 @@
+package com.example.sudoku.model;
+
+/**
+ * Report of a difficulty-targeted generation: the band requested, the band
+ * obtained, how many complete grids were tried and how long it took.
+ */
+public final class ResultadoGeneracion {
+    private final NivelDificultad objetivo;
+    private final NivelDificultad obtenido;
+    private final int intentos;
+    private final long nanos;
+
+    /**
+     * Creates a generation report.
+     *
+     * @param objetivo the band requested
+     * @param obtenido the band of the puzzle finally loaded
+     * @param intentos the number of complete grids tried
+     * @param nanos the time spent, in nanoseconds
+     */
+    ResultadoGeneracion(NivelDificultad objetivo, NivelDificultad obtenido, int intentos, long nanos) {
+        this.objetivo = objetivo;
+        this.obtenido = obtenido;
+        this.intentos = intentos;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Gets the band that was requested.
+     *
+     * @return the target band.
+     */
+    public NivelDificultad getObjetivo() {
+        return objetivo;
+    }
+
+    /**
+     * Gets the band of the puzzle that was loaded.
+     *
+     * @return the band obtained; it differs from the target when the time budget ran out.
+     */
+    public NivelDificultad getObtenido() {
+        return obtenido;
+    }
+
+    /**
+     * Checks whether the loaded puzzle matches the requested band.
+     *
+     * @return true if the target was reached, false if the fallback was used.
+     */
+    public boolean isObjetivoAlcanzado() {
+        return objetivo == obtenido;
+    }
+
+    /**
+     * Gets the number of complete grids tried.
+     *
+     * @return the number of attempts.
+     */
+    public int getIntentos() {
+        return intentos;
+    }
+
+    /**
+     * Gets the time spent generating.
+     *
+     * @return the latency in nanoseconds.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Formats the report for logs.
+     *
+     * @return a one-line description of the generation.
+     */
+    @Override
+    public String toString() {
+        return String.format("objetivo=%s obtenido=%s intentos=%d latencia=%.2fms", objetivo, obtenido, intentos, nanos / 1e6);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.sudoku.model;
+
+/**
+ * Bloom filter of the puzzles already served to one player, keyed by the
+ * symmetry hash of {@link PuzzleSymmetry}, so a relabeled or reordered copy of
+ * a served puzzle also counts as served. It never forgets a served puzzle and
+ * may, with the configured probability, report an unseen one as served; it
+ * stores a few bits per puzzle instead of whole boards.
+ */
+public class ServedPuzzleFilter {
+    private static final double FALSOS_POSITIVOS_POR_DEFECTO = 0.01;
+
+    private final long[] bits;
+    private final int totalBits;
+    private final int funciones; // Número de posiciones marcadas por puzzle
+    private int agregados;
+
+    /**
+     * Creates a filter sized for the given number of puzzles with a 1% false
+     * positive rate.
+     *
+     * @param capacidad the number of puzzles expected
+     */
+    public ServedPuzzleFilter(int capacidad) {
+        this(capacidad, FALSOS_POSITIVOS_POR_DEFECTO);
+    }
+
+    /**
+     * Creates a filter sized for the given number of puzzles and false positive rate.
+     *
+     * @param capacidad the number of puzzles expected
+     * @param falsosPositivos the wanted probability of reporting an unseen puzzle as served
+     */
+    public ServedPuzzleFilter(int capacidad, double falsosPositivos) {
+        if (capacidad < 1 || falsosPositivos <= 0 || falsosPositivos >= 1) {
+            throw new IllegalArgumentException("Se requiere capacidad >= 1 y 0 < falsosPositivos < 1");
+        }
+        double ln2 = Math.log(2);
+        int m = (int) Math.ceil(-capacidad * Math.log(falsosPositivos) / (ln2 * ln2));
+        this.bits = new long[(m + 63) / 64];
+        this.totalBits = bits.length * 64;
+        this.funciones = Math.max(1, (int) Math.round((double) totalBits / capacidad * ln2));
+    }
+
+    /**
+     * Checks whether a puzzle, or an equivalent one, may have been served.
+     *
+     * @param tablero the clues of the puzzle
+     * @return false if the puzzle was surely not served.
+     */
+    public boolean contiene(byte[] tablero) {
+        return contieneHash(PuzzleSymmetry.hash(tablero));
+    }
+
+    /**
+     * Marks a puzzle as served.
+     *
+     * @param tablero the clues of the puzzle
+     * @return true if the puzzle was not marked before.
+     */
+    public boolean agregar(byte[] tablero) {
+        return agregarHash(PuzzleSymmetry.hash(tablero));
+    }
+
+    /**
+     * Checks whether a symmetry hash may have been added.
+     *
+     * @param hash the symmetry hash of a puzzle
+     * @return false if the hash was surely not added.
+     */
+    public synchronized boolean contieneHash(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < funciones; i++) {
+            int bit = Math.floorMod(h1 + i * h2, totalBits);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds a symmetry hash to the filter.
+     *
+     * @param hash the symmetry hash of a puzzle
+     * @return true if some of its bits were not set, so it was not added before.
+     */
+    public synchronized boolean agregarHash(long hash) {
+        // Doble hash: las posiciones son h1 + i * h2 (Kirsch y Mitzenmacher)
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        boolean nuevo = false;
+        for (int i = 0; i < funciones; i++) {
+            int bit = Math.floorMod(h1 + i * h2, totalBits);
+            long mascara = 1L << bit;
+            if ((bits[bit >>> 6] & mascara) == 0) {
+                bits[bit >>> 6] |= mascara;
+                nuevo = true;
+            }
+        }
+        if (nuevo) {
+            agregados++;
+        }
+        return nuevo;
+    }
+
+    /**
+     * Gets the number of puzzles added.
+     *
+     * @return the number of distinct puzzles marked as served.
+     */
+    public synchronized int getAgregados() {
+        return agregados;
+    }
+}
@@ -1,23 +1,163 @@
 package com.example.sudoku.model;
 
-import javafx.scene.control.Alert;
+import com.example.sudoku.model.solver.BacktrackingSolver;
+import com.example.sudoku.model.solver.DancingLinksSolver;
+import com.example.sudoku.model.solver.SudokuSolver;
+
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * Class representing the Sudoku game logic.
+ * <p>
+ * The size of the board is given by a {@link BoardGeometry}; 6x6 is the default.
  */
 public class Sudoku implements ISudoku {
-    private List<List<Integer>> tableSudoku;
-    private List<int[]> posicionesAyuda; // Almacena pares [fila, columna, valor]
+    private static final long PRESUPUESTO_POR_DEFECTO_MS = 250; // Tiempo máximo para buscar una dificultad
+    private static final int REINSERCIONES_POR_INTENTO = 8;     // Pistas devueltas al tablero antes de cambiar de cuadrícula
+    private static final int INTENTOS_SIN_REPETIR = 16;         // Puzzles generados como máximo para evitar uno ya servido
+
+    private final BoardGeometry geometria;
+    private final int tamano;               // Filas, columnas, bloques y dígitos del tablero
+    private final byte[] celdas;            // Valores del tablero, 0 = vacía
+    private final int[] mascaraFilas;       // Bit n = dígito n presente en la fila
+    private final int[] mascaraColumnas;    // Bit n = dígito n presente en la columna
+    private final int[] mascaraBloques;     // Bit n = dígito n presente en el bloque
+    private final byte[] conteoFilas;       // Veces que aparece cada dígito por fila
+    private final byte[] conteoColumnas;    // Veces que aparece cada dígito por columna
+    private final byte[] conteoBloques;     // Veces que aparece cada dígito por bloque
+    private final boolean[] enConflicto;    // Celdas cuyo dígito se repite en alguna unidad
+    private final boolean[] esPista;        // Celdas dadas por el puzzle
+    private final int[] notas;              // Bit n = dígito n anotado por el jugador en la celda
+    private int celdasLlenas;
+    private int conflictos;
+    private final byte[] solucion;       // Solución del puzzle actual, 0 si no hay
+    private final List<SudokuListener> listeners = new ArrayList<>();
+    private RandomGenerator random;
+    private final byte[] trabajo; // Copia para el solver
+    private final int[] orden;    // Orden de visita de las celdas al quitar pistas
+    private final int[] pistasPorBloque;
+    private final byte[] mejorTablero;   // Mejor intento de la generación por dificultad
+    private final byte[] mejorSolucion;
+    private SudokuSolver solver;
+    private final DifficultyGrader grader;
+    private ResultadoGeneracion ultimaGeneracion;
+    private ServedPuzzleFilter servidos; // Puzzles ya servidos al jugador, o null
+    private final MoveLog historial = new MoveLog(); // Jugadas que se pueden deshacer y rehacer
 
     /**
-     * Initializes a new Sudoku game with an empty board.
+     * Initializes a new 6x6 Sudoku game with an empty board.
      */
     public Sudoku() {
-        this.tableSudoku = new ArrayList<>();
+        this(BoardGeometry.TABLERO_6X6);
+    }
+
+    /**
+     * Initializes a new Sudoku game with an empty board of the given size. Boards
+     * up to 6x6 use the backtracking solver and larger ones dancing links, whose
+     * most-constrained-first search scales to 9x9 and 12x12.
+     *
+     * @param geometria the size of the board
+     */
+    public Sudoku(BoardGeometry geometria) {
+        this(geometria, geometria.getTamano() <= 6 ? new BacktrackingSolver() : new DancingLinksSolver(), new SplittableRandom());
+    }
+
+    /**
+     * Initializes a new Sudoku game with an empty board and the given solver.
+     *
+     * @param solver the solver used for generation, uniqueness checks and hints
+     */
+    public Sudoku(SudokuSolver solver) {
+        this(solver, new SplittableRandom());
+    }
+
+    /**
+     * Initializes a new Sudoku game with an empty board, the given solver and its
+     * own source of randomness, so each worker thread can generate independently.
+     *
+     * @param solver the solver used for generation, uniqueness checks and hints
+     * @param random the random source used to generate puzzles
+     */
+    public Sudoku(SudokuSolver solver, RandomGenerator random) {
+        this(BoardGeometry.TABLERO_6X6, solver, random);
+    }
+
+    /**
+     * Initializes a new Sudoku game with an empty board of the given size, the
+     * given solver and its own source of randomness.
+     *
+     * @param geometria the size of the board
+     * @param solver the solver used for generation, uniqueness checks and hints
+     * @param random the random source used to generate puzzles
+     */
+    public Sudoku(BoardGeometry geometria, SudokuSolver solver, RandomGenerator random) {
+        this.geometria = geometria;
+        this.tamano = geometria.getTamano();
+        this.celdas = new byte[geometria.getCeldas()];
+        this.mascaraFilas = new int[tamano];
+        this.mascaraColumnas = new int[tamano];
+        this.mascaraBloques = new int[tamano];
+        this.conteoFilas = new byte[tamano * (tamano + 1)];
+        this.conteoColumnas = new byte[tamano * (tamano + 1)];
+        this.conteoBloques = new byte[tamano * (tamano + 1)];
+        this.enConflicto = new boolean[geometria.getCeldas()];
+        this.esPista = new boolean[geometria.getCeldas()];
+        this.notas = new int[geometria.getCeldas()];
+        this.trabajo = new byte[geometria.getCeldas()];
+        this.solucion = new byte[geometria.getCeldas()];
+        this.orden = new int[geometria.getCeldas()];
+        this.pistasPorBloque = new int[tamano];
+        this.mejorTablero = new byte[geometria.getCeldas()];
+        this.mejorSolucion = new byte[geometria.getCeldas()];
+        this.grader = new DifficultyGrader(geometria);
+        this.solver = solver;
+        this.random = random;
         resetGame();
     }
 
+    /**
+     * Gets the size of the board.
+     *
+     * @return the geometry of the board.
+     */
+    @Override
+    public BoardGeometry getGeometry() {
+        return geometria;
+    }
+
+    /**
+     * Gets the solver used by this game.
+     *
+     * @return the current solver.
+     */
+    public SudokuSolver getSolver() {
+        return solver;
+    }
+
+    /**
+     * Changes the solver used for generation, uniqueness checks and hints.
+     *
+     * @param solver the solver to use
+     */
+    public void setSolver(SudokuSolver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Sets the filter of the puzzles already served to the player. New games
+     * avoid puzzles equivalent to a served one and mark the new one as served.
+     *
+     * @param servidos the filter of the player, or null to allow repeats
+     * @throws IllegalStateException if the board is not 6x6, the only size with a canonical form.
+     */
+    public void setFiltroServidos(ServedPuzzleFilter servidos) {
+        if (servidos != null && geometria != BoardGeometry.TABLERO_6X6) {
+            throw new IllegalStateException("El filtro de puzzles servidos solo admite tableros 6x6");
+        }
+        this.servidos = servidos;
+    }
+
     /**
      * Checks if the Sudoku puzzle is complete.
      *
@@ -25,7 +165,56 @@ public class Sudoku implements ISudoku {
      */
     @Override
     public boolean isSudokuComplete() {
-        return validarFilas() && validarColumnas() && validarBloques();
+        return isComplete();
+    }
+
+    /**
+     * Checks in constant time whether every cell is filled and no number repeats
+     * in any row, column or block.
+     *
+     * @return true if the Sudoku is complete, false otherwise.
+     */
+    @Override
+    public boolean isComplete() {
+        return celdasLlenas == celdas.length && conflictos == 0;
+    }
+
+    /**
+     * Gets the number of cells whose number repeats in their row, column or block.
+     *
+     * @return the number of conflicting cells.
+     */
+    @Override
+    public int conflictCount() {
+        return conflictos;
+    }
+
+    /**
+     * Gets the cells whose number repeats in their row, column or block.
+     *
+     * @return a list of [row, column] pairs in row-major order.
+     */
+    @Override
+    public List<int[]> getConflictingCells() {
+        List<int[]> celdasEnConflicto = new ArrayList<>(conflictos);
+        for (int i = 0; i < enConflicto.length && celdasEnConflicto.size() < conflictos; i++) {
+            if (enConflicto[i]) {
+                celdasEnConflicto.add(new int[]{geometria.fila(i), geometria.columna(i)});
+            }
+        }
+        return celdasEnConflicto;
+    }
+
+    /**
+     * Checks whether the number of a cell repeats in its row, column or block.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @return true if the cell is in conflict.
+     */
+    @Override
+    public boolean isInConflict(int row, int col) {
+        return enConflicto[row * tamano + col];
     }
 
     /**
@@ -37,29 +226,14 @@ public class Sudoku implements ISudoku {
      * @return true if the number is valid, false otherwise.
      */
     public boolean esNumeroValido(int row, int col, int num) {
-        // Verificar fila
-        for (int i = 0; i < 6; i++) {
-            if (tableSudoku.get(row).get(i) == num && i != col) {
-                return false;
-            }
-        }
-        // Verificar columna
-        for (int i = 0; i < 6; i++) {
-            if (tableSudoku.get(i).get(col) == num && i != row) {
-                return false;
-            }
+        int bloque = geometria.bloque(row, col);
+        if (celdas[row * tamano + col] == num) {
+            // La propia celda ya cuenta una vez: el número es válido si nadie más lo repite
+            return conteoFilas[row * (tamano + 1) + num] == 1
+                    && conteoColumnas[col * (tamano + 1) + num] == 1
+                    && conteoBloques[bloque * (tamano + 1) + num] == 1;
         }
-        // Verificar bloque
-        int blockRowStart = (row / 2) * 2;
-        int blockColStart = (col / 3) * 3;
-        for (int i = blockRowStart; i < blockRowStart + 2; i++) {
-            for (int j = blockColStart; j < blockColStart + 3; j++) {
-                if (tableSudoku.get(i).get(j) == num && (i != row || j != col)) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return ((mascaraFilas[row] | mascaraColumnas[col] | mascaraBloques[bloque]) & (1 << num)) == 0;
     }
 
     /**
@@ -69,105 +243,399 @@ public class Sudoku implements ISudoku {
         resetGame();               // Reinicia el tablero
         generarSudokuCompleto();    // Genera un Sudoku completo
         eliminarNumeros();          // Elimina algunos números para crear el puzzle
+        notificarTableroCargado();
     }
 
     /**
-     * Initializes a new game.
+     * Initializes a new game. With a filter of served puzzles, puzzles
+     * equivalent to one already served are discarded and regenerated, up to a
+     * few attempts, and the new one is marked as served.
      */
     @Override
     public void iniciarNuevoJuego() {
+        GenerationEvent evento = new GenerationEvent();
+        evento.begin();
+        long inicio = System.nanoTime();
+        int intentos = 0;
+        do {
+            generarPuzzleNuevo();
+        } while (servidos != null && !servidos.agregar(celdas) && ++intentos < INTENTOS_SIN_REPETIR);
+        registrarGeneracion(evento, inicio, "ALEATORIO", null, intentos + 1);
+        notificarTableroCargado();
+    }
+
+    /**
+     * Replaces the board with a newly generated puzzle without notifying.
+     */
+    private void generarPuzzleNuevo() {
         resetGame();
         generarSudokuCompleto(); // Generar un Sudoku válido completo
-        eliminarNumeros(); // Ajustar para dejar exactamente 2 celdas llenas por subcuadrícula
+        eliminarNumeros(); // Quitar pistas mientras la solución siga siendo única
     }
 
     /**
-     * Generates a complete Sudoku board and stores help positions.
+     * Initializes a new game fully determined by a seed: the same seed on a board
+     * of the same size with the same solver always gives the same puzzle, so a
+     * puzzle can be shared or stored as a single number.
      *
-     * @return true if the Sudoku was generated successfully, false otherwise.
+     * @param semilla the seed of the puzzle
      */
-    private boolean generarSudokuCompleto() {
-        posicionesAyuda = new ArrayList<>(); // Inicializa la lista de posiciones de ayuda
-        boolean resultado = resolverSudoku(0, 0); // Resolver el Sudoku
-
-        // Almacenar las posiciones y valores
-        for (int row = 0; row < 6; row++) {
-            for (int col = 0; col < 6; col++) {
-                if (tableSudoku.get(row).get(col) != 0) {
-                    posicionesAyuda.add(new int[]{row, col, tableSudoku.get(row).get(col)});
-                }
+    @Override
+    public void iniciarNuevoJuego(long semilla) {
+        GenerationEvent evento = new GenerationEvent();
+        evento.begin();
+        long inicio = System.nanoTime();
+        RandomGenerator anterior = random;
+        random = new SplittableRandom(semilla); // Toda la aleatoriedad de este juego sale de la semilla
+        try {
+            generarPuzzleNuevo(); // Sin consultar el filtro: la semilla fija el puzzle
+        } finally {
+            random = anterior;
+        }
+        registrarGeneracion(evento, inicio, "SEMILLA", null, 1);
+        notificarTableroCargado();
+    }
+
+    /**
+     * Initializes a new game whose difficulty falls in the given band, searching
+     * for at most the default time budget.
+     *
+     * @param objetivo the difficulty band wanted
+     */
+    @Override
+    public void iniciarNuevoJuego(NivelDificultad objetivo) {
+        iniciarNuevoJuego(objetivo, PRESUPUESTO_POR_DEFECTO_MS);
+    }
+
+    /**
+     * Initializes a new game whose difficulty falls in the given band. Each
+     * attempt takes a new complete grid and removes clues while the solution
+     * stays unique and the grade does not exceed the target, putting back any
+     * clue whose removal makes the puzzle too hard. If the result is still too
+     * easy, a few removed clues are re-inserted to open other removal paths.
+     * When the budget runs out, the attempt closest to the target is loaded.
+     * With a filter of served puzzles, attempts already served are only kept
+     * when nothing else was found.
+     *
+     * @param objetivo the difficulty band wanted
+     * @param presupuestoMillis the maximum time to search, in milliseconds
+     * @return a report with the band obtained, the attempts and the latency.
+     */
+    public ResultadoGeneracion iniciarNuevoJuego(NivelDificultad objetivo, long presupuestoMillis) {
+        GenerationEvent evento = new GenerationEvent();
+        evento.begin();
+        long inicio = System.nanoTime();
+        long limite = inicio + presupuestoMillis * 1_000_000L;
+        NivelDificultad mejorNivel = null;
+        boolean mejorRepetido = false;
+        int intentos = 0;
+        do {
+            intentos++;
+            resetGame();
+            generarSudokuCompleto();
+            NivelDificultad nivel = eliminarNumerosHacia(objetivo);
+            // Un puzzle ya servido solo se queda si no hay otro mejor
+            boolean repetido = servidos != null && servidos.contiene(celdas);
+            boolean masCerca = mejorNivel == null
+                    || Math.abs(nivel.ordinal() - objetivo.ordinal()) < Math.abs(mejorNivel.ordinal() - objetivo.ordinal());
+            if (mejorNivel == null || (mejorRepetido && !repetido) || (repetido == mejorRepetido && masCerca)) {
+                System.arraycopy(celdas, 0, mejorTablero, 0, celdas.length);
+                System.arraycopy(solucion, 0, mejorSolucion, 0, solucion.length);
+                mejorNivel = nivel;
+                mejorRepetido = repetido;
             }
+        } while ((mejorNivel != objetivo || mejorRepetido) && System.nanoTime() < limite);
+
+        cargarTablero(mejorTablero);
+        System.arraycopy(mejorSolucion, 0, solucion, 0, solucion.length);
+        if (servidos != null) {
+            servidos.agregar(celdas);
         }
-        return resultado;
+        ultimaGeneracion = new ResultadoGeneracion(objetivo, mejorNivel, intentos, System.nanoTime() - inicio);
+        registrarGeneracion(evento, inicio, "DIFICULTAD", mejorNivel, intentos);
+        notificarTableroCargado();
+        return ultimaGeneracion;
     }
 
     /**
-     * Recursive method to solve the Sudoku puzzle.
+     * Gets the report of the last difficulty-targeted generation.
      *
-     * @param row the current row
-     * @param col the current column
-     * @return true if a solution is found, false otherwise.
+     * @return the last report, or null if none was made.
      */
-    private boolean resolverSudoku(int row, int col) {
-        if (row == 6) {
-            return true; // Se encontró una solución
+    public ResultadoGeneracion getUltimaGeneracion() {
+        return ultimaGeneracion;
+    }
+
+    /**
+     * Generates a new puzzle and returns it as an immutable value. The board of
+     * this instance is left holding the generated puzzle.
+     *
+     * @return the generated puzzle with its solution.
+     */
+    public Puzzle generarPuzzle() {
+        iniciarNuevoJuego();
+        return crearPuzzle();
+    }
+
+    /**
+     * Generates the puzzle of a seed and returns it as an immutable value. The
+     * board of this instance is left holding the generated puzzle.
+     *
+     * @param semilla the seed of the puzzle
+     * @return the generated puzzle with its solution.
+     */
+    public Puzzle generarPuzzle(long semilla) {
+        iniciarNuevoJuego(semilla);
+        return crearPuzzle();
+    }
+
+    /**
+     * Generates a new puzzle in the given difficulty band and returns it as an
+     * immutable value. The board of this instance is left holding the puzzle.
+     *
+     * @param objetivo the difficulty band wanted
+     * @return the generated puzzle with its solution.
+     */
+    public Puzzle generarPuzzle(NivelDificultad objetivo) {
+        iniciarNuevoJuego(objetivo);
+        return crearPuzzle();
+    }
+
+    /**
+     * Generates the sparsest puzzle the reducer finds for a new complete grid:
+     * a minimal puzzle, from which no clue can be removed, without the clue
+     * floor per block of {@link #eliminarNumeros()}. Meant for the hard tier.
+     * The board of this instance is left holding the puzzle.
+     *
+     * @param reductor the reducer that tries the removal orders
+     * @param ordenes the number of removal orders to try
+     * @return the generated puzzle with its solution.
+     * @throws IllegalArgumentException if fewer than one order is asked for; the
+     * board is left untouched.
+     */
+    public Puzzle generarPuzzleMinimo(MinimalPuzzleReducer reductor, int ordenes) {
+        MinimalPuzzleReducer.comprobarOrdenes(ordenes);
+        GenerationEvent evento = new GenerationEvent();
+        evento.begin();
+        long inicio = System.nanoTime();
+        resetGame();
+        generarSudokuCompleto();
+        Puzzle puzzle = reductor.reducir(solucion, ordenes, random.nextLong());
+        cargarTablero(puzzle.getTablero());
+        registrarGeneracion(evento, inicio, "MINIMO", null, ordenes);
+        notificarTableroCargado();
+        return puzzle;
+    }
+
+    /**
+     * Records a finished generation in the engine metrics and, when Flight
+     * Recorder is listening, as a {@link GenerationEvent}.
+     *
+     * @param evento the event begun with the generation
+     * @param inicio the {@link System#nanoTime()} at the start of the generation
+     * @param modo how the puzzle was generated
+     * @param nivel the band obtained, or null if no band was targeted
+     * @param intentos the number of puzzles or removal orders tried
+     */
+    private void registrarGeneracion(GenerationEvent evento, long inicio, String modo, NivelDificultad nivel, int intentos) {
+        EngineMetrics.getGeneracion().registrar(System.nanoTime() - inicio);
+        if (evento.shouldCommit()) {
+            evento.geometria = geometria.toString();
+            evento.modo = modo;
+            evento.nivel = nivel != null ? nivel.name() : null;
+            evento.intentos = intentos;
+            evento.pistas = celdasLlenas; // Recién generado, solo hay pistas
+            evento.commit();
         }
+    }
 
-        if (col == 6) {
-            return resolverSudoku(row + 1, 0); // Mover a la siguiente fila
+    /**
+     * Builds an immutable puzzle from the current board and the stored solution.
+     *
+     * @return the current puzzle.
+     */
+    private Puzzle crearPuzzle() {
+        return new Puzzle(celdas, solucion);
+    }
+
+    /**
+     * Loads a previously generated puzzle as the current game.
+     *
+     * @param puzzle the puzzle to load
+     * @throws IllegalArgumentException if the puzzle has another size.
+     */
+    @Override
+    public void cargarPuzzle(Puzzle puzzle) {
+        byte[] solucionPuzzle = puzzle.solucion();
+        if (solucionPuzzle.length != celdas.length) {
+            throw new IllegalArgumentException("El puzzle no es de " + geometria);
         }
+        System.arraycopy(solucionPuzzle, 0, solucion, 0, solucion.length);
+        cargarTablero(puzzle.tablero());
+        notificarTableroCargado();
+    }
 
-        if (tableSudoku.get(row).get(col) != 0) {
-            return resolverSudoku(row, col + 1); // Saltar celdas llenas
+    /**
+     * Loads a ready puzzle from a catalog instead of generating one.
+     *
+     * @param catalogo the catalog to read from
+     * @param registro the record number of the puzzle
+     * @throws IllegalStateException if this game is not 6x6, the only size catalogs hold.
+     */
+    public void cargarDesdeCatalogo(PuzzleCatalog catalogo, int registro) {
+        if (geometria != BoardGeometry.TABLERO_6X6) {
+            throw new IllegalStateException("Los catálogos solo guardan tableros 6x6");
         }
+        cargarPuzzle(catalogo.leer(registro));
+    }
 
-        List<Integer> numbers = new ArrayList<>();
-        for (int i = 1; i <= 6; i++) {
-            numbers.add(i);
+    /**
+     * Generates a complete Sudoku board and stores it as the solution used for
+     * help positions. Nothing is allocated: the solver works on a reused array.
+     *
+     * @return true if the Sudoku was generated successfully, false otherwise.
+     */
+    private boolean generarSudokuCompleto() {
+        long inicio = System.nanoTime();
+        copyTo(trabajo);
+        boolean resultado = solver.resolver(trabajo, random); // Resolver el Sudoku
+        EngineMetrics.getResolucion().registrar(System.nanoTime() - inicio);
+        if (resultado) {
+            cargarTablero(trabajo);
         }
-        Collections.shuffle(numbers); // Barajar números
+        copyTo(solucion); // Almacenar los valores para las ayudas
+        return resultado;
+    }
 
-        for (int num : numbers) {
-            if (esNumeroValido(row, col, num)) {
-                tableSudoku.get(row).set(col, num); // Coloca el número
-                if (resolverSudoku(row, col + 1)) { // Llama recursivamente
-                    return true;
-                }
-                tableSudoku.get(row).set(col, 0); // Deshacer si no funciona
+    /**
+     * Removes numbers from the Sudoku board to create a puzzle. Cells are
+     * visited in random order and a clue is only removed while its block keeps
+     * more than 2 clues and the puzzle still has a single solution.
+     */
+    void eliminarNumeros() {
+        Arrays.fill(pistasPorBloque, 0);
+        for (int i = 0; i < celdas.length; i++) {
+            if (celdas[i] != 0) {
+                pistasPorBloque[geometria.bloque(i)]++;
+            }
+        }
+
+        for (int indice : ordenAleatorio()) {
+            int row = geometria.fila(indice);
+            int col = geometria.columna(indice);
+            int bloque = geometria.bloque(indice);
+            int valor = celdas[indice];
+            if (valor == 0 || pistasPorBloque[bloque] <= 2) {
+                continue; // Cada bloque conserva al menos 2 pistas
+            }
+            quitarPista(row, col); // Intentar eliminar el número
+            if (tieneSolucionUnica()) {
+                pistasPorBloque[bloque]--;
+            } else {
+                restaurarPista(row, col, valor); // Restaurar: la solución dejaría de ser única
             }
         }
-        return false; // No se pudo colocar ningún número
     }
 
     /**
-     * Removes numbers from the Sudoku board to create a puzzle.
+     * Removes clues from a complete board aiming at a difficulty band. A clue is
+     * removed only if the solution stays unique and the grade does not go above
+     * the target. If the puzzle ends up easier than the target, some removed
+     * clues are put back one at a time and the removal is retried.
+     *
+     * @param objetivo the difficulty band wanted
+     * @return the band of the resulting puzzle.
      */
-    private void eliminarNumeros() {
-        for (int blockRow = 0; blockRow < 6; blockRow += 2) {
-            for (int blockCol = 0; blockCol < 6; blockCol += 3) {
-                int filledCells = 0; // Contador para las celdas llenas en la subcuadrícula
-                List<int[]> positions = new ArrayList<>(); // Lista para almacenar las posiciones de celdas llenas
-
-                // Recolectar celdas llenas en la subcuadrícula
-                for (int row = blockRow; row < blockRow + 2; row++) {
-                    for (int col = blockCol; col < blockCol + 3; col++) {
-                        if (tableSudoku.get(row).get(col) != 0) {
-                            positions.add(new int[]{row, col});
-                            filledCells++;
-                        }
-                    }
+    private NivelDificultad eliminarNumerosHacia(NivelDificultad objetivo) {
+        NivelDificultad nivel = quitarPistasHasta(objetivo);
+        for (int i = 0; i < REINSERCIONES_POR_INTENTO && nivel.compareTo(objetivo) < 0; i++) {
+            // Reinsertar una pista eliminada al azar para explorar otro camino de eliminación
+            int inicio = random.nextInt(celdas.length);
+            for (int k = 0; k < celdas.length; k++) {
+                int indice = (inicio + k) % celdas.length;
+                if (celdas[indice] == 0) {
+                    restaurarPista(geometria.fila(indice), geometria.columna(indice), solucion[indice]);
+                    break;
                 }
+            }
+            nivel = quitarPistasHasta(objetivo);
+        }
+        return nivel;
+    }
 
-                // Si hay más de 2 celdas llenas, eliminar celdas hasta que queden 2
-                while (filledCells > 2) {
-                    int randomIndex = new Random().nextInt(positions.size());
-                    int[] pos = positions.get(randomIndex);
-                    tableSudoku.get(pos[0]).set(pos[1], 0); // Eliminar el número
-                    positions.remove(randomIndex); // Quitar la posición eliminada
-                    filledCells--; // Decrementar el contador
-                }
+    /**
+     * Makes one pass over the clues in random order, removing every clue whose
+     * removal keeps the solution unique and the grade at or below the target.
+     *
+     * @param objetivo the hardest band allowed
+     * @return the band of the resulting puzzle.
+     */
+    private NivelDificultad quitarPistasHasta(NivelDificultad objetivo) {
+        copyTo(trabajo);
+        NivelDificultad nivel = grader.calificar(trabajo).getNivel();
+        for (int indice : ordenAleatorio()) {
+            int row = geometria.fila(indice);
+            int col = geometria.columna(indice);
+            int valor = celdas[indice];
+            if (valor == 0) {
+                continue;
+            }
+            quitarPista(row, col);
+            if (!tieneSolucionUnica()) {
+                restaurarPista(row, col, valor); // La solución dejaría de ser única
+                continue;
+            }
+            copyTo(trabajo);
+            NivelDificultad nuevo = grader.calificar(trabajo).getNivel();
+            if (nuevo.compareTo(objetivo) > 0) {
+                restaurarPista(row, col, valor); // Demasiado difícil: reinsertar la pista
+            } else {
+                nivel = nuevo;
             }
         }
+        return nivel;
+    }
+
+    /**
+     * Shuffles the cell indices into the reused visiting order.
+     *
+     * @return the cell indices in random order.
+     */
+    private int[] ordenAleatorio() {
+        for (int i = 0; i < orden.length; i++) {
+            orden[i] = i;
+        }
+        // Barajar el orden de visita (Fisher-Yates)
+        for (int i = orden.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = orden[i];
+            orden[i] = orden[j];
+            orden[j] = tmp;
+        }
+        return orden;
+    }
+
+    /**
+     * Removes a clue from the board while the puzzle is being generated.
+     *
+     * @param row the row index
+     * @param col the column index
+     */
+    private void quitarPista(int row, int col) {
+        quitar(row, col);
+        esPista[row * tamano + col] = false;
+    }
+
+    /**
+     * Puts a removed clue back on the board.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @param valor the value of the clue
+     */
+    private void restaurarPista(int row, int col, int valor) {
+        colocar(row, col, valor);
+        esPista[row * tamano + col] = true;
     }
 
     /**
@@ -175,81 +643,440 @@ public class Sudoku implements ISudoku {
      *
      * @return true if there is a unique solution, false otherwise.
      */
-    private boolean tieneSolucionUnica() {
-        int soluciones = contarSoluciones();
-        return soluciones == 1; // Solo debe haber una solución
+    public boolean tieneSolucionUnica() {
+        return contarSoluciones(2) == 1; // Basta con saber si existe una segunda solución
     }
 
     /**
-     * Counts the number of solutions for the current Sudoku configuration.
+     * Counts the solutions for the current Sudoku configuration, stopping as
+     * soon as the given limit is reached.
      *
-     * @return the number of solutions found.
+     * @param limite the maximum number of solutions to look for
+     * @return the number of solutions found, never greater than {@code limite}.
      */
-    private int contarSoluciones() {
-        return contarSolucionesRecursivo(0, 0);
+    public int contarSoluciones(int limite) {
+        long inicio = System.nanoTime();
+        copyTo(trabajo);
+        int soluciones = solver.contarSoluciones(trabajo, limite);
+        EngineMetrics.getValidacion().registrar(System.nanoTime() - inicio);
+        return soluciones;
     }
 
     /**
-     * Recursive method to count the number of solutions.
+     * Sets a number in the Sudoku table at the specified position.
      *
-     * @param row the current row
-     * @param col the current column
-     * @return the number of solutions found.
+     * @param number the number to set
+     * @param row the row index
+     * @param col the column index
      */
-    private int contarSolucionesRecursivo(int row, int col) {
-        if (row == 6) {
-            return 1; // Se encontró una solución
+    @Override
+    public void setNumberInTableSodoku(int number, int row, int col) {
+        jugar(number, row, col, MoveLog.JUGADOR);
+    }
+
+    /**
+     * Places the digit of a hint; it is recorded in the history as a hint.
+     *
+     * @param number the digit of the hint
+     * @param row the row index
+     * @param col the column index
+     */
+    @Override
+    public void aplicarAyuda(int number, int row, int col) {
+        jugar(number, row, col, MoveLog.AYUDA);
+    }
+
+    /**
+     * Places a number, records the move and notifies the listeners. A number
+     * or position out of range, or a clue cell, is rejected as an invalid move.
+     *
+     * @param number the number to set
+     * @param row the row index
+     * @param col the column index
+     * @param origen the origin of the move for the history
+     */
+    private void jugar(int number, int row, int col, int origen) {
+        // Asegúrate de que `number` es un dígito del tablero y que la posición (row, col) es válida y no es una pista.
+        if (row >= 0 && row < tamano && col >= 0 && col < tamano && number >= 1 && number <= tamano
+                && !esPista[row * tamano + col]) {
+            int anterior = celdas[row * tamano + col];
+            if (anterior != 0) {
+                quitar(row, col);
+            }
+            colocar(row, col, number);
+            if (anterior != number) {
+                registrarMovimiento(MoveLog.codificar(row * tamano + col, anterior, number, origen));
+            }
+            for (SudokuListener listener : listeners) {
+                listener.onCeldaCambiada(row, col, number);
+            }
+            descartarNotas(row * tamano + col, number);
+
+            if (enConflicto[row * tamano + col]) {
+                for (SudokuListener listener : listeners) {
+                    listener.onConflicto(number, row, col);
+                }
+            }
+            // Comprobar si el Sudoku está completo tras cada número ingresado
+            if (isSudokuComplete()) {
+                for (SudokuListener listener : listeners) {
+                    listener.onVictoria();
+                }
+            }
+        } else {
+            for (SudokuListener listener : listeners) {
+                listener.onMovimientoInvalido(number, row, col);
+            }
         }
+    }
 
-        if (col == 6) {
-            return contarSolucionesRecursivo(row + 1, 0); // Mover a la siguiente fila
+    /**
+     * Empties a cell of the Sudoku table. Clue cells are kept and the move is
+     * rejected as invalid.
+     *
+     * @param row the row index
+     * @param col the column index
+     */
+    @Override
+    public void clearCell(int row, int col) {
+        if (row >= 0 && row < tamano && col >= 0 && col < tamano && esPista[row * tamano + col]) {
+            for (SudokuListener listener : listeners) {
+                listener.onMovimientoInvalido(0, row, col); // Las pistas no se pueden borrar
+            }
+            return;
         }
+        if (row >= 0 && row < tamano && col >= 0 && col < tamano && celdas[row * tamano + col] != 0) {
+            int anterior = celdas[row * tamano + col];
+            quitar(row, col);
+            registrarMovimiento(MoveLog.codificar(row * tamano + col, anterior, 0, MoveLog.JUGADOR));
+            for (SudokuListener listener : listeners) {
+                listener.onCeldaCambiada(row, col, 0);
+            }
+        }
+    }
 
-        if (tableSudoku.get(row).get(col) != 0) {
-            return contarSolucionesRecursivo(row, col + 1); // Saltar celdas llenas
+    /**
+     * Reverts the last move of the player or of a hint.
+     *
+     * @return true if a move was undone, false if there was none.
+     */
+    @Override
+    public boolean deshacer() {
+        int movimiento = historial.deshacer();
+        if (movimiento < 0) {
+            return false;
         }
+        aplicarValor(MoveLog.celda(movimiento), MoveLog.anterior(movimiento));
+        notificarMovimiento(MoveLog.inverso(movimiento, MoveLog.DESHACER));
+        descartarNotas(MoveLog.celda(movimiento), MoveLog.anterior(movimiento));
+        return true;
+    }
 
-        int totalSoluciones = 0;
-        for (int num = 1; num <= 6; num++) {
-            if (esNumeroValido(row, col, num)) {
-                tableSudoku.get(row).set(col, num); // Coloca el número
-                totalSoluciones += contarSolucionesRecursivo(row, col + 1); // Llama recursivamente
-                tableSudoku.get(row).set(col, 0); // Deshacer
+    /**
+     * Applies again the last undone move.
+     *
+     * @return true if a move was redone, false if there was none.
+     */
+    @Override
+    public boolean rehacer() {
+        int movimiento = historial.rehacer();
+        if (movimiento < 0) {
+            return false;
+        }
+        aplicarValor(MoveLog.celda(movimiento), MoveLog.nuevo(movimiento));
+        notificarMovimiento(MoveLog.codificar(MoveLog.celda(movimiento), MoveLog.anterior(movimiento),
+                MoveLog.nuevo(movimiento), MoveLog.REHACER));
+        descartarNotas(MoveLog.celda(movimiento), MoveLog.nuevo(movimiento));
+        if (isSudokuComplete()) {
+            for (SudokuListener listener : listeners) {
+                listener.onVictoria();
             }
         }
-        return totalSoluciones; // Devuelve el total de soluciones encontradas
+        return true;
     }
 
     /**
-     * Sets a number in the Sudoku table at the specified position.
+     * Checks whether there is a move to undo.
+     *
+     * @return true if {@link #deshacer()} would revert a move.
+     */
+    @Override
+    public boolean puedeDeshacer() {
+        return historial.puedeDeshacer();
+    }
+
+    /**
+     * Checks whether there is a move to redo.
+     *
+     * @return true if {@link #rehacer()} would apply a move.
+     */
+    @Override
+    public boolean puedeRehacer() {
+        return historial.puedeRehacer();
+    }
+
+    /**
+     * Gets the pencil marks of a cell.
      *
-     * @param number the number to set
      * @param row the row index
      * @param col the column index
+     * @return the marked digits, bit n set for digit n.
      */
     @Override
-    public void setNumberInTableSodoku(int number, int row, int col) {
-        // Asegúrate de que `number` es un valor válido (1-6) y que la posición (row, col) es válida.
-        if (row >= 0 && row < 6 && col >= 0 && col < 6 && number >= 1 && number <= 6) {
-            tableSudoku.get(row).set(col, number);
+    public int getNotas(int row, int col) {
+        return notas[row * tamano + col];
+    }
 
-            // Comprobar si el Sudoku está completo tras cada número ingresado
-            if (isSudokuComplete()) {
-                mostrarAlertaVictoria();
+    /**
+     * Marks or unmarks a digit as a candidate of an empty cell. Filled cells
+     * keep no marks, so the call is ignored on them.
+     *
+     * @param number the digit
+     * @param row the row index
+     * @param col the column index
+     */
+    @Override
+    public void alternarNota(int number, int row, int col) {
+        if (row < 0 || row >= tamano || col < 0 || col >= tamano || number < 1 || number > tamano) {
+            for (SudokuListener listener : listeners) {
+                listener.onMovimientoInvalido(number, row, col);
             }
-        } else {
-            mostrarAlertaError("Error", "Número o posición no válida.");
+            return;
+        }
+        int celda = row * tamano + col;
+        if (celdas[celda] == 0) {
+            cambiarNotas(celda, notas[celda] ^ (1 << number));
+        }
+    }
+
+    /**
+     * Marks in every empty cell the digits that do not repeat in its row, column
+     * or block, in one pass over the board using the masks of the units. Only
+     * the cells whose marks change are notified.
+     */
+    @Override
+    public void autocompletarNotas() {
+        int todos = ((1 << tamano) - 1) << 1;
+        for (int celda = 0; celda < celdas.length; celda++) {
+            if (celdas[celda] == 0) {
+                int row = geometria.fila(celda);
+                int col = geometria.columna(celda);
+                cambiarNotas(celda, todos & ~(mascaraFilas[row] | mascaraColumnas[col] | mascaraBloques[geometria.bloque(row, col)]));
+            }
+        }
+    }
+
+    /**
+     * Clears the marks of a cell that just got a digit and removes that digit
+     * from the marks of its peers, touching only its precomputed peers.
+     *
+     * @param celda the cell index
+     * @param num the digit placed, 0 if the cell was emptied
+     */
+    private void descartarNotas(int celda, int num) {
+        if (num == 0) {
+            return;
+        }
+        cambiarNotas(celda, 0);
+        int bit = 1 << num;
+        for (int par : geometria.pares(celda)) {
+            if ((notas[par] & bit) != 0) {
+                cambiarNotas(par, notas[par] & ~bit);
+            }
+        }
+    }
+
+    /**
+     * Sets the marks of a cell and notifies the listeners if they changed.
+     *
+     * @param celda the cell index
+     * @param nuevas the new marks
+     */
+    private void cambiarNotas(int celda, int nuevas) {
+        if (notas[celda] == nuevas) {
+            return;
+        }
+        notas[celda] = nuevas;
+        for (SudokuListener listener : listeners) {
+            listener.onNotasCambiadas(geometria.fila(celda), geometria.columna(celda), nuevas);
+        }
+    }
+
+    /**
+     * Records a move in the history and hands it to the listeners.
+     *
+     * @param movimiento the packed move
+     */
+    private void registrarMovimiento(int movimiento) {
+        historial.registrar(movimiento);
+        for (SudokuListener listener : listeners) {
+            listener.onMovimiento(movimiento);
+        }
+    }
+
+    /**
+     * Notifies the listeners of a move replayed from the history.
+     *
+     * @param movimiento the packed move, with its undo or redo origin
+     */
+    private void notificarMovimiento(int movimiento) {
+        int celda = MoveLog.celda(movimiento);
+        for (SudokuListener listener : listeners) {
+            listener.onCeldaCambiada(geometria.fila(celda), geometria.columna(celda), MoveLog.nuevo(movimiento));
+            listener.onMovimiento(movimiento);
+        }
+    }
+
+    /**
+     * Sets the value of a cell, without recording or notifying anything.
+     *
+     * @param celda the cell index
+     * @param valor the new value, 0 to empty the cell
+     */
+    private void aplicarValor(int celda, int valor) {
+        int row = geometria.fila(celda);
+        int col = geometria.columna(celda);
+        if (celdas[celda] != 0) {
+            quitar(row, col);
+        }
+        if (valor != 0) {
+            colocar(row, col, valor);
+        }
+    }
+
+    /**
+     * Applies a move read back from a journal exactly as it was first made,
+     * history included, without notifying the listeners.
+     *
+     * @param movimiento the packed move
+     */
+    void reproducir(int movimiento) {
+        switch (MoveLog.origen(movimiento)) {
+            case MoveLog.DESHACER -> historial.deshacer();
+            case MoveLog.REHACER -> historial.rehacer();
+            default -> historial.registrar(movimiento);
+        }
+        aplicarValor(MoveLog.celda(movimiento), MoveLog.nuevo(movimiento));
+    }
+
+    /**
+     * Gets the history of moves, for snapshots of the game.
+     *
+     * @return the live history.
+     */
+    MoveLog getHistorial() {
+        return historial;
+    }
+
+    /**
+     * Restores the values typed by the player on top of the loaded puzzle,
+     * without recording or notifying anything.
+     *
+     * @param valores the board with the clues and the player's values
+     */
+    void restaurarValores(byte[] valores) {
+        for (int i = 0; i < valores.length; i++) {
+            if (!esPista[i]) {
+                aplicarValor(i, valores[i]);
+            }
+        }
+    }
+
+    /**
+     * Gets the current puzzle: its clues, without the player's values, and its solution.
+     *
+     * @return the puzzle being played.
+     */
+    @Override
+    public Puzzle getPuzzle() {
+        byte[] pistas = new byte[celdas.length];
+        for (int i = 0; i < celdas.length; i++) {
+            if (esPista[i]) {
+                pistas[i] = celdas[i];
+            }
+        }
+        return new Puzzle(pistas, solucion);
+    }
+
+    /**
+     * Gets an immutable copy of the current 6x6 board, with the player's
+     * values and the clue mask, that can be handed to other threads.
+     *
+     * @return the packed board.
+     * @throws IllegalStateException if the board is not 6x6.
+     */
+    public PackedBoard getInstantanea() {
+        if (geometria != BoardGeometry.TABLERO_6X6) {
+            throw new IllegalStateException("Solo se empaquetan tableros 6x6");
+        }
+        long pistas = 0;
+        for (int i = 0; i < esPista.length; i++) {
+            if (esPista[i]) {
+                pistas |= 1L << i;
+            }
+        }
+        return PackedBoard.de(celdas, pistas);
+    }
+
+    /**
+     * Checks whether a cell holds one of the clues of the puzzle.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @return true if the cell is a clue, false otherwise.
+     */
+    @Override
+    public boolean isClue(int row, int col) {
+        return esPista[row * tamano + col];
+    }
+
+    /**
+     * Notifies the listeners that the whole board was replaced.
+     */
+    private void notificarTableroCargado() {
+        for (SudokuListener listener : listeners) {
+            listener.onTableroCargado();
         }
     }
 
     /**
-     * Gets the current Sudoku table.
+     * Gets a copy of the current Sudoku table.
      *
      * @return the current table as a list of lists of integers.
      */
     @Override
     public List<List<Integer>> getTableSudoku() {
-        return tableSudoku;
+        List<List<Integer>> tabla = new ArrayList<>(tamano);
+        for (int row = 0; row < tamano; row++) {
+            List<Integer> fila = new ArrayList<>(tamano);
+            for (int col = 0; col < tamano; col++) {
+                fila.add((int) celdas[row * tamano + col]);
+            }
+            tabla.add(fila);
+        }
+        return tabla;
+    }
+
+    /**
+     * Gets the value of a single cell.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @return the value of the cell, or 0 if it is empty.
+     */
+    @Override
+    public int getCell(int row, int col) {
+        return celdas[row * tamano + col];
+    }
+
+    /**
+     * Copies the board, in row-major order, into the given array.
+     *
+     * @param destino the array to fill; must hold at least one element per cell.
+     */
+    @Override
+    public void copyTo(byte[] destino) {
+        System.arraycopy(celdas, 0, destino, 0, celdas.length);
     }
 
     /**
@@ -257,105 +1084,165 @@ public class Sudoku implements ISudoku {
      */
     @Override
     public void resetGame() {
-        tableSudoku.clear();
-        for (int i = 0; i < 6; i++) {
-            List<Integer> row = new ArrayList<>();
-            for (int j = 0; j < 6; j++) {
-                row.add(0);
+        Arrays.fill(celdas, (byte) 0);
+        Arrays.fill(mascaraFilas, 0);
+        Arrays.fill(mascaraColumnas, 0);
+        Arrays.fill(mascaraBloques, 0);
+        Arrays.fill(conteoFilas, (byte) 0);
+        Arrays.fill(conteoColumnas, (byte) 0);
+        Arrays.fill(conteoBloques, (byte) 0);
+        Arrays.fill(enConflicto, false);
+        Arrays.fill(esPista, false);
+        Arrays.fill(notas, 0); // Las notas del tablero anterior no valen; el aviso de tablero cargado las redibuja
+        celdasLlenas = 0;
+        conflictos = 0;
+        historial.limpiar(); // Las jugadas de otro tablero no se pueden deshacer
+    }
+
+    /**
+     * Replaces the whole board with the given values, which become the clues.
+     *
+     * @param tablero the values to load, in row-major order
+     */
+    private void cargarTablero(byte[] tablero) {
+        resetGame();
+        for (int i = 0; i < tablero.length; i++) {
+            if (tablero[i] != 0) {
+                colocar(geometria.fila(i), geometria.columna(i), tablero[i]);
+                esPista[i] = true;
             }
-            tableSudoku.add(row);
         }
     }
 
     /**
-     * Validates all rows in the Sudoku table.
+     * Places a number in an empty cell and updates the masks, the digit counts
+     * and the conflict state of the affected cells.
      *
-     * @return true if all rows are valid, false otherwise.
+     * @param row the row index
+     * @param col the column index
+     * @param num the number to place
      */
-    private boolean validarFilas() {
-        for (int row = 0; row < 6; row++) {
-            Set<Integer> seen = new HashSet<>();
-            for (int col = 0; col < 6; col++) {
-                int num = tableSudoku.get(row).get(col);
-                if (num == 0 || !seen.add(num)) {
-                    return false;
-                }
-            }
+    private void colocar(int row, int col, int num) {
+        int bit = 1 << num;
+        int bloque = geometria.bloque(row, col);
+        celdas[row * tamano + col] = (byte) num;
+        celdasLlenas++;
+        mascaraFilas[row] |= bit;
+        mascaraColumnas[col] |= bit;
+        mascaraBloques[bloque] |= bit;
+        // Al pasar de 1 a 2 apariciones, la celda que ya estaba entra también en conflicto
+        if (++conteoFilas[row * (tamano + 1) + num] == 2) {
+            revisarUnidad(row, num);
         }
-        return true;
+        if (++conteoColumnas[col * (tamano + 1) + num] == 2) {
+            revisarUnidad(tamano + col, num);
+        }
+        if (++conteoBloques[bloque * (tamano + 1) + num] == 2) {
+            revisarUnidad(2 * tamano + bloque, num);
+        }
+        revisarCelda(row * tamano + col);
     }
 
     /**
-     * Validates all columns in the Sudoku table.
+     * Empties a cell and updates the masks, the digit counts and the conflict
+     * state of the affected cells.
      *
-     * @return true if all columns are valid, false otherwise.
+     * @param row the row index
+     * @param col the column index
      */
-    private boolean validarColumnas() {
-        for (int col = 0; col < 6; col++) {
-            Set<Integer> seen = new HashSet<>();
-            for (int row = 0; row < 6; row++) {
-                int num = tableSudoku.get(row).get(col);
-                if (num == 0 || !seen.add(num)) {
-                    return false;
-                }
-            }
+    private void quitar(int row, int col) {
+        int num = celdas[row * tamano + col];
+        int bit = ~(1 << num);
+        int bloque = geometria.bloque(row, col);
+        celdas[row * tamano + col] = 0;
+        celdasLlenas--;
+        revisarCelda(row * tamano + col);
+        // Al volver a 1 aparición, la celda restante puede salir del conflicto
+        int restantes = --conteoFilas[row * (tamano + 1) + num];
+        if (restantes == 0) {
+            mascaraFilas[row] &= bit;
+        } else if (restantes == 1) {
+            revisarUnidad(row, num);
+        }
+        restantes = --conteoColumnas[col * (tamano + 1) + num];
+        if (restantes == 0) {
+            mascaraColumnas[col] &= bit;
+        } else if (restantes == 1) {
+            revisarUnidad(tamano + col, num);
+        }
+        restantes = --conteoBloques[bloque * (tamano + 1) + num];
+        if (restantes == 0) {
+            mascaraBloques[bloque] &= bit;
+        } else if (restantes == 1) {
+            revisarUnidad(2 * tamano + bloque, num);
         }
-        return true;
     }
 
     /**
-     * Validates all blocks in the Sudoku table.
+     * Re-evaluates the conflict state of the cells of a unit holding a number.
      *
-     * @return true if all blocks are valid, false otherwise.
+     * @param unidad the unit index, as numbered by {@link BoardGeometry#unidad(int)}
+     * @param num the number whose count changed
      */
-    private boolean validarBloques() {
-        for (int blockRow = 0; blockRow < 6; blockRow += 2) {
-            for (int blockCol = 0; blockCol < 6; blockCol += 3) {
-                Set<Integer> seen = new HashSet<>();
-                for (int row = blockRow; row < blockRow + 2; row++) {
-                    for (int col = blockCol; col < blockCol + 3; col++) {
-                        int num = tableSudoku.get(row).get(col);
-                        if (num == 0 || !seen.add(num)) {
-                            return false;
-                        }
-                    }
-                }
+    private void revisarUnidad(int unidad, int num) {
+        for (int celda : geometria.unidad(unidad)) {
+            if (celdas[celda] == num) {
+                revisarCelda(celda);
             }
         }
-        return true;
     }
 
     /**
-     * Displays a victory alert when the Sudoku is completed.
+     * Recomputes whether a cell is in conflict from the digit counts of its units
+     * and keeps the conflict counter in sync.
+     *
+     * @param indice the cell index, row-major
      */
-    @Override
-    public void mostrarAlertaVictoria() {
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle("¡Victoria!");
-        alert.setHeaderText("¡Felicidades! Has completado el Sudoku correctamente.");
-        alert.showAndWait();
+    private void revisarCelda(int indice) {
+        int num = celdas[indice];
+        boolean conflicto = num != 0
+                && (conteoFilas[geometria.fila(indice) * (tamano + 1) + num] > 1
+                || conteoColumnas[geometria.columna(indice) * (tamano + 1) + num] > 1
+                || conteoBloques[geometria.bloque(indice) * (tamano + 1) + num] > 1);
+        if (conflicto != enConflicto[indice]) {
+            enConflicto[indice] = conflicto;
+            conflictos += conflicto ? 1 : -1;
+        }
     }
 
     /**
-     * Gets the help positions stored in the Sudoku instance.
+     * Gets the help positions stored in the Sudoku instance, built from the
+     * solution of the current puzzle.
      *
-     * @return the list of help positions.
+     * @return the list of help positions as [row, column, value].
      */
     public List<int[]> getPosicionesAyuda() {
+        List<int[]> posicionesAyuda = new ArrayList<>(solucion.length);
+        for (int i = 0; i < solucion.length; i++) {
+            if (solucion[i] != 0) {
+                posicionesAyuda.add(new int[]{geometria.fila(i), geometria.columna(i), solucion[i]});
+            }
+        }
         return posicionesAyuda;
     }
 
     /**
-     * Displays an error alert with a specific title and message.
+     * Registers a listener for the events of the game.
+     *
+     * @param listener the listener to add
+     */
+    @Override
+    public void addListener(SudokuListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a previously added listener.
      *
-     * @param titulo the title of the alert
-     * @param mensaje the message to display
+     * @param listener the listener to remove
      */
     @Override
-    public void mostrarAlertaError(String titulo, String mensaje) {
-        Alert alert = new Alert(Alert.AlertType.ERROR);
-        alert.setTitle(titulo);
-        alert.setHeaderText(mensaje);
-        alert.showAndWait();
+    public void removeListener(SudokuListener listener) {
+        listeners.remove(listener);
     }
 }
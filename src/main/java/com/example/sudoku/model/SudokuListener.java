@@ -0,0 +1,64 @@
+package com.example.sudoku.model;
+
+/**
+ * Listener notified by the Sudoku model about the outcome of the moves made on
+ * the board. It lets the view react to the game without the model depending on
+ * any UI toolkit.
+ */
+public interface SudokuListener {
+    /**
+     * Called when the player places or clears a number.
+     * @param row The row index.
+     * @param col The column index.
+     * @param valor The new value of the cell, or 0 if it was cleared.
+     */
+    default void onCeldaCambiada(int row, int col, int valor) {
+    }
+
+    /**
+     * Called when the whole board was replaced by a new puzzle.
+     */
+    default void onTableroCargado() {
+    }
+
+    /**
+     * Called when the board has been completed correctly.
+     */
+    default void onVictoria() {
+    }
+
+    /**
+     * Called when a move was rejected because the number or the position is out of range.
+     * @param number The rejected number.
+     * @param row The row index.
+     * @param col The column index.
+     */
+    default void onMovimientoInvalido(int number, int row, int col) {
+    }
+
+    /**
+     * Called when a number was placed but repeats in its row, column or block.
+     * @param number The number placed.
+     * @param row The row index.
+     * @param col The column index.
+     */
+    default void onConflicto(int number, int row, int col) {
+    }
+
+    /**
+     * Called after every recorded change of a cell: a move of the player, a hint,
+     * an undo or a redo.
+     * @param movimiento The move packed as described in {@link MoveLog}.
+     */
+    default void onMovimiento(int movimiento) {
+    }
+
+    /**
+     * Called when the pencil marks of an empty cell change.
+     * @param row The row index.
+     * @param col The column index.
+     * @param notas The marked digits, bit n set for digit n.
+     */
+    default void onNotasCambiadas(int row, int col, int notas) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.sudoku.model;
+
+/**
+ * Human solving techniques used by the {@link DifficultyGrader}, from the
+ * simplest to the hardest. Each one has a weight that adds to the difficulty
+ * score every time it is applied.
+ */
+public enum Tecnica {
+    /** A cell with a single candidate left (naked single). */
+    SOLITARIO_DESNUDO(1),
+    /** A digit that fits in a single cell of a row, column or block (hidden single). */
+    SOLITARIO_OCULTO(2),
+    /** A digit confined to the intersection of a block and a line (locked candidates). */
+    CANDIDATOS_BLOQUEADOS(5),
+    /** Two cells of a unit sharing the same two candidates (naked pair). */
+    PAREJA_DESNUDA(8),
+    /** A digit confined to the same two columns in two rows, or vice versa (X-wing). */
+    ALA_X(15);
+
+    private final int peso;
+
+    /**
+     * Creates a technique with its weight.
+     *
+     * @param peso the points added each time the technique is applied
+     */
+    Tecnica(int peso) {
+        this.peso = peso;
+    }
+
+    /**
+     * Gets the weight of the technique in the difficulty score.
+     *
+     * @return the points added each time the technique is applied.
+     */
+    public int getPeso() {
+        return peso;
+    }
+}
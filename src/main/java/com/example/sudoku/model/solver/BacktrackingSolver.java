@@ -0,0 +1,318 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.EngineMetrics;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.random.RandomGenerator;
+
+/**
+ * Backtracking solver that fills the empty cells in row-major order.
+ * It is the fastest choice for small boards; larger ones are better served by
+ * {@link DancingLinksSolver}.
+ * <p>
+ * The search is iterative over an explicit stack and each thread reuses its own
+ * working state, so solving or generating a board allocates nothing once the
+ * thread has warmed up. On 6x6 boards the digit order of each cell is one of the
+ * 720 precomputed permutations of 1..6; on other sizes it is shuffled in place.
+ */
+public class BacktrackingSolver implements SudokuSolver {
+    /** Steps of the search between two checks of the interrupt status. */
+    static final int PASOS_POR_REVISION = 4096;
+
+    /** Every permutation of the digits 1 to 6, for the random digit order of 6x6 boards. */
+    private static final byte[][] PERMUTACIONES = permutaciones(6);
+
+    /** Working state of each thread, rebuilt only when the board size changes. */
+    private static final ThreadLocal<Busqueda> BUSQUEDAS = new ThreadLocal<>();
+
+    /**
+     * Completes the board in place with the first solution found.
+     *
+     * @param tablero the board to complete
+     * @param random source for the order of the digits, or null for ascending order
+     * @return true if a solution was found, false otherwise.
+     */
+    @Override
+    public boolean resolver(byte[] tablero, RandomGenerator random) {
+        Busqueda busqueda = busqueda(tablero);
+        if (!busqueda.cargar(tablero)) {
+            return false; // El tablero ya tiene números repetidos
+        }
+        if (busqueda.buscar(random, 1) == 0) {
+            return false;
+        }
+        System.arraycopy(busqueda.celdas, 0, tablero, 0, tablero.length);
+        return true;
+    }
+
+    /**
+     * Counts the solutions of the board up to the given limit.
+     *
+     * @param tablero the board to analyse
+     * @param limite the maximum number of solutions to look for
+     * @return the number of solutions found, at most {@code limite}.
+     */
+    @Override
+    public int contarSoluciones(byte[] tablero, int limite) {
+        Busqueda busqueda = busqueda(tablero);
+        return busqueda.cargar(tablero) ? busqueda.buscar(null, limite) : 0;
+    }
+
+    /**
+     * Gets the working state of the current thread for the size of a board.
+     *
+     * @param tablero the board to work on
+     * @return the working state, reused between calls.
+     */
+    private static Busqueda busqueda(byte[] tablero) {
+        Busqueda busqueda = BUSQUEDAS.get();
+        if (busqueda == null || busqueda.celdas.length != tablero.length) {
+            busqueda = new Busqueda(BoardGeometry.deCeldas(tablero.length));
+            BUSQUEDAS.set(busqueda);
+        }
+        return busqueda;
+    }
+
+    /**
+     * Builds every permutation of the digits 1 to n in lexicographic order.
+     *
+     * @param n the largest digit
+     * @return the n! permutations.
+     */
+    private static byte[][] permutaciones(int n) {
+        int total = 1;
+        for (int i = 2; i <= n; i++) {
+            total *= i;
+        }
+        byte[][] resultado = new byte[total][n];
+        byte[] actual = new byte[n];
+        for (int i = 0; i < n; i++) {
+            actual[i] = (byte) (i + 1);
+        }
+        for (int p = 0; p < total; p++) {
+            resultado[p] = actual.clone();
+            // Siguiente permutación en orden lexicográfico
+            int i = n - 2;
+            while (i >= 0 && actual[i] > actual[i + 1]) {
+                i--;
+            }
+            if (i < 0) {
+                break;
+            }
+            int j = n - 1;
+            while (actual[j] < actual[i]) {
+                j--;
+            }
+            byte tmp = actual[i];
+            actual[i] = actual[j];
+            actual[j] = tmp;
+            for (int a = i + 1, b = n - 1; a < b; a++, b--) {
+                tmp = actual[a];
+                actual[a] = actual[b];
+                actual[b] = tmp;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Working copy of a board with its row, column and block masks and the
+     * explicit stack of the search, all allocated once.
+     */
+    private static final class Busqueda {
+        private final BoardGeometry geometria;
+        private final int tamano;
+        private final byte[] celdas;
+        private final int[] mascaraFilas;
+        private final int[] mascaraColumnas;
+        private final int[] mascaraBloques;
+        private final int[] vacias;        // Celdas vacías en orden de visita
+        private final int[] probados;      // Dígitos ya probados en cada nivel de la pila
+        private final byte[][] ordenes;    // Orden de los dígitos en cada nivel de la pila
+        private final byte[] ascendente;   // Orden 1..n cuando no hay aleatoriedad
+        private final byte[] barajados;    // Órdenes barajados en el sitio, n por nivel
+
+        /**
+         * Allocates an empty working copy.
+         *
+         * @param geometria the size of the board
+         */
+        private Busqueda(BoardGeometry geometria) {
+            this.geometria = geometria;
+            this.tamano = geometria.getTamano();
+            this.celdas = new byte[geometria.getCeldas()];
+            this.mascaraFilas = new int[tamano];
+            this.mascaraColumnas = new int[tamano];
+            this.mascaraBloques = new int[tamano];
+            this.vacias = new int[geometria.getCeldas()];
+            this.probados = new int[geometria.getCeldas()];
+            this.ordenes = new byte[geometria.getCeldas()][];
+            this.ascendente = new byte[tamano];
+            for (int i = 0; i < tamano; i++) {
+                ascendente[i] = (byte) (i + 1);
+            }
+            this.barajados = new byte[geometria.getCeldas() * tamano];
+        }
+
+        /**
+         * Loads a board into the working copy.
+         *
+         * @param tablero the board to copy
+         * @return false if a number repeats in a unit.
+         */
+        boolean cargar(byte[] tablero) {
+            Arrays.fill(celdas, (byte) 0);
+            Arrays.fill(mascaraFilas, 0);
+            Arrays.fill(mascaraColumnas, 0);
+            Arrays.fill(mascaraBloques, 0);
+            for (int i = 0; i < tablero.length; i++) {
+                int num = tablero[i];
+                if (num != 0) {
+                    if (!esValido(i, num)) {
+                        return false;
+                    }
+                    colocar(i, num);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Iterative depth-first search over the empty cells in row-major order.
+         * Each level of the stack remembers how many digits of its order were
+         * tried, so backtracking resumes where the level left off.
+         *
+         * @param random source for the order of the digits, or null for ascending order
+         * @param limite the number of solutions after which the search stops
+         * @return the number of solutions found, at most {@code limite}; the
+         * working copy holds the last one found.
+         * @throws CancellationException if the thread is interrupted during the search.
+         */
+        int buscar(RandomGenerator random, int limite) {
+            int total = 0;
+            for (int i = 0; i < celdas.length; i++) {
+                if (celdas[i] == 0) {
+                    vacias[total++] = i;
+                }
+            }
+            if (total == 0) {
+                return 1; // El tablero ya está completo
+            }
+
+            int soluciones = 0;
+            int nivel = 0;
+            int pasos = 0;
+            long nodos = 0;
+            long retrocesos = 0;
+            long candidatos = 0;
+            prepararNivel(nivel, random);
+            try {
+                while (nivel >= 0) {
+                    if (++pasos == PASOS_POR_REVISION) {
+                        pasos = 0;
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new CancellationException("Búsqueda interrumpida");
+                        }
+                    }
+                    int celda = vacias[nivel];
+                    if (celdas[celda] != 0) {
+                        quitar(celda, celdas[celda]); // Deshacer el dígito anterior de este nivel
+                    }
+                    byte[] orden = ordenes[nivel];
+                    int base = orden == barajados ? nivel * tamano : 0;
+                    boolean colocado = false;
+                    while (probados[nivel] < tamano) {
+                        int num = orden[base + probados[nivel]++];
+                        candidatos++;
+                        if (esValido(celda, num)) {
+                            colocar(celda, num);
+                            nodos++;
+                            colocado = true;
+                            break;
+                        }
+                    }
+                    if (!colocado) {
+                        nivel--; // Ningún dígito cabe: volver al nivel anterior
+                        retrocesos++;
+                    } else if (nivel + 1 < total) {
+                        prepararNivel(++nivel, random);
+                    } else if (++soluciones >= limite) {
+                        return soluciones; // Se encontró una solución
+                    }
+                }
+                return soluciones;
+            } finally {
+                EngineMetrics.sumarBusqueda(nodos, retrocesos, candidatos); // Una vez por búsqueda, fuera del bucle
+            }
+        }
+
+        /**
+         * Chooses the digit order of a stack level and resets its progress.
+         *
+         * @param nivel the stack level
+         * @param random source for the order of the digits, or null for ascending order
+         */
+        private void prepararNivel(int nivel, RandomGenerator random) {
+            probados[nivel] = 0;
+            if (random == null) {
+                ordenes[nivel] = ascendente;
+            } else if (tamano == 6) {
+                ordenes[nivel] = PERMUTACIONES[random.nextInt(PERMUTACIONES.length)];
+            } else {
+                // Barajar 1..n en el tramo de este nivel (Fisher-Yates)
+                int base = nivel * tamano;
+                System.arraycopy(ascendente, 0, barajados, base, tamano);
+                for (int i = tamano - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    byte tmp = barajados[base + i];
+                    barajados[base + i] = barajados[base + j];
+                    barajados[base + j] = tmp;
+                }
+                ordenes[nivel] = barajados;
+            }
+        }
+
+        /**
+         * Checks whether a number is absent from the row, column and block of a cell.
+         *
+         * @param celda the cell index
+         * @param num the number to check
+         * @return true if the number can be placed, false otherwise.
+         */
+        private boolean esValido(int celda, int num) {
+            return ((mascaraFilas[geometria.fila(celda)] | mascaraColumnas[geometria.columna(celda)]
+                    | mascaraBloques[geometria.bloque(celda)]) & (1 << num)) == 0;
+        }
+
+        /**
+         * Places a number and marks it in the masks.
+         *
+         * @param celda the cell index
+         * @param num the number to place
+         */
+        private void colocar(int celda, int num) {
+            int bit = 1 << num;
+            celdas[celda] = (byte) num;
+            mascaraFilas[geometria.fila(celda)] |= bit;
+            mascaraColumnas[geometria.columna(celda)] |= bit;
+            mascaraBloques[geometria.bloque(celda)] |= bit;
+        }
+
+        /**
+         * Empties a cell and clears its number from the masks.
+         *
+         * @param celda the cell index
+         * @param num the number that was in the cell
+         */
+        private void quitar(int celda, int num) {
+            // La copia de trabajo nunca tiene repetidos, así que basta con limpiar el bit
+            int bit = ~(1 << num);
+            celdas[celda] = 0;
+            mascaraFilas[geometria.fila(celda)] &= bit;
+            mascaraColumnas[geometria.columna(celda)] &= bit;
+            mascaraBloques[geometria.bloque(celda)] &= bit;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.EngineMetrics;
+
+import java.util.concurrent.CancellationException;
+import java.util.random.RandomGenerator;
+
+/**
+ * Exact-cover solver based on Knuth's Dancing Links (Algorithm X).
+ * <p>
+ * An n x n Sudoku is modelled with 4n² constraint columns (144 for 6x6): one
+ * per cell, one per row and digit, one per column and digit and one per block
+ * and digit. Each candidate (cell, digit) is a matrix row covering exactly four
+ * columns. The search always branches on the column with the fewest remaining
+ * rows, which is the most constrained cell or digit placement.
+ */
+public class DancingLinksSolver implements SudokuSolver {
+
+    /**
+     * Completes the board in place with the first solution found.
+     *
+     * @param tablero the board to complete
+     * @param random source for the order of the candidates, or null for ascending order
+     * @return true if a solution was found, false otherwise.
+     */
+    @Override
+    public boolean resolver(byte[] tablero, RandomGenerator random) {
+        Matriz matriz = Matriz.crear(tablero, random);
+        if (matriz == null || matriz.contar(1) == 0) {
+            return false;
+        }
+        for (int candidato : matriz.primeraSolucion) {
+            if (candidato >= 0) {
+                tablero[candidato / matriz.tamano] = (byte) (candidato % matriz.tamano + 1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts the solutions of the board up to the given limit.
+     *
+     * @param tablero the board to analyse
+     * @param limite the maximum number of solutions to look for
+     * @return the number of solutions found, at most {@code limite}.
+     */
+    @Override
+    public int contarSoluciones(byte[] tablero, int limite) {
+        Matriz matriz = Matriz.crear(tablero, null);
+        return matriz == null ? 0 : matriz.contar(limite);
+    }
+
+    /**
+     * Toroidal doubly linked matrix stored in parallel int arrays. Node 0 is the
+     * root, nodes 1 to 4n² are the column headers and the rest are candidate nodes.
+     */
+    private static final class Matriz {
+        private final int tamano;
+        private final int celdas;
+        private final int columnas;      // Restricciones: 4 por celda
+        private final int[] izquierda;
+        private final int[] derecha;
+        private final int[] arriba;
+        private final int[] abajo;
+        private final int[] columna;
+        private final int[] candidato;   // Candidato (celda * n + dígito - 1) de cada nodo
+        private final int[] filasPorColumna;
+        private final int[] pila;
+        private final int[] primeraSolucion;
+        private int soluciones;
+        private int pasos;               // Nodos visitados desde la última revisión de interrupción
+        private long nodos;
+        private long retrocesos;
+        private long candidatos;
+
+        /**
+         * Allocates the node arrays for a board size.
+         *
+         * @param geometria the size of the board
+         */
+        private Matriz(BoardGeometry geometria) {
+            tamano = geometria.getTamano();
+            celdas = geometria.getCeldas();
+            columnas = 4 * celdas;
+            int nodos = 1 + columnas + celdas * tamano * 4;
+            filasPorColumna = new int[columnas + 1];
+            pila = new int[celdas];
+            primeraSolucion = new int[celdas];
+            izquierda = new int[nodos];
+            derecha = new int[nodos];
+            arriba = new int[nodos];
+            abajo = new int[nodos];
+            columna = new int[nodos];
+            candidato = new int[nodos];
+        }
+
+        /**
+         * Builds the exact-cover matrix for the empty cells of a board. Constraints
+         * already satisfied by the given numbers are left out of the header list and
+         * only candidates compatible with them become rows.
+         *
+         * @param tablero the board to model
+         * @param random source used to shuffle the candidates of each cell, or null
+         * @return the matrix, or null if a number repeats in a unit.
+         */
+        static Matriz crear(byte[] tablero, RandomGenerator random) {
+            BoardGeometry geometria = BoardGeometry.deCeldas(tablero.length);
+            int tamano = geometria.getTamano();
+            int celdas = geometria.getCeldas();
+            int[] mascaraFilas = new int[tamano];
+            int[] mascaraColumnas = new int[tamano];
+            int[] mascaraBloques = new int[tamano];
+            for (int i = 0; i < celdas; i++) {
+                int num = tablero[i];
+                if (num == 0) {
+                    continue;
+                }
+                int bit = 1 << num;
+                int row = geometria.fila(i);
+                int col = geometria.columna(i);
+                int bloque = geometria.bloque(i);
+                if (((mascaraFilas[row] | mascaraColumnas[col] | mascaraBloques[bloque]) & bit) != 0) {
+                    return null; // Número repetido: no hay solución
+                }
+                mascaraFilas[row] |= bit;
+                mascaraColumnas[col] |= bit;
+                mascaraBloques[bloque] |= bit;
+            }
+
+            Matriz matriz = new Matriz(geometria);
+            matriz.enlazarCabeceras(tablero, mascaraFilas, mascaraColumnas, mascaraBloques);
+
+            int siguiente = matriz.columnas + 1;
+            int[] digitos = new int[tamano];
+            for (int i = 0; i < celdas; i++) {
+                if (tablero[i] != 0) {
+                    continue;
+                }
+                int row = geometria.fila(i);
+                int col = geometria.columna(i);
+                int bloque = geometria.bloque(i);
+                int ocupados = mascaraFilas[row] | mascaraColumnas[col] | mascaraBloques[bloque];
+                for (int d = 0; d < tamano; d++) {
+                    digitos[d] = d;
+                }
+                if (random != null) {
+                    for (int d = tamano - 1; d > 0; d--) {
+                        int j = random.nextInt(d + 1);
+                        int tmp = digitos[d];
+                        digitos[d] = digitos[j];
+                        digitos[j] = tmp;
+                    }
+                }
+                for (int d : digitos) {
+                    if ((ocupados & (1 << (d + 1))) == 0) {
+                        siguiente = matriz.agregarFila(siguiente, i * tamano + d,
+                                1 + i,
+                                1 + celdas + row * tamano + d,
+                                1 + 2 * celdas + col * tamano + d,
+                                1 + 3 * celdas + bloque * tamano + d);
+                    }
+                }
+            }
+            return matriz;
+        }
+
+        /**
+         * Links the root with the headers of the constraints not yet satisfied.
+         *
+         * @param tablero the board being modelled
+         * @param mascaraFilas digits present in each row
+         * @param mascaraColumnas digits present in each column
+         * @param mascaraBloques digits present in each block
+         */
+        private void enlazarCabeceras(byte[] tablero, int[] mascaraFilas, int[] mascaraColumnas, int[] mascaraBloques) {
+            int anterior = 0;
+            for (int c = 1; c <= columnas; c++) {
+                arriba[c] = c;
+                abajo[c] = c;
+                columna[c] = c;
+                int restriccion = (c - 1) / celdas;
+                int unidad = ((c - 1) % celdas) / tamano;
+                int bit = 1 << (((c - 1) % tamano) + 1);
+                boolean satisfecha;
+                switch (restriccion) {
+                    case 0 -> satisfecha = tablero[c - 1] != 0;
+                    case 1 -> satisfecha = (mascaraFilas[unidad] & bit) != 0;
+                    case 2 -> satisfecha = (mascaraColumnas[unidad] & bit) != 0;
+                    default -> satisfecha = (mascaraBloques[unidad] & bit) != 0;
+                }
+                if (satisfecha) {
+                    izquierda[c] = c;
+                    derecha[c] = c;
+                    continue;
+                }
+                derecha[anterior] = c;
+                izquierda[c] = anterior;
+                anterior = c;
+            }
+            derecha[anterior] = 0;
+            izquierda[0] = anterior;
+        }
+
+        /**
+         * Appends a candidate row made of four nodes, one in each given column.
+         *
+         * @param primero the index of the first free node
+         * @param idCandidato the candidate represented by the row
+         * @param celda the column of the cell constraint
+         * @param fila the column of the row-digit constraint
+         * @param col the column of the column-digit constraint
+         * @param bloque the column of the block-digit constraint
+         * @return the index of the next free node.
+         */
+        private int agregarFila(int primero, int idCandidato, int celda, int fila, int col, int bloque) {
+            enlazar(primero, idCandidato, celda, primero + 3, primero + 1);
+            enlazar(primero + 1, idCandidato, fila, primero, primero + 2);
+            enlazar(primero + 2, idCandidato, col, primero + 1, primero + 3);
+            enlazar(primero + 3, idCandidato, bloque, primero + 2, primero);
+            return primero + 4;
+        }
+
+        /**
+         * Appends a node at the bottom of a column and links it inside its row.
+         *
+         * @param nodo the index of the node
+         * @param idCandidato the candidate represented by the row
+         * @param c the column of the node
+         * @param previo the node to its left in the row
+         * @param proximo the node to its right in the row
+         */
+        private void enlazar(int nodo, int idCandidato, int c, int previo, int proximo) {
+            columna[nodo] = c;
+            candidato[nodo] = idCandidato;
+            // Insertar al final de la columna
+            arriba[nodo] = arriba[c];
+            abajo[nodo] = c;
+            abajo[arriba[c]] = nodo;
+            arriba[c] = nodo;
+            filasPorColumna[c]++;
+            // Enlazar horizontalmente dentro de la fila
+            izquierda[nodo] = previo;
+            derecha[nodo] = proximo;
+        }
+
+        /**
+         * Runs the search from the root and adds its work to the engine metrics.
+         *
+         * @param limite the number of solutions after which the search stops
+         * @return the number of solutions found, at most {@code limite}.
+         */
+        int contar(int limite) {
+            try {
+                return buscar(0, limite);
+            } finally {
+                EngineMetrics.sumarBusqueda(nodos, retrocesos, candidatos);
+            }
+        }
+
+        /**
+         * Recursive Algorithm X search.
+         *
+         * @param profundidad the number of candidates chosen so far
+         * @param limite the number of solutions after which the search stops
+         * @return the number of solutions found so far.
+         * @throws CancellationException if the thread is interrupted during the search.
+         */
+        int buscar(int profundidad, int limite) {
+            if (++pasos == BacktrackingSolver.PASOS_POR_REVISION) {
+                pasos = 0;
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Búsqueda interrumpida");
+                }
+            }
+            if (derecha[0] == 0) {
+                if (soluciones == 0) {
+                    System.arraycopy(pila, 0, primeraSolucion, 0, profundidad);
+                    for (int i = profundidad; i < celdas; i++) {
+                        primeraSolucion[i] = -1;
+                    }
+                }
+                return ++soluciones;
+            }
+
+            // Elegir la columna con menos filas (la más restringida)
+            int elegida = derecha[0];
+            for (int c = derecha[elegida]; c != 0; c = derecha[c]) {
+                if (filasPorColumna[c] < filasPorColumna[elegida]) {
+                    elegida = c;
+                }
+            }
+            if (filasPorColumna[elegida] == 0) {
+                return soluciones; // Restricción imposible de cumplir
+            }
+
+            cubrir(elegida);
+            candidatos += filasPorColumna[elegida];
+            for (int fila = abajo[elegida]; fila != elegida && soluciones < limite; fila = abajo[fila]) {
+                nodos++;
+                pila[profundidad] = candidato[fila];
+                for (int j = derecha[fila]; j != fila; j = derecha[j]) {
+                    cubrir(columna[j]);
+                }
+                buscar(profundidad + 1, limite);
+                for (int j = izquierda[fila]; j != fila; j = izquierda[j]) {
+                    descubrir(columna[j]);
+                }
+                retrocesos++;
+            }
+            descubrir(elegida);
+            return soluciones;
+        }
+
+        /**
+         * Removes a column and every row that intersects it.
+         *
+         * @param c the column header
+         */
+        private void cubrir(int c) {
+            derecha[izquierda[c]] = derecha[c];
+            izquierda[derecha[c]] = izquierda[c];
+            for (int i = abajo[c]; i != c; i = abajo[i]) {
+                for (int j = derecha[i]; j != i; j = derecha[j]) {
+                    abajo[arriba[j]] = abajo[j];
+                    arriba[abajo[j]] = arriba[j];
+                    filasPorColumna[columna[j]]--;
+                }
+            }
+        }
+
+        /**
+         * Restores a column previously removed with {@link #cubrir(int)}.
+         *
+         * @param c the column header
+         */
+        private void descubrir(int c) {
+            for (int i = arriba[c]; i != c; i = arriba[i]) {
+                for (int j = izquierda[i]; j != i; j = izquierda[j]) {
+                    filasPorColumna[columna[j]]++;
+                    abajo[arriba[j]] = j;
+                    arriba[abajo[j]] = j;
+                }
+            }
+            derecha[izquierda[c]] = c;
+            izquierda[derecha[c]] = c;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.EngineMetrics;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.random.RandomGenerator;
+
+/**
+ * Backtracking solver that always branches on the empty cell with the fewest
+ * candidates (minimum remaining values). Choosing a cell costs a scan of the
+ * board, but the search tree is far smaller than the row-major order of
+ * {@link BacktrackingSolver} on sparse or contradictory boards, where a cell
+ * with no candidate ends the branch at once.
+ * <p>
+ * Like {@link BacktrackingSolver}, the search is iterative over an explicit
+ * stack and each thread reuses its own working state.
+ */
+public class MrvSolver implements SudokuSolver {
+    /** Working state of each thread, rebuilt only when the board size changes. */
+    private static final ThreadLocal<Busqueda> BUSQUEDAS = new ThreadLocal<>();
+
+    /**
+     * Completes the board in place with the first solution found.
+     *
+     * @param tablero the board to complete
+     * @param random source for the order of the candidates, or null for ascending order
+     * @return true if a solution was found, false otherwise.
+     */
+    @Override
+    public boolean resolver(byte[] tablero, RandomGenerator random) {
+        Busqueda busqueda = busqueda(tablero);
+        if (!busqueda.cargar(tablero) || busqueda.buscar(random, 1) == 0) {
+            return false;
+        }
+        System.arraycopy(busqueda.solucion, 0, tablero, 0, tablero.length);
+        return true;
+    }
+
+    /**
+     * Counts the solutions of the board up to the given limit.
+     *
+     * @param tablero the board to analyse
+     * @param limite the maximum number of solutions to look for
+     * @return the number of solutions found, at most {@code limite}.
+     */
+    @Override
+    public int contarSoluciones(byte[] tablero, int limite) {
+        Busqueda busqueda = busqueda(tablero);
+        return busqueda.cargar(tablero) ? busqueda.buscar(null, limite) : 0;
+    }
+
+    /**
+     * Gets the working state of the current thread for the size of a board.
+     *
+     * @param tablero the board to work on
+     * @return the working state, reused between calls.
+     */
+    private static Busqueda busqueda(byte[] tablero) {
+        Busqueda busqueda = BUSQUEDAS.get();
+        if (busqueda == null || busqueda.celdas.length != tablero.length) {
+            busqueda = new Busqueda(BoardGeometry.deCeldas(tablero.length));
+            BUSQUEDAS.set(busqueda);
+        }
+        return busqueda;
+    }
+
+    /**
+     * Working copy of a board with its row, column and block masks and the
+     * explicit stack of the search, all allocated once.
+     */
+    private static final class Busqueda {
+        private final BoardGeometry geometria;
+        private final int todos;           // Bit n = dígito n
+        private final byte[] celdas;
+        private final byte[] solucion;     // Primera solución encontrada
+        private final int[] mascaraFilas;
+        private final int[] mascaraColumnas;
+        private final int[] mascaraBloques;
+        private final int[] elegidas;      // Celda elegida en cada nivel de la pila
+        private final int[] candidatos;    // Dígitos aún por probar en cada nivel
+
+        /**
+         * Allocates an empty working copy.
+         *
+         * @param geometria the size of the board
+         */
+        private Busqueda(BoardGeometry geometria) {
+            this.geometria = geometria;
+            this.todos = ((1 << geometria.getTamano()) - 1) << 1;
+            this.celdas = new byte[geometria.getCeldas()];
+            this.solucion = new byte[geometria.getCeldas()];
+            this.mascaraFilas = new int[geometria.getTamano()];
+            this.mascaraColumnas = new int[geometria.getTamano()];
+            this.mascaraBloques = new int[geometria.getTamano()];
+            this.elegidas = new int[geometria.getCeldas() + 1];   // Un nivel más para el tablero completo
+            this.candidatos = new int[geometria.getCeldas() + 1];
+        }
+
+        /**
+         * Loads a board into the working copy.
+         *
+         * @param tablero the board to copy
+         * @return false if a number repeats in a unit.
+         */
+        boolean cargar(byte[] tablero) {
+            Arrays.fill(celdas, (byte) 0);
+            Arrays.fill(mascaraFilas, 0);
+            Arrays.fill(mascaraColumnas, 0);
+            Arrays.fill(mascaraBloques, 0);
+            for (int i = 0; i < tablero.length; i++) {
+                int num = tablero[i];
+                if (num != 0) {
+                    if ((libres(i) & (1 << num)) == 0) {
+                        return false;
+                    }
+                    colocar(i, num);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Iterative depth-first search that branches on the most constrained
+         * empty cell. Each level of the stack keeps the candidates it has not
+         * tried yet, so backtracking resumes where the level left off.
+         *
+         * @param random source for the order of the candidates, or null for ascending order
+         * @param limite the number of solutions after which the search stops
+         * @return the number of solutions found, at most {@code limite}; the first
+         * one is kept in {@code solucion}.
+         * @throws CancellationException if the thread is interrupted during the search.
+         */
+        int buscar(RandomGenerator random, int limite) {
+            int soluciones = 0;
+            int nivel = 0;
+            int pasos = 0;
+            long nodos = 0;
+            long retrocesos = 0;
+            long candidatosProbados = 0;
+            boolean elegida = elegir(0);
+            try {
+                while (true) {
+                    if (++pasos == BacktrackingSolver.PASOS_POR_REVISION) {
+                        pasos = 0;
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new CancellationException("Búsqueda interrumpida");
+                        }
+                    }
+                    if (!elegida) {
+                        if (candidatos[nivel] < 0) {
+                            // Tablero completo: es una solución
+                            if (soluciones++ == 0) {
+                                System.arraycopy(celdas, 0, solucion, 0, celdas.length);
+                            }
+                            if (soluciones >= limite) {
+                                return soluciones;
+                            }
+                        }
+                        // Volver al último nivel que aún tenga candidatos
+                        do {
+                            if (nivel == 0) {
+                                return soluciones;
+                            }
+                            nivel--;
+                            retrocesos++;
+                            quitar(elegidas[nivel], celdas[elegidas[nivel]]);
+                        } while (candidatos[nivel] == 0);
+                    } else {
+                        candidatosProbados += Integer.bitCount(candidatos[nivel]);
+                    }
+                    int bit = siguiente(candidatos[nivel], random);
+                    candidatos[nivel] ^= bit;
+                    colocar(elegidas[nivel], Integer.numberOfTrailingZeros(bit));
+                    nodos++;
+                    elegida = elegir(++nivel);
+                }
+            } finally {
+                EngineMetrics.sumarBusqueda(nodos, retrocesos, candidatosProbados); // Una vez por búsqueda, fuera del bucle
+            }
+        }
+
+        /**
+         * Chooses the empty cell with fewest candidates for a stack level. When
+         * no cell can be chosen, the candidates of the level are set to -1 if
+         * the board is full and to 0 if some cell has no candidate.
+         *
+         * @param nivel the stack level
+         * @return true if a cell with candidates was chosen.
+         */
+        private boolean elegir(int nivel) {
+            int mejor = -1;
+            int mejorCandidatos = 0;
+            int minimo = Integer.MAX_VALUE;
+            for (int celda = 0; celda < celdas.length; celda++) {
+                if (celdas[celda] != 0) {
+                    continue;
+                }
+                int posibles = libres(celda);
+                int cuenta = Integer.bitCount(posibles);
+                if (cuenta < minimo) {
+                    if (cuenta == 0) {
+                        candidatos[nivel] = 0; // Callejón sin salida
+                        return false;
+                    }
+                    minimo = cuenta;
+                    mejor = celda;
+                    mejorCandidatos = posibles;
+                }
+            }
+            if (mejor < 0) {
+                candidatos[nivel] = -1;
+                return false;
+            }
+            elegidas[nivel] = mejor;
+            candidatos[nivel] = mejorCandidatos;
+            return true;
+        }
+
+        /**
+         * Picks the next candidate to try from a mask.
+         *
+         * @param restantes the candidates not tried yet, not empty
+         * @param random source for the choice, or null to take the smallest digit
+         * @return the bit of the chosen candidate.
+         */
+        private static int siguiente(int restantes, RandomGenerator random) {
+            if (random == null) {
+                return restantes & -restantes;
+            }
+            for (int salto = random.nextInt(Integer.bitCount(restantes)); salto > 0; salto--) {
+                restantes &= restantes - 1;
+            }
+            return restantes & -restantes;
+        }
+
+        /**
+         * Computes the digits that still fit in a cell.
+         *
+         * @param celda the cell index
+         * @return the mask of the digits that fit.
+         */
+        private int libres(int celda) {
+            return todos & ~(mascaraFilas[geometria.fila(celda)] | mascaraColumnas[geometria.columna(celda)]
+                    | mascaraBloques[geometria.bloque(celda)]);
+        }
+
+        /**
+         * Places a number and marks it in the masks.
+         *
+         * @param celda the cell index
+         * @param num the number to place
+         */
+        private void colocar(int celda, int num) {
+            int bit = 1 << num;
+            celdas[celda] = (byte) num;
+            mascaraFilas[geometria.fila(celda)] |= bit;
+            mascaraColumnas[geometria.columna(celda)] |= bit;
+            mascaraBloques[geometria.bloque(celda)] |= bit;
+        }
+
+        /**
+         * Empties a cell and clears its number from the masks.
+         *
+         * @param celda the cell index
+         * @param num the number that was in the cell
+         */
+        private void quitar(int celda, int num) {
+            int bit = ~(1 << num);
+            celdas[celda] = 0;
+            mascaraFilas[geometria.fila(celda)] &= bit;
+            mascaraColumnas[geometria.columna(celda)] &= bit;
+            mascaraBloques[geometria.bloque(celda)] &= bit;
+        }
+    }
+}
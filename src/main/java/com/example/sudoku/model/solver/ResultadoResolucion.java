@@ -0,0 +1,108 @@
+package com.example.sudoku.model.solver;
+
+/**
+ * Outcome of a race of solvers in a {@link SolverPortfolio}: whether an answer
+ * arrived before the deadline, the answer itself, which strategy gave it and
+ * how long it took.
+ */
+public final class ResultadoResolucion {
+    /**
+     * How the race ended.
+     */
+    public enum Estado {
+        /** A solution was found, or at least one solution was counted. */
+        RESUELTO,
+        /** The board has no solution. */
+        SIN_SOLUCION,
+        /** No strategy answered before the deadline. */
+        TIEMPO_AGOTADO
+    }
+
+    private final Estado estado;
+    private final byte[] tablero;
+    private final int soluciones;
+    private final String estrategia;
+    private final long nanos;
+
+    /**
+     * Creates a race report.
+     *
+     * @param estado how the race ended
+     * @param tablero the solved board, or null if there is none
+     * @param soluciones the number of solutions counted
+     * @param estrategia the name of the winning strategy, or null on timeout
+     * @param nanos the time spent, in nanoseconds
+     */
+    ResultadoResolucion(Estado estado, byte[] tablero, int soluciones, String estrategia, long nanos) {
+        this.estado = estado;
+        this.tablero = tablero;
+        this.soluciones = soluciones;
+        this.estrategia = estrategia;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Gets how the race ended.
+     *
+     * @return the state of the result.
+     */
+    public Estado getEstado() {
+        return estado;
+    }
+
+    /**
+     * Checks whether the deadline passed before any strategy answered.
+     *
+     * @return true on timeout.
+     */
+    public boolean isTiempoAgotado() {
+        return estado == Estado.TIEMPO_AGOTADO;
+    }
+
+    /**
+     * Gets the solved board of a solve race.
+     *
+     * @return a copy of the solution, or null if none was found or the race was a count.
+     */
+    public byte[] getTablero() {
+        return tablero != null ? tablero.clone() : null;
+    }
+
+    /**
+     * Gets the number of solutions counted.
+     *
+     * @return the count, at most the limit asked; 1 for a solved board and 0 when
+     * there is no solution or on timeout.
+     */
+    public int getSoluciones() {
+        return soluciones;
+    }
+
+    /**
+     * Gets the strategy that answered first.
+     *
+     * @return the simple class name of the winning solver, or null on timeout.
+     */
+    public String getEstrategia() {
+        return estrategia;
+    }
+
+    /**
+     * Gets the time spent in the race.
+     *
+     * @return the latency in nanoseconds.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Formats the report for logs.
+     *
+     * @return a one-line description of the race.
+     */
+    @Override
+    public String toString() {
+        return String.format("estado=%s soluciones=%d estrategia=%s latencia=%.2fms", estado, soluciones, estrategia, nanos / 1e6);
+    }
+}
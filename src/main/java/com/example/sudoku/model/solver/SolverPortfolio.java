@@ -0,0 +1,193 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.EngineMetrics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Races several solving strategies on a thread pool and keeps the first answer.
+ * Different strategies are fast on different boards: the row-major backtracker
+ * on dense 6x6 boards, the MRV backtracker on sparse or contradictory ones and
+ * Dancing Links on large boards. Once one answers, the others are cancelled by
+ * interrupting their threads; if none answers before the deadline, all are
+ * cancelled and a {@link ResultadoResolucion.Estado#TIEMPO_AGOTADO} result is
+ * returned, so a pathological board never keeps the caller or a core busy.
+ * <p>
+ * Strategies are expected to honor interruption as described in
+ * {@link SudokuSolver}; one that does not keeps its thread until it finishes.
+ */
+public class SolverPortfolio {
+    private static SolverPortfolio compartido;
+
+    private final List<SudokuSolver> estrategias;
+    private final ExecutorService ejecutor;
+
+    /**
+     * Creates a portfolio with the row-major backtracker, the MRV backtracker and
+     * Dancing Links.
+     */
+    public SolverPortfolio() {
+        this(List.of(new BacktrackingSolver(), new MrvSolver(), new DancingLinksSolver()));
+    }
+
+    /**
+     * Creates a portfolio with the given strategies on its own pool of daemon threads,
+     * large enough to run every strategy of every core's race at once.
+     *
+     * @param estrategias the solvers to race, at least one
+     */
+    public SolverPortfolio(List<SudokuSolver> estrategias) {
+        if (estrategias.isEmpty()) {
+            throw new IllegalArgumentException("Se requiere al menos una estrategia");
+        }
+        this.estrategias = List.copyOf(estrategias);
+        AtomicInteger hilos = new AtomicInteger();
+        int tamano = estrategias.size() * Runtime.getRuntime().availableProcessors();
+        this.ejecutor = Executors.newFixedThreadPool(tamano, r -> {
+            Thread hilo = new Thread(r, "sudoku-portfolio-" + hilos.incrementAndGet());
+            hilo.setDaemon(true); // No impide que la aplicación termine
+            return hilo;
+        });
+    }
+
+    /**
+     * Gets the portfolio shared by the application, creating it on first use.
+     *
+     * @return the shared portfolio with the default strategies.
+     */
+    public static synchronized SolverPortfolio getCompartido() {
+        if (compartido == null) {
+            compartido = new SolverPortfolio();
+        }
+        return compartido;
+    }
+
+    /**
+     * Solves a board with the first strategy that answers before the deadline.
+     * The board is not modified.
+     *
+     * @param tablero the board to solve
+     * @param plazo the longest time to wait
+     * @return the result, with the solved board if one was found.
+     * @throws IllegalArgumentException if the board has no known size.
+     */
+    public ResultadoResolucion resolver(byte[] tablero, Duration plazo) {
+        BoardGeometry.deCeldas(tablero.length); // Rechazar tamaños desconocidos en el hilo que llama
+        ResultadoResolucion resultado = competir(plazo, estrategia -> {
+            byte[] copia = tablero.clone();
+            return estrategia.resolver(copia, null) ? copia : null;
+        }, false);
+        EngineMetrics.getResolucion().registrar(resultado.getNanos());
+        return resultado;
+    }
+
+    /**
+     * Counts the solutions of a board, up to a limit, with the first strategy
+     * that answers before the deadline.
+     *
+     * @param tablero the board to analyse; it is not modified
+     * @param limite the maximum number of solutions to look for
+     * @param plazo the longest time to wait
+     * @return the result with the number of solutions found.
+     * @throws IllegalArgumentException if the board has no known size.
+     */
+    public ResultadoResolucion contarSoluciones(byte[] tablero, int limite, Duration plazo) {
+        BoardGeometry.deCeldas(tablero.length);
+        ResultadoResolucion resultado = competir(plazo, estrategia -> estrategia.contarSoluciones(tablero.clone(), limite), true);
+        EngineMetrics.getValidacion().registrar(resultado.getNanos());
+        return resultado;
+    }
+
+    /**
+     * Stops the threads of the portfolio. Races in progress are cancelled.
+     */
+    public void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * Runs one task per strategy and waits for the first one that completes
+     * normally, then cancels the rest.
+     *
+     * @param plazo the longest time to wait
+     * @param trabajo the work of one strategy: a solved board or null, or a count
+     * @param conteo true if the work returns a count, false if it returns a board
+     * @return the result of the race.
+     * @throws IllegalStateException if every strategy failed.
+     */
+    private ResultadoResolucion competir(Duration plazo, Trabajo trabajo, boolean conteo) {
+        long inicio = System.nanoTime();
+        long fin = inicio + plazo.toNanos();
+        ExecutorCompletionService<Object> carrera = new ExecutorCompletionService<>(ejecutor);
+        List<Future<Object>> tareas = new ArrayList<>(estrategias.size());
+        List<SudokuSolver> lanzadas = new ArrayList<>(estrategias.size());
+        for (SudokuSolver estrategia : estrategias) {
+            tareas.add(carrera.submit(() -> trabajo.ejecutar(estrategia)));
+            lanzadas.add(estrategia);
+        }
+
+        ExecutionException fallo = null;
+        int fallos = 0;
+        try {
+            for (int pendientes = tareas.size(); pendientes > 0; pendientes--) {
+                Future<Object> terminada = carrera.poll(fin - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (terminada == null) {
+                    break; // Se agotó el plazo
+                }
+                Object respuesta;
+                try {
+                    respuesta = terminada.get();
+                } catch (ExecutionException e) {
+                    fallo = e; // Esta estrategia falló: esperar a las demás
+                    fallos++;
+                    continue;
+                }
+                String ganadora = lanzadas.get(tareas.indexOf(terminada)).getClass().getSimpleName();
+                long nanos = System.nanoTime() - inicio;
+                if (conteo) {
+                    int soluciones = (Integer) respuesta;
+                    return new ResultadoResolucion(soluciones > 0 ? ResultadoResolucion.Estado.RESUELTO
+                            : ResultadoResolucion.Estado.SIN_SOLUCION, null, soluciones, ganadora, nanos);
+                }
+                byte[] solucion = (byte[]) respuesta;
+                return new ResultadoResolucion(solucion != null ? ResultadoResolucion.Estado.RESUELTO
+                        : ResultadoResolucion.Estado.SIN_SOLUCION, solucion, solucion != null ? 1 : 0, ganadora, nanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // El llamador abandona la carrera
+        } finally {
+            for (Future<Object> tarea : tareas) {
+                tarea.cancel(true); // Interrumpir las estrategias que siguen buscando
+            }
+        }
+        if (fallos == tareas.size()) {
+            throw new IllegalStateException("Todas las estrategias fallaron", fallo.getCause());
+        }
+        return new ResultadoResolucion(ResultadoResolucion.Estado.TIEMPO_AGOTADO, null, 0, null,
+                System.nanoTime() - inicio);
+    }
+
+    /**
+     * Work run by one strategy of a race.
+     */
+    @FunctionalInterface
+    private interface Trabajo {
+        /**
+         * Runs the work with a strategy.
+         *
+         * @param estrategia the solver to use
+         * @return the answer of the strategy.
+         */
+        Object ejecutar(SudokuSolver estrategia);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.sudoku.model.solver;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Strategy used by the Sudoku model to complete boards and count their solutions.
+ * Boards are stored row-major with 0 for empty cells; their size is deduced from the
+ * length of the array, one of the sizes of {@link com.example.sudoku.model.BoardGeometry}.
+ * Implementations must be safe to call from several threads at once, and should
+ * check the interrupt status of the calling thread while searching and stop
+ * with a {@link java.util.concurrent.CancellationException} when it is set, so a
+ * {@link SolverPortfolio} can cancel the strategies that lost the race.
+ */
+public interface SudokuSolver {
+    /**
+     * Completes the board in place with the first solution found.
+     * @param tablero The board to complete.
+     * @param random Source for the order in which digits are tried, or null to try them in ascending order.
+     * @return True if a solution was found; otherwise, false and the board is left unchanged.
+     */
+    boolean resolver(byte[] tablero, RandomGenerator random);
+
+    /**
+     * Counts the solutions of the board, stopping as soon as the limit is reached.
+     * @param tablero The board to analyse; it is left unchanged.
+     * @param limite The maximum number of solutions to look for.
+     * @return The number of solutions found, never greater than {@code limite}.
+     */
+    int contarSoluciones(byte[] tablero, int limite);
+}
@@ -1,7 +1,9 @@
 package com.example.sudoku.view;
 
 import com.example.sudoku.controller.SudokuGameController;
+import com.example.sudoku.model.GameJournal;
 import com.example.sudoku.model.ISudoku;
+import com.example.sudoku.model.NivelDificultad;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -42,4 +44,22 @@ public class SudokuGameStage extends Stage {
     public void setSudoku(ISudoku sudoku) {
         controller.setSudoku(sudoku); // Llamar al método en el controlador
     }
+
+    /**
+     * Sets the difficulty band used for new games.
+     *
+     * @param nivel the difficulty band.
+     */
+    public void setNivel(NivelDificultad nivel) {
+        controller.setNivel(nivel);
+    }
+
+    /**
+     * Sets the journal that records the game, closed together with this stage.
+     *
+     * @param diario the journal of the game.
+     */
+    public void setDiario(GameJournal diario) {
+        setOnHidden(evento -> diario.close()); // Escribe lo pendiente al cerrar la ventana
+    }
 }
@@ -2,6 +2,8 @@ module com.example.sudoku {
     // Required dependencies
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.jfr;
+    requires jdk.httpserver;
 
     // Apertura de paquetes para el cargador de FXML
     opens com.example.sudoku to javafx.fxml;
@@ -0,0 +1,105 @@
+package com.example.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the difficulty band the grader assigns to known puzzles, one or more
+ * per band, and the hardest technique that puts each one there.
+ */
+class DifficultyGraderTest {
+    private final DifficultyGrader grader = new DifficultyGrader();
+
+    /**
+     * A 6x6 puzzle solved with naked singles only is easy.
+     */
+    @Test
+    void soloSolitariosDesnudosEsFacil() {
+        Calificacion calificacion = grader.calificar(PuzzleCodec.desdeTexto("041603000000500401003000035040000010"));
+        assertTrue(calificacion.isResuelto());
+        assertEquals(Tecnica.SOLITARIO_DESNUDO, calificacion.getTecnicaMasDificil());
+        assertEquals(NivelDificultad.FACIL, calificacion.getNivel());
+    }
+
+    /**
+     * A classic 9x9 puzzle solved with naked singles only is easy as well.
+     */
+    @Test
+    void clasicoDe9x9EsFacil() {
+        String texto = "003020600900305001001806400008102900700000008006708200002609500800203009005010300";
+        byte[] tablero = new byte[texto.length()];
+        for (int i = 0; i < tablero.length; i++) {
+            tablero[i] = (byte) (texto.charAt(i) - '0');
+        }
+        Calificacion calificacion = new DifficultyGrader(BoardGeometry.TABLERO_9X9).calificar(tablero);
+        assertTrue(calificacion.isResuelto());
+        assertEquals(NivelDificultad.FACIL, calificacion.getNivel());
+    }
+
+    /**
+     * A puzzle that needs a hidden single is medium.
+     */
+    @Test
+    void solitarioOcultoEsMedio() {
+        Calificacion calificacion = grader.calificar(PuzzleCodec.desdeTexto("400005005600050430002000500001020003"));
+        assertTrue(calificacion.isResuelto());
+        assertEquals(Tecnica.SOLITARIO_OCULTO, calificacion.getTecnicaMasDificil());
+        assertEquals(NivelDificultad.MEDIO, calificacion.getNivel());
+    }
+
+    /**
+     * A puzzle that needs locked candidates is hard.
+     */
+    @Test
+    void candidatosBloqueadosEsDificil() {
+        Calificacion calificacion = grader.calificar(PuzzleCodec.desdeTexto("500004040010001200030040100400020060"));
+        assertTrue(calificacion.isResuelto());
+        assertEquals(Tecnica.CANDIDATOS_BLOQUEADOS, calificacion.getTecnicaMasDificil());
+        assertEquals(NivelDificultad.DIFICIL, calificacion.getNivel());
+    }
+
+    /**
+     * A puzzle that needs a naked pair is hard.
+     */
+    @Test
+    void parejaDesnudaEsDificil() {
+        Calificacion calificacion = grader.calificar(PuzzleCodec.desdeTexto("020000600201400306060000004000100402"));
+        assertTrue(calificacion.isResuelto());
+        assertEquals(Tecnica.PAREJA_DESNUDA, calificacion.getTecnicaMasDificil());
+        assertEquals(NivelDificultad.DIFICIL, calificacion.getNivel());
+    }
+
+    /**
+     * A puzzle the known techniques cannot finish is expert, and pays the penalty.
+     */
+    @Test
+    void sinTerminarEsExperto() {
+        Calificacion calificacion = grader.calificar(PuzzleCodec.desdeTexto("060020300050030005006004040000003140"));
+        assertFalse(calificacion.isResuelto());
+        assertEquals(NivelDificultad.EXPERTO, calificacion.getNivel());
+        assertTrue(calificacion.getPuntuacion() >= Calificacion.PENALIZACION_SIN_RESOLVER);
+    }
+
+    /**
+     * Contradictory clues are never graded as solved.
+     */
+    @Test
+    void pistasContradictoriasNoSeResuelven() {
+        Calificacion calificacion = grader.calificar(PuzzleCodec.desdeTexto("110000000000000000000000000000000000"));
+        assertFalse(calificacion.isResuelto());
+        assertEquals(NivelDificultad.EXPERTO, calificacion.getNivel());
+    }
+
+    /**
+     * Reusing a grader does not carry state from one puzzle to the next.
+     */
+    @Test
+    void reutilizarNoArrastraEstado() {
+        byte[] facil = PuzzleCodec.desdeTexto("041603000000500401003000035040000010");
+        grader.calificar(PuzzleCodec.desdeTexto("020000600201400306060000004000100402"));
+        assertEquals(NivelDificultad.FACIL, grader.calificar(facil).getNivel());
+    }
+}
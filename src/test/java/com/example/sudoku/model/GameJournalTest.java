@@ -0,0 +1,174 @@
+package com.example.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a journaled game resumes with the same board and undo history,
+ * both after the journal was compacted into a new snapshot and when the last
+ * move was cut short by a crash.
+ */
+class GameJournalTest {
+    @TempDir
+    Path directorio;
+
+    /**
+     * More moves than fit before a compaction are replayed from the new
+     * snapshot plus the tail of the journal.
+     *
+     * @throws IOException if the files cannot be written or read.
+     */
+    @Test
+    void reanudaTrasCompactar() throws IOException {
+        Sudoku sudoku = new Sudoku(BoardGeometry.TABLERO_6X6);
+        sudoku.generarPuzzle(11);
+        try (GameJournal diario = new GameJournal(directorio, sudoku)) {
+            jugarAlAzar(sudoku, new SplittableRandom(5), 300); // Más de las 256 que disparan la compactación
+        }
+        long jugadasEnDiario = (Files.size(directorio.resolve("partida.diario")) - 16) / Integer.BYTES;
+        assertTrue(jugadasEnDiario > 0 && jugadasEnDiario < 256, "el diario no se compactó: " + jugadasEnDiario);
+        assertMismaPartida(sudoku, GameJournal.reanudar(directorio));
+    }
+
+    /**
+     * A move cut in half at the end of the journal is ignored and the game
+     * resumes as it was before that move.
+     *
+     * @throws IOException if the files cannot be written or read.
+     */
+    @Test
+    void ignoraUnMovimientoCortado() throws IOException {
+        Sudoku sudoku = new Sudoku(BoardGeometry.TABLERO_6X6);
+        sudoku.generarPuzzle(12);
+        Sudoku referencia = new Sudoku(BoardGeometry.TABLERO_6X6);
+        referencia.cargarPuzzle(sudoku.getPuzzle());
+
+        int celda = primeraVacia(sudoku);
+        int row = celda / 6;
+        int col = celda % 6;
+        try (GameJournal diario = new GameJournal(directorio, sudoku)) {
+            sudoku.setNumberInTableSodoku(1, row, col);
+            referencia.setNumberInTableSodoku(1, row, col);
+            sudoku.setNumberInTableSodoku(2, row, col); // Esta jugada queda cortada
+        }
+
+        Path archivo = directorio.resolve("partida.diario");
+        assertEquals(16 + 2 * Integer.BYTES, Files.size(archivo));
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.truncate(Files.size(archivo) - 2);
+        }
+
+        Sudoku reanudado = GameJournal.reanudar(directorio);
+        assertEquals(1, reanudado.getCell(row, col));
+        assertFalse(reanudado.puedeRehacer());
+        assertMismaPartida(referencia, reanudado);
+    }
+
+    /**
+     * The difficulty band of the session is kept with the game, so new games
+     * after resuming stay in that band.
+     *
+     * @throws IOException if the files cannot be written or read.
+     */
+    @Test
+    void guardaElNivelDeLaPartida() throws IOException {
+        Sudoku sudoku = new Sudoku(BoardGeometry.TABLERO_6X6);
+        sudoku.generarPuzzle(13);
+        try (GameJournal diario = new GameJournal(directorio, sudoku, NivelDificultad.DIFICIL)) {
+            jugarAlAzar(sudoku, new SplittableRandom(6), 300); // La instantánea compactada también lo guarda
+        }
+        assertEquals(NivelDificultad.DIFICIL, GameJournal.nivelGuardado(directorio));
+        assertMismaPartida(sudoku, GameJournal.reanudar(directorio));
+    }
+
+    /**
+     * Plays random moves on the cells that are not clues: placing and clearing
+     * digits, undoing and redoing.
+     *
+     * @param sudoku the game
+     * @param random the source of the moves
+     * @param jugadas the number of recorded moves to make
+     */
+    private static void jugarAlAzar(Sudoku sudoku, SplittableRandom random, int jugadas) {
+        int[] registradas = new int[1];
+        SudokuListener contador = new SudokuListener() {
+            /**
+             * Counts a recorded move.
+             *
+             * @param movimiento the packed move
+             */
+            @Override
+            public void onMovimiento(int movimiento) {
+                registradas[0]++;
+            }
+        };
+        sudoku.addListener(contador);
+        while (registradas[0] < jugadas) {
+            int celda = random.nextInt(36);
+            int row = celda / 6;
+            int col = celda % 6;
+            if (sudoku.isClue(row, col)) {
+                continue;
+            }
+            int accion = random.nextInt(10);
+            if (accion == 0) {
+                sudoku.deshacer();
+            } else if (accion == 1) {
+                sudoku.rehacer();
+            } else if (accion == 2) {
+                sudoku.clearCell(row, col);
+            } else {
+                sudoku.setNumberInTableSodoku(1 + random.nextInt(6), row, col);
+            }
+        }
+        sudoku.removeListener(contador);
+    }
+
+    /**
+     * Checks that two games have the same puzzle, board and undo history, by
+     * undoing every move on both and comparing the boards at each step.
+     *
+     * @param esperado the original game
+     * @param reanudado the resumed game
+     */
+    private static void assertMismaPartida(Sudoku esperado, Sudoku reanudado) {
+        assertArrayEquals(esperado.getPuzzle().getTablero(), reanudado.getPuzzle().getTablero());
+        assertArrayEquals(esperado.getPuzzle().getSolucion(), reanudado.getPuzzle().getSolucion());
+        assertEquals(esperado.getTableSudoku(), reanudado.getTableSudoku());
+        assertEquals(esperado.puedeRehacer(), reanudado.puedeRehacer());
+        int pasos = 0;
+        while (esperado.puedeDeshacer()) {
+            assertTrue(reanudado.deshacer(), "paso " + pasos);
+            esperado.deshacer();
+            assertEquals(esperado.getTableSudoku(), reanudado.getTableSudoku(), "paso " + pasos);
+            pasos++;
+        }
+        assertFalse(reanudado.puedeDeshacer());
+    }
+
+    /**
+     * Finds the first empty cell of a game.
+     *
+     * @param sudoku the game
+     * @return the cell index, row-major.
+     */
+    private static int primeraVacia(Sudoku sudoku) {
+        int celda = 0;
+        while (sudoku.getCell(celda / 6, celda % 6) != 0) {
+            celda++;
+        }
+        return celda;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the enumerator finds every completed 6x6 grid and that its
+ * first bands are valid and distinct.
+ */
+class GridEnumeratorTest {
+    /**
+     * The count matches the known number of completed 6x6 grids.
+     */
+    @Test
+    void cuentaTodasLasRejillas() {
+        assertEquals(GridEnumerator.TOTAL_6X6, new GridEnumerator().contar());
+    }
+
+    /**
+     * Every band index gives a different pair of top rows whose rows and top
+     * blocks hold each digit once.
+     */
+    @Test
+    void lasPrimerasBandasSonValidasYDistintas() {
+        BoardGeometry geometria = BoardGeometry.TABLERO_6X6;
+        byte[] tablero = new byte[geometria.getCeldas()];
+        Set<String> vistas = new HashSet<>();
+        for (int banda = 0; banda < GridEnumerator.BANDAS; banda++) {
+            GridEnumerator.primeraBanda(banda, tablero);
+            for (int unidad : new int[]{0, 1, 2 * geometria.getTamano(), 2 * geometria.getTamano() + 1}) {
+                int digitos = 0;
+                for (int celda : geometria.unidad(unidad)) {
+                    digitos |= 1 << tablero[celda];
+                }
+                assertEquals(0b1111110, digitos, "banda " + banda + ", unidad " + unidad);
+            }
+            assertTrue(vistas.add(PuzzleCodec.aTexto(tablero).substring(0, 12)), "banda repetida " + banda);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.sudoku.model;
+
+import com.example.sudoku.model.solver.DancingLinksSolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the reducer turns a fixed grid into a minimal puzzle of that
+ * grid and rejects bad arguments.
+ */
+class MinimalPuzzleReducerTest {
+    private static final byte[] REJILLA = PuzzleCodec.desdeTexto("241653356124562431413562135246624315");
+    private static final long SEMILLA = 20241018L;
+
+    private final ForkJoinPool pool = new ForkJoinPool(2); // Paralelismo fijo: el resultado depende de él
+    private final MinimalPuzzleReducer reductor = new MinimalPuzzleReducer(pool);
+
+    /**
+     * Stops the pool of the reducer.
+     */
+    @AfterEach
+    void detener() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * The result has a single solution, is minimal and only holds clues of the grid.
+     */
+    @Test
+    void reduceAUnPuzzleMinimoDeLaRejilla() {
+        Puzzle puzzle = reductor.reducir(REJILLA, 8, SEMILLA);
+        byte[] tablero = puzzle.getTablero();
+
+        assertArrayEquals(REJILLA, puzzle.getSolucion());
+        assertEquals(1, new DancingLinksSolver().contarSoluciones(tablero.clone(), 2));
+        assertTrue(MinimalPuzzleReducer.esMinimo(tablero));
+        for (int celda = 0; celda < tablero.length; celda++) {
+            if (tablero[celda] != 0) {
+                assertEquals(REJILLA[celda], tablero[celda], "celda " + celda);
+            }
+        }
+        assertTrue(puzzle.getPistas() < REJILLA.length);
+    }
+
+    /**
+     * The same grid, number of orders and seed give the same puzzle.
+     */
+    @Test
+    void esReproducible() {
+        assertArrayEquals(reductor.reducir(REJILLA, 8, SEMILLA).getTablero(),
+                reductor.reducir(REJILLA, 8, SEMILLA).getTablero());
+    }
+
+    /**
+     * A puzzle with a clue that can be removed is not minimal, and neither is
+     * the complete grid.
+     */
+    @Test
+    void detectaPuzzlesNoMinimos() {
+        byte[] tablero = reductor.reducir(REJILLA, 8, SEMILLA).getTablero();
+        int vacia = 0;
+        while (tablero[vacia] != 0) {
+            vacia++;
+        }
+        tablero[vacia] = REJILLA[vacia];
+        assertFalse(MinimalPuzzleReducer.esMinimo(tablero));
+        assertFalse(MinimalPuzzleReducer.esMinimo(REJILLA.clone()));
+    }
+
+    /**
+     * Fewer than one removal order, or a grid that is not complete, is rejected.
+     */
+    @Test
+    void rechazaArgumentosNoValidos() {
+        assertThrows(IllegalArgumentException.class, () -> reductor.reducir(REJILLA, 0, SEMILLA));
+        byte[] incompleta = REJILLA.clone();
+        incompleta[0] = 0;
+        assertThrows(IllegalArgumentException.class, () -> reductor.reducir(incompleta, 1, SEMILLA));
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that puzzles are recognised as equivalent after relabeling their
+ * digits and reordering their rows, columns, bands and stacks, and that
+ * different puzzles are not.
+ */
+class PuzzleSymmetryTest {
+    private final Sudoku sudoku = new Sudoku(BoardGeometry.TABLERO_6X6);
+
+    /**
+     * A puzzle with its digits relabeled is the same puzzle.
+     */
+    @Test
+    void reetiquetarLosDigitosEsEquivalente() {
+        byte[] tablero = sudoku.generarPuzzle(1).getTablero();
+        byte[] etiquetas = {0, 4, 6, 1, 3, 2, 5}; // Nuevo dígito de cada dígito; el 0 sigue vacío
+        byte[] reetiquetado = new byte[tablero.length];
+        for (int i = 0; i < tablero.length; i++) {
+            reetiquetado[i] = etiquetas[tablero[i]];
+        }
+        assertTrue(PuzzleSymmetry.equivalentes(tablero, reetiquetado));
+        assertEquals(PuzzleSymmetry.hash(tablero), PuzzleSymmetry.hash(reetiquetado));
+    }
+
+    /**
+     * Each elementary reordering of rows and columns gives the same puzzle.
+     */
+    @Test
+    void reordenarFilasYColumnasEsEquivalente() {
+        byte[] tablero = sudoku.generarPuzzle(2).getTablero();
+        int[] identidad = {0, 1, 2, 3, 4, 5};
+        int[][] ordenesFilas = {
+                {1, 0, 2, 3, 4, 5}, // Filas dentro de una banda
+                {2, 3, 0, 1, 4, 5}, // Dos bandas
+                {4, 5, 0, 1, 2, 3}, // Rotación de las tres bandas
+        };
+        int[][] ordenesColumnas = {
+                {2, 1, 0, 3, 4, 5}, // Columnas dentro de una pila
+                {3, 4, 5, 0, 1, 2}, // Las dos pilas
+        };
+        for (int[] filas : ordenesFilas) {
+            assertTrue(PuzzleSymmetry.equivalentes(tablero, reordenar(tablero, filas, identidad)));
+        }
+        for (int[] columnas : ordenesColumnas) {
+            assertTrue(PuzzleSymmetry.equivalentes(tablero, reordenar(tablero, identidad, columnas)));
+        }
+    }
+
+    /**
+     * Random combinations of reorderings and relabelings give the same
+     * canonical form, and the canonical form is its own canonical form.
+     */
+    @Test
+    void combinacionesAleatoriasTienenLaMismaFormaCanonica() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (long semilla = 1; semilla <= 10; semilla++) {
+            byte[] tablero = sudoku.generarPuzzle(semilla).getTablero();
+            byte[] canonica = PuzzleSymmetry.canonica(tablero);
+            assertArrayEquals(canonica, PuzzleSymmetry.canonica(canonica));
+            for (int intento = 0; intento < 5; intento++) {
+                byte[] transformado = transformarAlAzar(tablero, random);
+                assertArrayEquals(canonica, PuzzleSymmetry.canonica(transformado), "semilla " + semilla);
+            }
+        }
+    }
+
+    /**
+     * Different puzzles, or the same puzzle with one more clue, are not equivalent.
+     */
+    @Test
+    void puzzlesDistintosNoSonEquivalentes() {
+        Puzzle puzzle = sudoku.generarPuzzle(3);
+        byte[] tablero = puzzle.getTablero();
+        assertFalse(PuzzleSymmetry.equivalentes(tablero, sudoku.generarPuzzle(4).getTablero()));
+
+        byte[] conOtraPista = tablero.clone();
+        byte[] solucion = puzzle.getSolucion();
+        int vacia = 0;
+        while (conOtraPista[vacia] != 0) {
+            vacia++;
+        }
+        conOtraPista[vacia] = solucion[vacia];
+        assertFalse(PuzzleSymmetry.equivalentes(tablero, conOtraPista));
+    }
+
+    /**
+     * Only 6x6 boards have a canonical form.
+     */
+    @Test
+    void rechazaOtrosTamanos() {
+        assertThrows(IllegalArgumentException.class, () -> PuzzleSymmetry.canonica(new byte[16]));
+    }
+
+    /**
+     * Moves the rows and columns of a board.
+     *
+     * @param tablero the board
+     * @param filas the source row of each target row
+     * @param columnas the source column of each target column
+     * @return the reordered board.
+     */
+    private static byte[] reordenar(byte[] tablero, int[] filas, int[] columnas) {
+        byte[] resultado = new byte[tablero.length];
+        for (int row = 0; row < 6; row++) {
+            for (int col = 0; col < 6; col++) {
+                resultado[row * 6 + col] = tablero[filas[row] * 6 + columnas[col]];
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Applies a random symmetry: a band order, a row order inside each band, a
+     * stack order, a column order inside each stack and a digit relabeling.
+     *
+     * @param tablero the board
+     * @param random the source of the choices
+     * @return the transformed board.
+     */
+    private static byte[] transformarAlAzar(byte[] tablero, SplittableRandom random) {
+        int[] bandas = barajar(new int[]{0, 1, 2}, random);
+        int[] filas = new int[6];
+        for (int banda = 0; banda < 3; banda++) {
+            boolean cruzar = random.nextBoolean();
+            filas[2 * banda] = 2 * bandas[banda] + (cruzar ? 1 : 0);
+            filas[2 * banda + 1] = 2 * bandas[banda] + (cruzar ? 0 : 1);
+        }
+        int[] pilas = random.nextBoolean() ? new int[]{0, 1} : new int[]{1, 0};
+        int[] columnas = new int[6];
+        for (int pila = 0; pila < 2; pila++) {
+            int[] dentro = barajar(new int[]{0, 1, 2}, random);
+            for (int k = 0; k < 3; k++) {
+                columnas[3 * pila + k] = 3 * pilas[pila] + dentro[k];
+            }
+        }
+        int[] digitos = barajar(new int[]{1, 2, 3, 4, 5, 6}, random);
+        byte[] resultado = reordenar(tablero, filas, columnas);
+        for (int i = 0; i < resultado.length; i++) {
+            if (resultado[i] != 0) {
+                resultado[i] = (byte) digitos[resultado[i] - 1];
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Shuffles an array in place.
+     *
+     * @param valores the values to shuffle
+     * @param random the source of the shuffle
+     * @return the same array, shuffled.
+     */
+    private static int[] barajar(int[] valores, SplittableRandom random) {
+        for (int i = valores.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = valores[i];
+            valores[i] = valores[j];
+            valores[j] = tmp;
+        }
+        return valores;
+    }
+}
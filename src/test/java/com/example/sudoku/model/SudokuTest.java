@@ -0,0 +1,64 @@
+package com.example.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the clues of a puzzle can be neither overwritten nor cleared.
+ */
+class SudokuTest {
+    /**
+     * Generation leaves exactly the remaining digits marked as clues.
+     */
+    @Test
+    void generarMarcaComoPistasLasCeldasLlenas() {
+        Sudoku sudoku = new Sudoku(BoardGeometry.TABLERO_6X6);
+        sudoku.generarPuzzle(21);
+        for (int row = 0; row < 6; row++) {
+            for (int col = 0; col < 6; col++) {
+                assertEquals(sudoku.getCell(row, col) != 0, sudoku.isClue(row, col), "(" + row + ", " + col + ")");
+            }
+        }
+    }
+
+    /**
+     * Writing or clearing a clue is rejected as an invalid move and changes nothing.
+     */
+    @Test
+    void rechazaEscribirEnLasPistas() {
+        Sudoku sudoku = new Sudoku(BoardGeometry.TABLERO_6X6);
+        sudoku.generarPuzzle(22);
+        int celda = 0;
+        while (!sudoku.isClue(celda / 6, celda % 6)) {
+            celda++;
+        }
+        int row = celda / 6;
+        int col = celda % 6;
+        int pista = sudoku.getCell(row, col);
+        int[] invalidos = new int[1];
+        sudoku.addListener(new SudokuListener() {
+            /**
+             * Counts a rejected move.
+             *
+             * @param number the rejected number
+             * @param row the row index
+             * @param col the column index
+             */
+            @Override
+            public void onMovimientoInvalido(int number, int row, int col) {
+                invalidos[0]++;
+            }
+        });
+
+        sudoku.setNumberInTableSodoku(pista % 6 + 1, row, col);
+        sudoku.clearCell(row, col);
+
+        assertEquals(2, invalidos[0]);
+        assertEquals(pista, sudoku.getCell(row, col));
+        assertTrue(sudoku.isClue(row, col));
+        assertFalse(sudoku.puedeDeshacer());
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Puzzle;
+import com.example.sudoku.model.Sudoku;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that Dancing Links and the backtracker agree on solutions and on
+ * solution counts.
+ */
+class DancingLinksSolverTest {
+    private final SudokuSolver dlx = new DancingLinksSolver();
+    private final SudokuSolver backtracking = new BacktrackingSolver();
+
+    /**
+     * Both solvers find the stored solution of unique puzzles of every size up to 9x9.
+     */
+    @Test
+    void resuelvenIgualLosPuzzlesUnicos() {
+        for (BoardGeometry geometria : BoardGeometry.disponibles()) {
+            if (geometria.getTamano() > 9) {
+                continue; // El backtracker por orden de filas es demasiado lento en 12x12
+            }
+            for (long semilla = 1; semilla <= 5; semilla++) {
+                Puzzle puzzle = new Sudoku(geometria).generarPuzzle(semilla);
+                byte[] porDlx = puzzle.getTablero();
+                byte[] porBacktracking = puzzle.getTablero();
+                assertTrue(dlx.resolver(porDlx, null));
+                assertTrue(backtracking.resolver(porBacktracking, null));
+                assertArrayEquals(puzzle.getSolucion(), porDlx, geometria + " semilla " + semilla);
+                assertArrayEquals(puzzle.getSolucion(), porBacktracking, geometria + " semilla " + semilla);
+            }
+        }
+    }
+
+    /**
+     * Both solvers count the same solutions on puzzles with clues removed, so
+     * they have several solutions, and return valid completions of them.
+     */
+    @Test
+    void cuentanLasMismasSoluciones() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (BoardGeometry geometria : new BoardGeometry[]{BoardGeometry.TABLERO_4X4, BoardGeometry.TABLERO_6X6}) {
+            for (long semilla = 1; semilla <= 10; semilla++) {
+                byte[] tablero = new Sudoku(geometria).generarPuzzle(semilla).getTablero();
+                for (int quitadas = 0; quitadas < 3; quitadas++) {
+                    tablero[random.nextInt(tablero.length)] = 0;
+                }
+                int esperadas = backtracking.contarSoluciones(tablero.clone(), 1000);
+                assertEquals(esperadas, dlx.contarSoluciones(tablero.clone(), 1000), geometria + " semilla " + semilla);
+                assertTrue(esperadas >= 1);
+
+                byte[] solucion = tablero.clone();
+                assertTrue(dlx.resolver(solucion, new SplittableRandom(semilla)));
+                assertTrue(esValida(geometria, tablero, solucion));
+            }
+        }
+    }
+
+    /**
+     * Both solvers count every 4x4 grid from an empty board and find no
+     * solution for a board with a repeated digit.
+     */
+    @Test
+    void coincidenEnLosCasosExtremos() {
+        byte[] vacio = new byte[BoardGeometry.TABLERO_4X4.getCeldas()];
+        assertEquals(288, backtracking.contarSoluciones(vacio.clone(), 1000));
+        assertEquals(288, dlx.contarSoluciones(vacio.clone(), 1000));
+
+        byte[] contradictorio = new byte[BoardGeometry.TABLERO_6X6.getCeldas()];
+        contradictorio[0] = 1;
+        contradictorio[1] = 1;
+        assertEquals(0, backtracking.contarSoluciones(contradictorio.clone(), 2));
+        assertEquals(0, dlx.contarSoluciones(contradictorio.clone(), 2));
+        assertFalse(dlx.resolver(contradictorio.clone(), null));
+    }
+
+    /**
+     * Checks that a solution is complete, keeps the clues and repeats no digit in a unit.
+     *
+     * @param geometria the size of the board
+     * @param pistas the board that was solved
+     * @param solucion the solution found
+     * @return true if the solution is valid.
+     */
+    private static boolean esValida(BoardGeometry geometria, byte[] pistas, byte[] solucion) {
+        for (int i = 0; i < pistas.length; i++) {
+            if (solucion[i] == 0 || (pistas[i] != 0 && pistas[i] != solucion[i])) {
+                return false;
+            }
+        }
+        for (int u = 0; u < geometria.getUnidades(); u++) {
+            int vistos = 0;
+            for (int celda : geometria.unidad(u)) {
+                vistos |= 1 << solucion[celda];
+            }
+            if (Integer.bitCount(vistos) != geometria.getTamano()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
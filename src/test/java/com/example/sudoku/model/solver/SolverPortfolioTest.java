@@ -0,0 +1,126 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Puzzle;
+import com.example.sudoku.model.Sudoku;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the deadline and cancellation contract of the portfolio: a race that
+ * cannot finish in time gives up and frees its threads, and races that can
+ * finish report whether the board has a solution.
+ */
+class SolverPortfolioTest {
+    private final SolverPortfolio portfolio = new SolverPortfolio();
+
+    /**
+     * Stops the threads of the portfolio.
+     */
+    @AfterEach
+    void detener() {
+        portfolio.detener();
+    }
+
+    /**
+     * Counting every solution of an empty 12x12 board never ends, so the race
+     * gives up at the deadline and the strategies stop searching.
+     *
+     * @throws InterruptedException if the test is interrupted while waiting for the threads.
+     */
+    @Test
+    void agotaElPlazoYCancelaLasEstrategias() throws InterruptedException {
+        byte[] vacio = new byte[BoardGeometry.TABLERO_12X12.getCeldas()];
+        long inicio = System.nanoTime();
+        ResultadoResolucion resultado = portfolio.contarSoluciones(vacio, Integer.MAX_VALUE, Duration.ofMillis(100));
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertEquals(ResultadoResolucion.Estado.TIEMPO_AGOTADO, resultado.getEstado());
+        assertTrue(millis < 2_000, "la carrera tardó " + millis + " ms");
+        assertNull(resultado.getEstrategia());
+
+        // Las estrategias ven la interrupción en su siguiente comprobación: se les da un margen
+        long limite = System.nanoTime() + 2_000_000_000L;
+        while (hilosBuscando() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, hilosBuscando());
+    }
+
+    /**
+     * A board with a repeated clue has no solution.
+     */
+    @Test
+    void unaPistaRepetidaNoTieneSolucion() {
+        byte[] tablero = new byte[BoardGeometry.TABLERO_6X6.getCeldas()];
+        tablero[0] = 1;
+        tablero[1] = 1; // El mismo dígito dos veces en la primera fila
+        ResultadoResolucion resultado = portfolio.resolver(tablero, Duration.ofSeconds(5));
+
+        assertEquals(ResultadoResolucion.Estado.SIN_SOLUCION, resultado.getEstado());
+        assertNull(resultado.getTablero());
+    }
+
+    /**
+     * A solvable board is solved into a valid grid that keeps its clues.
+     */
+    @Test
+    void resuelveUnTableroConSolucion() {
+        Puzzle puzzle = new Sudoku(BoardGeometry.TABLERO_9X9).generarPuzzle(3);
+        byte[] tablero = puzzle.getTablero();
+        ResultadoResolucion resultado = portfolio.resolver(tablero, Duration.ofSeconds(5));
+
+        assertEquals(ResultadoResolucion.Estado.RESUELTO, resultado.getEstado());
+        assertNotNull(resultado.getEstrategia());
+        byte[] solucion = resultado.getTablero();
+        assertTrue(esRejillaValida(BoardGeometry.TABLERO_9X9, solucion));
+        for (int celda = 0; celda < tablero.length; celda++) {
+            if (tablero[celda] != 0) {
+                assertEquals(tablero[celda], solucion[celda], "celda " + celda);
+            }
+        }
+        assertArrayEquals(puzzle.getSolucion(), solucion); // El puzzle tiene solución única
+        assertArrayEquals(puzzle.getTablero(), tablero, "el tablero de la petición no se modifica");
+    }
+
+    /**
+     * Counts the portfolio threads that are still running a search.
+     *
+     * @return the number of RUNNABLE threads of the portfolio.
+     */
+    private static long hilosBuscando() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(hilo -> hilo.getName().startsWith("sudoku-portfolio-"))
+                .filter(hilo -> hilo.getState() == Thread.State.RUNNABLE)
+                .count();
+    }
+
+    /**
+     * Checks that every row, column and block of a grid holds each digit once.
+     *
+     * @param geometria the size of the grid
+     * @param rejilla the grid, row-major
+     * @return true if the grid is complete and valid.
+     */
+    private static boolean esRejillaValida(BoardGeometry geometria, byte[] rejilla) {
+        int todos = ((1 << geometria.getTamano()) - 1) << 1;
+        for (int unidad = 0; unidad < geometria.getUnidades(); unidad++) {
+            int digitos = 0;
+            for (int celda : geometria.unidad(unidad)) {
+                digitos |= 1 << rejilla[celda];
+            }
+            if (digitos != todos) {
+                return false;
+            }
+        }
+        return true;
+    }
+}